@@ -0,0 +1,92 @@
+package com.example.timemanager.ui.widget;
+
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.timemanager.R;
+import com.example.timemanager.ui.main.MainActivity;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 计时运行期间统计 MainActivity 中真实秒表（lblTime，由 FrameTicker 经 TickChannel 驱动）每秒的布局次数：
+ * 逐帧刷新时不应请求或执行任何布局
+ * 新增时间：2026-10-18 16:45
+ * 修改时间：2026-10-19 11:05 - 不再另加测试用的子类控件，直接在真实的 lblTime 上计数：
+ *          OnLayoutChangeListener 在该控件每次执行 onLayout 时回调（与边界是否变化无关），
+ *          每帧检查 isLayoutRequested，并在绘制时统计显示内容的变化次数，确认秒表确实在按帧刷新
+ */
+@RunWith(AndroidJUnit4.class)
+public class TimerDisplayViewLayoutTest {
+
+    private static final long MEASURE_MILLIS = 1000;
+
+    // 以下计数只在主线程读写
+    private int layoutPasses;
+    private int renderedTicks;
+    private boolean layoutRequested;
+    private boolean measuring;
+    private String lastText;
+
+    @Test
+    public void tickingDoesNotTriggerLayout() throws Exception {
+        try (ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class)) {
+            final View.OnLayoutChangeListener layoutCounter =
+                    (v, left, top, right, bottom, oldLeft, oldTop, oldRight, oldBottom) -> {
+                        if (measuring) layoutPasses++;
+                    };
+            final ViewTreeObserver.OnDrawListener[] drawCounter = new ViewTreeObserver.OnDrawListener[1];
+            scenario.onActivity(activity -> {
+                TimerDisplayView lblTime = activity.findViewById(R.id.lblTime);
+                lblTime.addOnLayoutChangeListener(layoutCounter);
+                drawCounter[0] = () -> {
+                    String text = lblTime.getText().toString();
+                    if (measuring && !text.equals(lastText)) renderedTicks++;
+                    lastText = text;
+                };
+                lblTime.getViewTreeObserver().addOnDrawListener(drawCounter[0]);
+                activity.findViewById(R.id.btnStartPause).performClick();
+            });
+            // 开始计时后按钮文字变化引起的布局在计数开始前完成
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+            Thread.sleep(300);
+
+            scenario.onActivity(activity -> {
+                View lblTime = activity.findViewById(R.id.lblTime);
+                measuring = true;
+                Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+                    @Override
+                    public void doFrame(long frameTimeNanos) {
+                        if (!measuring) return;
+                        layoutRequested |= lblTime.isLayoutRequested();
+                        Choreographer.getInstance().postFrameCallback(this);
+                    }
+                });
+            });
+
+            Thread.sleep(MEASURE_MILLIS);
+
+            scenario.onActivity(activity -> {
+                measuring = false;
+                TimerDisplayView lblTime = activity.findViewById(R.id.lblTime);
+                lblTime.removeOnLayoutChangeListener(layoutCounter);
+                lblTime.getViewTreeObserver().removeOnDrawListener(drawCounter[0]);
+                activity.findViewById(R.id.btnStartPause).performClick();
+            });
+
+            assertTrue("stopwatch updates rendered per second: " + renderedTicks, renderedTicks >= 10);
+            assertEquals("lblTime layout passes per second", 0, layoutPasses);
+            assertFalse("running stopwatch requested layout", layoutRequested);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+// 【2026-10-19 11:40】新增：LapIntervalIndex - 只含间隔的紧凑前缀和索引（树状数组）
+// 功能作用：界面不再在内存中持有全部记录（列表按页从存储读取），但“间隔累计”仍需由前缀和给出：
+//          本类按物理槽位保存两棵树状数组（间隔和、有效条数）与主键，每条记录约 20 字节，不持有 LapRecord。
+//          追加、修改、删除任意一条与“第 i 到第 j 条的总时长”查询均为 O(log n)；
+//          删除采用墓碑（有效条数减一），墓碑过多时 O(n) 整体压缩。起点偏移 base 为第一条记录的间隔累计减去其间隔
+//          （导入的文件中间隔累计可以不从 0 开始），第 i 条的累计值为 base + 前 i + 1 条的间隔和，删除任意一条时不变。
+//          可变、非线程安全，只在主线程使用；导出线程读取 snapshot() 返回的只读快照。
+// 新增时间：2026年10月19日 11:40
+// 修改时间：2026年10月19日 14:14 - 每个槽位另存记录的存储主键：第 i 条的主键 O(log n) 可得，
+//                              修改 / 删除 / 分页按主键访问存储，不再让存储按位置 OFFSET 扫描
+// 修改时间：2026年10月19日 14:44 - 增加只读快照（写时复制）：导出线程按主键取各行当时的间隔累计，
+//                              追加不复制；修改、删除已有槽位前若与快照共享数组，先复制一份
+package com.example.timemanager.data.collection;
+
+import androidx.annotation.NonNull;
+import com.example.timemanager.data.model.LapRecord;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class LapIntervalIndex {
+    // 物理槽位不少于该值且墓碑多于有效记录时压缩
+    private static final int COMPACT_MIN_SLOTS = 64;
+    private static final int INITIAL_CAPACITY = 16;
+
+    // 树状数组，下标从 1 开始；已删除的槽位间隔为 0、有效条数为 0
+    private long[] sums;
+    private int[] alive;
+    // 各槽位记录的存储主键（普通数组，不是树状数组）
+    private long[] ids;
+    private int slots;
+    private int size;
+    private long total;
+    private long base;
+    // 下一条新记录使用的主键：大于出现过的所有主键（删除、清空后也不回退）
+    private long nextId = 1;
+    // 数组与只读快照共享：修改已有槽位前先复制（追加只写快照范围之外的新槽位，无需复制）
+    private boolean shared;
+    // 只读快照（snapshot 的返回值），任何修改都会抛出异常
+    private boolean frozen;
+
+    public LapIntervalIndex() {
+        this(new long[INITIAL_CAPACITY + 1], new int[INITIAL_CAPACITY + 1], new long[INITIAL_CAPACITY + 1]);
+    }
+
+    private LapIntervalIndex(long[] sums, int[] alive, long[] ids) {
+        this.sums = sums;
+        this.alive = alive;
+        this.ids = ids;
+    }
+
+    // 由按顺序排列的间隔与主键一次性构建，O(n)（从存储加载时使用）；nextId 不小于存储已分配过的最大主键 + 1
+    @NonNull
+    public static LapIntervalIndex of(long base, @NonNull long[] intervals, @NonNull long[] ids, int count,
+                                      long nextId) {
+        LapIntervalIndex index = new LapIntervalIndex();
+        index.rebuild(intervals, ids, count);
+        index.base = base;
+        for (int i = 0; i < count; i++) {
+            index.nextId = Math.max(index.nextId, ids[i] + 1);
+        }
+        index.nextId = Math.max(index.nextId, nextId);
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // 第一条记录开始时的累计值
+    public long baseMillis() {
+        return base;
+    }
+
+    // 最后一条记录结束时的累计值
+    public long totalMillis() {
+        return base + total;
+    }
+
+    // 下一条新记录应使用的主键（追加前由调用方写入记录，见 LapRecord.withId）
+    public long nextId() {
+        return nextId;
+    }
+
+    // 追加一条记录的间隔，均摊 O(log n)；列表为空时由它确定起点偏移
+    public void append(@NonNull LapRecord record) {
+        checkMutable();
+        if (size == 0) {
+            // 从第一个槽位重新开始写，会覆盖快照仍在读取的槽位
+            unshare();
+            slots = 0;
+            total = 0;
+            base = record.getLapTimeMillis() - record.getIntervalMillis();
+        }
+        appendSlot(record.getIntervalMillis(), record.getId());
+        nextId = Math.max(nextId, record.getId() + 1);
+    }
+
+    // 清空全部记录（重置）；主键计数不回退，重置后新记录的主键仍大于之前导出过的记录
+    public void clear() {
+        checkMutable();
+        shared = false;
+        sums = new long[INITIAL_CAPACITY + 1];
+        alive = new int[INITIAL_CAPACITY + 1];
+        ids = new long[INITIAL_CAPACITY + 1];
+        slots = 0;
+        size = 0;
+        total = 0;
+        base = 0;
+    }
+
+    // 第 position 条记录的存储主键，O(log n)
+    public long idAt(int position) {
+        checkIndex(position);
+        return ids[slotOf(position)];
+    }
+
+    // 最后一条记录的主键，没有记录时为 0
+    public long lastId() {
+        return size == 0 ? 0L : idAt(size - 1);
+    }
+
+    // 【2026-10-19 14:44】新增：当前内容的只读快照，O(1)
+    // 功能作用：供导出线程读取；之后本索引上的追加、修改、删除都不影响快照。快照须在主线程创建
+    @NonNull
+    public LapIntervalIndex snapshot() {
+        LapIntervalIndex copy = new LapIntervalIndex(sums, alive, ids);
+        copy.slots = slots;
+        copy.size = size;
+        copy.total = total;
+        copy.base = base;
+        copy.nextId = nextId;
+        copy.frozen = true;
+        shared = true;
+        return copy;
+    }
+
+    // 【2026-10-19 14:44】新增：主键为 id 的记录结束时的间隔累计（含该条），O(log n)；没有该记录时返回 otherwise
+    // 功能作用：各槽位的主键按顺序递增，二分找到槽位后取前缀和（已删除的槽位间隔为 0）
+    public long cumulativeMillisOf(long id, long otherwise) {
+        int low = 1;
+        int high = slots;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (slots == 0 || ids[low] != id || aliveSlots(low) == aliveSlots(low - 1)) {
+            return otherwise;
+        }
+        return base + prefixSlots(low);
+    }
+
+    // 第 position 条记录的间隔
+    public long intervalMillis(int position) {
+        checkIndex(position);
+        int slot = slotOf(position);
+        return prefixSlots(slot) - prefixSlots(slot - 1);
+    }
+
+    // 修改第 position 条记录的间隔，O(log n)；其后各条的累计值随之变化
+    public void setIntervalMillis(int position, long intervalMillis) {
+        checkMutable();
+        checkIndex(position);
+        unshare();
+        int slot = slotOf(position);
+        long delta = intervalMillis - (prefixSlots(slot) - prefixSlots(slot - 1));
+        addSum(slot, delta);
+        total += delta;
+    }
+
+    // 删除第 position 条记录（墓碑，均摊 O(log n)）；起点偏移不变
+    public void remove(int position) {
+        checkMutable();
+        checkIndex(position);
+        unshare();
+        int slot = slotOf(position);
+        long interval = prefixSlots(slot) - prefixSlots(slot - 1);
+        addSum(slot, -interval);
+        for (int i = slot; i <= slots; i += i & -i) {
+            alive[i]--;
+        }
+        size--;
+        total -= interval;
+        if (slots >= COMPACT_MIN_SLOTS && slots - size > size) {
+            compact();
+        }
+    }
+
+    // 第 position 条记录结束时的间隔累计（含该条）
+    public long cumulativeMillis(int position) {
+        checkIndex(position);
+        return base + prefixMillis(position + 1);
+    }
+
+    // [from, to) 区间内各条记录的间隔总和，O(log n)
+    public long sumMillis(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range: [" + from + ", " + to + "), Size: " + size);
+        }
+        return prefixMillis(to) - prefixMillis(from);
+    }
+
+    // 按当前前缀和修正从存储读出的一页记录；offset 为该页第一条的位置，O(log n + 页大小)
+    @NonNull
+    public List<LapRecord> withCurrentTotals(int offset, @NonNull List<LapRecord> page) {
+        List<LapRecord> result = new ArrayList<>(page.size());
+        long running = offset <= size ? base + prefixMillis(offset) : 0L;
+        for (int i = 0; i < page.size(); i++) {
+            LapRecord record = page.get(i);
+            if (offset + i < size) {
+                running += record.getIntervalMillis();
+                result.add(record.getLapTimeMillis() == running ? record : record.withLapTimeMillis(running));
+            } else {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    // 前 count 条有效记录的间隔和
+    private long prefixMillis(int count) {
+        return count == 0 ? 0L : prefixSlots(slotOf(count - 1));
+    }
+
+    // 第 position 条有效记录所在的槽位（从 1 开始）：按有效条数二分下降
+    private int slotOf(int position) {
+        int slot = 0;
+        int remaining = position + 1;
+        for (int step = Integer.highestOneBit(slots); step > 0; step >>>= 1) {
+            int next = slot + step;
+            if (next <= slots && alive[next] < remaining) {
+                slot = next;
+                remaining -= alive[next];
+            }
+        }
+        return slot + 1;
+    }
+
+    // 前 slot 个槽位的间隔和
+    private long prefixSlots(int slot) {
+        long result = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            result += sums[i];
+        }
+        return result;
+    }
+
+    private int aliveSlots(int slot) {
+        int result = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            result += alive[i];
+        }
+        return result;
+    }
+
+    private void addSum(int slot, long delta) {
+        for (int i = slot; i <= slots; i += i & -i) {
+            sums[i] += delta;
+        }
+    }
+
+    // 在末尾新增一个槽位：节点值为该槽位的间隔加上它覆盖的前面各槽位之和
+    private void appendSlot(long intervalMillis, long id) {
+        int slot = slots + 1;
+        if (slot >= sums.length) {
+            int capacity = sums.length * 2;
+            sums = Arrays.copyOf(sums, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            shared = false;
+        }
+        ids[slot] = id;
+        int covered = slot - (slot & -slot);
+        sums[slot] = intervalMillis + prefixSlots(slot - 1) - prefixSlots(covered);
+        alive[slot] = 1 + aliveSlots(slot - 1) - aliveSlots(covered);
+        slots = slot;
+        size++;
+        total += intervalMillis;
+    }
+
+    // 去掉墓碑后按原顺序重建
+    private void compact() {
+        long[] values = Arrays.copyOfRange(sums, 0, slots + 1);
+        int[] counts = Arrays.copyOfRange(alive, 0, slots + 1);
+        // 树状数组还原为各槽位的原值（O(n) 构建的逆过程）
+        for (int i = slots; i > 0; i--) {
+            int parent = i + (i & -i);
+            if (parent <= slots) {
+                values[parent] -= values[i];
+                counts[parent] -= counts[i];
+            }
+        }
+        long[] live = new long[size];
+        long[] liveIds = new long[size];
+        int count = 0;
+        for (int i = 1; i <= slots; i++) {
+            if (counts[i] > 0) {
+                liveIds[count] = ids[i];
+                live[count++] = values[i];
+            }
+        }
+        rebuild(live, liveIds, count);
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("只读快照不能修改");
+        }
+    }
+
+    // 与快照共享数组时复制一份再修改
+    private void unshare() {
+        if (shared) {
+            sums = sums.clone();
+            alive = alive.clone();
+            ids = ids.clone();
+            shared = false;
+        }
+    }
+
+    private void rebuild(long[] intervals, long[] recordIds, int count) {
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, count)) * 2) + 1;
+        sums = new long[capacity];
+        alive = new int[capacity];
+        ids = new long[capacity];
+        shared = false;
+        total = 0;
+        for (int i = 0; i < count; i++) {
+            sums[i + 1] = intervals[i];
+            alive[i + 1] = 1;
+            ids[i + 1] = recordIds[i];
+            total += intervals[i];
+        }
+        for (int i = 1; i <= count; i++) {
+            int parent = i + (i & -i);
+            if (parent <= count) {
+                sums[parent] += sums[i];
+                alive[parent] += alive[i];
+            }
+        }
+        slots = count;
+        size = count;
+    }
+
+    private void checkIndex(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + size);
+        }
+    }
+}
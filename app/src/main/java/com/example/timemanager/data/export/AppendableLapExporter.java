@@ -0,0 +1,19 @@
+// 【2026-10-19 10:20】新增：AppendableLapExporter - 支持追加到已有文件末尾的导出格式
+// 功能作用：追加写出是部分格式才有的能力（逐行文本格式支持，zip / XML 文档不支持），
+//          以子接口表示而不是在 LapExporter 中提供抛异常的默认实现：
+//          只有实现了本接口的格式才能用于追加导出，调用方在编译期即可区分。
+// 新增时间：2026年10月19日 10:20
+package com.example.timemanager.data.export;
+
+import androidx.annotation.NonNull;
+
+import com.example.timemanager.data.model.LapRecord;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface AppendableLapExporter extends LapExporter {
+
+    // 追加写出：out 位于已有文件末尾；writeHeader 为 true 表示目标文件为空，需要先写文件头
+    void append(@NonNull Iterable<LapRecord> records, @NonNull OutputStream out, boolean writeHeader) throws IOException;
+}
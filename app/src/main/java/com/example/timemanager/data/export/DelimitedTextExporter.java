@@ -0,0 +1,131 @@
+// 【2026-10-18 19:27】新增：DelimitedTextExporter - CSV / TSV 导出
+// 功能作用：输出与 ExcelImportUtil 读取一致的 8 列布局（序号,日期,间隔,间隔累计,开始时间,记录时间,分段种类,具体事件），
+//          首行为表头，行尾 CRLF；字段含分隔符、双引号或换行时按 RFC 4180 用双引号包裹并把引号双写。
+//          文件以 UTF-8 BOM 开头，Excel 直接打开时中文不乱码。
+//          经 Utf8StreamWriter 直接编码进固定缓冲，序号与时长不经过中间 String，导出耗时主要在 I/O 上。
+// 新增时间：2026年10月18日 19:27
+package com.example.timemanager.data.export;
+
+import androidx.annotation.NonNull;
+
+import com.example.timemanager.R;
+import com.example.timemanager.data.model.LapRecord;
+import com.example.timemanager.util.Utf8StreamWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public final class DelimitedTextExporter implements AppendableLapExporter {
+    private static final String[] HEADERS = {"序号", "日期", "间隔", "间隔累计", "开始时间", "记录时间", "分段种类", "具体事件"};
+    private static final String BOM = "\uFEFF";
+
+    private final String formatId;
+    private final String mimeType;
+    private final String extension;
+    private final int displayNameRes;
+    private final char delimiter;
+
+    private DelimitedTextExporter(String formatId, String mimeType, String extension, int displayNameRes, char delimiter) {
+        this.formatId = formatId;
+        this.mimeType = mimeType;
+        this.extension = extension;
+        this.displayNameRes = displayNameRes;
+        this.delimiter = delimiter;
+    }
+
+    public static DelimitedTextExporter csv() {
+        return new DelimitedTextExporter("csv", "text/csv", "csv", R.string.export_format_csv, ',');
+    }
+
+    public static DelimitedTextExporter tsv() {
+        return new DelimitedTextExporter("tsv", "text/tab-separated-values", "tsv", R.string.export_format_tsv, '\t');
+    }
+
+    @NonNull
+    @Override
+    public String getFormatId() {
+        return formatId;
+    }
+
+    @NonNull
+    @Override
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    @NonNull
+    @Override
+    public String getFileExtension() {
+        return extension;
+    }
+
+    @Override
+    public int getDisplayNameRes() {
+        return displayNameRes;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    @Override
+    public void write(@NonNull Iterable<LapRecord> records, @NonNull OutputStream out) throws IOException {
+        append(records, out, true);
+    }
+
+    // 【2026-10-18 21:26】新增：追加模式（"wa" 打开的已有文件），只有空文件才写 BOM 与表头
+    // 新增时间：2026年10月18日 21:26
+    // 【2026-10-19 10:20】修改：改为实现 AppendableLapExporter
+    @Override
+    public void append(@NonNull Iterable<LapRecord> records, @NonNull OutputStream out, boolean writeHeader) throws IOException {
+        Utf8StreamWriter writer = new Utf8StreamWriter(out);
+        if (writeHeader) {
+            writer.raw(BOM);
+            writeHeader(writer);
+        }
+        writeRows(writer, records);
+        writer.flush();
+    }
+
+    // 表头行
+    public void writeHeader(@NonNull Utf8StreamWriter writer) throws IOException {
+        for (int i = 0; i < HEADERS.length; i++) {
+            if (i > 0) writer.ascii(delimiter);
+            writer.raw(HEADERS[i]);
+        }
+        writer.ascii('\r').ascii('\n');
+    }
+
+    // 数据行（不含表头）
+    public void writeRows(@NonNull Utf8StreamWriter writer, @NonNull Iterable<LapRecord> records) throws IOException {
+        for (LapRecord record : records) {
+            writer.number(record.getIndex()).ascii(delimiter);
+            field(writer, record.getDate()).ascii(delimiter);
+            writer.duration(record.getIntervalMillis()).ascii(delimiter);
+            writer.duration(record.getLapTimeMillis()).ascii(delimiter);
+            dateTime(writer, record.getStartTimeMillis(), record.getStartTimeText()).ascii(delimiter);
+            dateTime(writer, record.getRecordTimeMillis(), record.getRecordTimeText()).ascii(delimiter);
+            field(writer, record.getCategory()).ascii(delimiter);
+            field(writer, record.getDetail()).ascii('\r').ascii('\n');
+        }
+    }
+
+    // 时间戳为 0 时写导入时保留的原始文本（与 LapRecord.getStartTime / getRecordTime 一致）
+    private Utf8StreamWriter dateTime(Utf8StreamWriter writer, long epochMillis, String fallbackText) throws IOException {
+        return epochMillis != 0 ? writer.dateTime(epochMillis) : field(writer, fallbackText);
+    }
+
+    // RFC 4180：仅在必要时加引号；null 写为空字段
+    private Utf8StreamWriter field(Utf8StreamWriter writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) return writer;
+        return needsQuoting(value) ? writer.quoted(value, '"') : writer.raw(value);
+    }
+
+    private boolean needsQuoting(String value) {
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\r' || c == '\n') return true;
+        }
+        return false;
+    }
+}
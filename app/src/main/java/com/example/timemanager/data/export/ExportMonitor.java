@@ -0,0 +1,136 @@
+// 【2026-10-18 20:02】新增：ExportMonitor - 单次导出任务的进度统计与取消控制
+// 功能作用：包装交给 LapExporter 的记录列表与输出流：遍历记录时累计已写行数，写出字节时累计字节数，
+//          二者都会检查取消标记（分别抛出 CancellationException / InterruptedIOException），
+//          因此任何格式的导出都能在文件中途停下，无需导出器自己配合。
+//          进度按时间节流（约 4 次 / 秒）回调，避免每行都创建对象、刷新 LiveData。
+// 新增时间：2026年10月18日 20:02
+package com.example.timemanager.data.export;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import com.example.timemanager.data.model.LapRecord;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public final class ExportMonitor {
+    private static final AtomicLong NEXT_JOB_ID = new AtomicLong(1);
+    private static final long PUBLISH_INTERVAL_MILLIS = 250;
+    // 每写出这么多行检查一次是否该发布进度
+    private static final int PUBLISH_CHECK_ROWS = 256;
+
+    private final long jobId = NEXT_JOB_ID.getAndIncrement();
+    private final String formatId;
+    private volatile int totalRows;
+    private final Consumer<ExportProgress> listener;
+    private final long startMillis = SystemClock.elapsedRealtime();
+
+    private volatile boolean cancelled;
+    private volatile int rowsWritten;
+    private volatile long bytesWritten;
+    private long lastPublishMillis;
+
+    public ExportMonitor(@NonNull String formatId, int totalRows, @NonNull Consumer<ExportProgress> listener) {
+        this.formatId = formatId;
+        this.totalRows = totalRows;
+        this.listener = listener;
+    }
+
+    // 筛选后的条数在导出线程中才确定
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getJobId() {
+        return jobId;
+    }
+
+    // 可在任意线程调用；导出线程会在下一行或下一次写出时停止
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getRowsPerSecond() {
+        long elapsed = SystemClock.elapsedRealtime() - startMillis;
+        return elapsed > 0 ? rowsWritten * 1000L / elapsed : rowsWritten;
+    }
+
+    // 发布当前进度（RUNNING）或最终结果
+    public void publish(@NonNull ExportProgress.State state) {
+        lastPublishMillis = SystemClock.elapsedRealtime();
+        listener.accept(new ExportProgress(jobId, formatId, state, rowsWritten, totalRows, bytesWritten,
+                lastPublishMillis - startMillis));
+    }
+
+    // 【2026-10-18 20:04】新增：统计行数的只读视图（顺序遍历委托给原列表的迭代器，LapTimeline 下整体 O(n)）
+    // 新增时间：2026年10月18日 20:04
+    // 【2026-10-19 14:40】修改：改为包装 Iterable（导出记录由存储游标逐行读出，总条数经 setTotalRows 给出）
+    @NonNull
+    public Iterable<LapRecord> track(@NonNull Iterable<LapRecord> records) {
+        return () -> {
+            Iterator<LapRecord> it = records.iterator();
+            return new Iterator<LapRecord>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public LapRecord next() {
+                    onRow();
+                    return it.next();
+                }
+            };
+        };
+    }
+
+    // 【2026-10-18 20:05】新增：统计字节数并响应取消的输出流
+    // 新增时间：2026年10月18日 20:05
+    @NonNull
+    public OutputStream track(@NonNull OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                checkCancelled();
+                out.write(b);
+                bytesWritten++;
+            }
+
+            @Override
+            public void write(@NonNull byte[] b, int off, int len) throws IOException {
+                checkCancelled();
+                out.write(b, off, len);
+                bytesWritten += len;
+            }
+
+            private void checkCancelled() throws InterruptedIOException {
+                if (cancelled) throw new InterruptedIOException("导出已取消");
+            }
+        };
+    }
+
+    private void onRow() {
+        if (cancelled) throw new CancellationException("导出已取消");
+        int rows = ++rowsWritten;
+        if (rows % PUBLISH_CHECK_ROWS == 0
+                && SystemClock.elapsedRealtime() - lastPublishMillis >= PUBLISH_INTERVAL_MILLIS) {
+            publish(ExportProgress.State.RUNNING);
+        }
+    }
+}
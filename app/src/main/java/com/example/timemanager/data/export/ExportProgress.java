@@ -0,0 +1,55 @@
+// 【2026-10-18 20:00】新增：ExportProgress - 一次导出任务的进度快照（不可变）
+// 功能作用：由 ExportMonitor 在后台线程生成，经 LiveData 发布给界面与 DaemonService 通知；
+//          结束时附带最终吞吐量（条/秒、字节/秒）。
+// 新增时间：2026年10月18日 20:00
+package com.example.timemanager.data.export;
+
+import androidx.annotation.NonNull;
+
+public final class ExportProgress {
+    public enum State {
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        CANCELLED
+    }
+
+    // 进程内递增的任务编号，界面据此只对每个任务的结果提示一次
+    public final long jobId;
+    @NonNull
+    public final String formatId;
+    @NonNull
+    public final State state;
+    public final int rowsWritten;
+    public final int totalRows;
+    public final long bytesWritten;
+    public final long elapsedMillis;
+
+    ExportProgress(long jobId, @NonNull String formatId, @NonNull State state,
+                   int rowsWritten, int totalRows, long bytesWritten, long elapsedMillis) {
+        this.jobId = jobId;
+        this.formatId = formatId;
+        this.state = state;
+        this.rowsWritten = rowsWritten;
+        this.totalRows = totalRows;
+        this.bytesWritten = bytesWritten;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isFinished() {
+        return state != State.RUNNING;
+    }
+
+    // 0 ~ 100
+    public int percent() {
+        return totalRows > 0 ? (int) (rowsWritten * 100L / totalRows) : 0;
+    }
+
+    public long rowsPerSecond() {
+        return elapsedMillis > 0 ? rowsWritten * 1000L / elapsedMillis : rowsWritten;
+    }
+
+    public long bytesPerSecond() {
+        return elapsedMillis > 0 ? bytesWritten * 1000L / elapsedMillis : bytesWritten;
+    }
+}
@@ -0,0 +1,97 @@
+// 【2026-10-18 21:20】新增：ExportWatermarks - 按导出目标持久化的“已导出到哪里”标记
+// 功能作用：每次完整导出（或增量导出）成功后记下最后一条记录的位置，下次“自上次导出以来”只写其后的记录，
+//          日常导出成本与当天记录数相关，而与历史总量无关。
+//          目标以字符串区分：追加写入的文件为 "uri:<文档 URI>"，新建文件的增量导出按格式区分为 "format:<格式 id>"。
+// 新增时间：2026年10月18日 21:20
+// 【2026-10-19 10:25】修改：追加目标按文档 URI 区分，数量不受控制；"uri:" 标记只保留最近使用的 MAX_URI_MARKS 个，
+//                      超出时删除最久未写入的，避免偏好文件随用户选过的文档无限增长（按格式的标记数量固定，不淘汰）
+// 【2026-10-19 15:00】修改：标记改为最后导出记录的存储主键（删除、重置、导入后都不回退），
+//                      导出时作为 _id > ? 条件交给存储，只读取新增的行；不再保存序号与时间
+package com.example.timemanager.data.export;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public final class ExportWatermarks {
+    private static final String PREF_NAME = "TimeManagerExportMarks";
+    private static final String URI_PREFIX = "uri:";
+    private static final String SUFFIX_ID = "#id";
+    // 最近一次写入的序号（单调递增的逻辑时钟，不受系统时间调整影响）
+    private static final String SUFFIX_USED = "#used";
+    private static final String KEY_CLOCK = "clock";
+    static final int MAX_URI_MARKS = 32;
+
+    private final SharedPreferences prefs;
+
+    public ExportWatermarks(@NonNull Context context) {
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static String forUri(@NonNull String uri) {
+        return URI_PREFIX + uri;
+    }
+
+    public static String forFormat(@NonNull String formatId) {
+        return "format:" + formatId;
+    }
+
+    public boolean has(@NonNull String destination) {
+        return prefs.contains(destination + SUFFIX_ID);
+    }
+
+    // 把“自上次导出以来”解析为具体的起点；该目标从未导出过时返回“全部”
+    @NonNull
+    public LapExportFilter resolve(@NonNull LapExportFilter filter, @NonNull String destination) {
+        if (!filter.sinceLastExport) {
+            return filter;
+        }
+        return filter.after(prefs.getLong(destination + SUFFIX_ID, 0L));
+    }
+
+    // 记录已导出的最后一条的主键（可在任意线程调用）
+    public synchronized void record(@NonNull String destination, long lastExportedId) {
+        long used = prefs.getLong(KEY_CLOCK, 0L) + 1;
+        SharedPreferences.Editor editor = prefs.edit()
+                .putLong(destination + SUFFIX_ID, lastExportedId)
+                .putLong(destination + SUFFIX_USED, used)
+                .putLong(KEY_CLOCK, used);
+        if (destination.startsWith(URI_PREFIX)) {
+            evictUris(editor, destination);
+        }
+        editor.apply();
+    }
+
+    // 【2026-10-19 10:25】新增：除 keep 外的 "uri:" 标记超过上限时，删除最久未写入的（旧版本没有 #used 的最先删除）
+    // 新增时间：2026年10月19日 10:25
+    private void evictUris(SharedPreferences.Editor editor, String keep) {
+        Map<String, ?> all = prefs.getAll();
+        List<String> uris = new ArrayList<>();
+        for (String key : all.keySet()) {
+            if (key.startsWith(URI_PREFIX) && key.endsWith(SUFFIX_ID)) {
+                String destination = key.substring(0, key.length() - SUFFIX_ID.length());
+                if (!destination.equals(keep)) uris.add(destination);
+            }
+        }
+        int excess = uris.size() + 1 - MAX_URI_MARKS;
+        if (excess <= 0) {
+            return;
+        }
+        uris.sort((a, b) -> Long.compare(usedOf(all, a), usedOf(all, b)));
+        for (int i = 0; i < excess; i++) {
+            String destination = uris.get(i);
+            editor.remove(destination + SUFFIX_ID)
+                    .remove(destination + SUFFIX_USED);
+        }
+    }
+
+    private static long usedOf(Map<String, ?> all, String destination) {
+        Object used = all.get(destination + SUFFIX_USED);
+        return used instanceof Long ? (Long) used : 0L;
+    }
+}
@@ -0,0 +1,100 @@
+// 【2026-10-18 20:56】新增：LapExportFilter - 导出的日期范围与分段种类筛选
+// 功能作用：记录按时间顺序追加，因此时间范围 [fromMillis, toMillis) 对应列表中连续的一段，
+//          用两次二分查找定位（O(log n) 次读取），再取 subList 视图交给导出器，不扫描、不复制整个列表。
+//          记录的时间取 recordSystemTimeMillis；导入数据该值为 0，依次退回记录时间与“日期”列（当天零点）。
+//          指定分段种类时在该段内按 id 惰性过滤，只遍历这一段。
+// 新增时间：2026年10月18日 20:56
+// 修改时间：2026年10月18日 21:22 - 增加“自上次导出以来”：起点为水位标记（序号 + 时间）之后，同样二分定位
+// 修改时间：2026年10月19日 14:46 - 不再在内存中的全量列表上筛选（apply / 二分 / 按种类的视图已删除）：
+//                              导出时由 LapRepository 转换为 LapQuery，在存储中走索引查询
+// 修改时间：2026年10月19日 15:00 - 水位标记改为最后导出记录的存储主键（只增不减），在查询中作为 _id > ? 条件
+package com.example.timemanager.data.export;
+
+import androidx.annotation.Nullable;
+
+import java.util.Calendar;
+
+public final class LapExportFilter {
+    private static final LapExportFilter ALL = new LapExportFilter(Long.MIN_VALUE, Long.MAX_VALUE, null, false, 0L);
+
+    // 半开区间 [fromMillis, toMillis)，无边界时为 Long.MIN_VALUE / Long.MAX_VALUE
+    public final long fromMillis;
+    public final long toMillis;
+    // null 表示全部种类
+    @Nullable
+    public final String category;
+    // “自上次导出以来”：导出时由 ExportWatermarks 按目标解析为 afterId
+    public final boolean sinceLastExport;
+    // 只保留水位标记之后的记录：主键大于最后导出记录的主键（0 表示不限）
+    public final long afterId;
+
+    private LapExportFilter(long fromMillis, long toMillis, @Nullable String category,
+                            boolean sinceLastExport, long afterId) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        this.category = category;
+        this.sinceLastExport = sinceLastExport;
+        this.afterId = afterId;
+    }
+
+    public static LapExportFilter all() {
+        return ALL;
+    }
+
+    public static LapExportFilter between(long fromMillis, long toMillis) {
+        return new LapExportFilter(fromMillis, toMillis, null, false, 0L);
+    }
+
+    // 自上次导出到同一目标以来新增的记录
+    public static LapExportFilter sinceLastExport() {
+        return new LapExportFilter(Long.MIN_VALUE, Long.MAX_VALUE, null, true, 0L);
+    }
+
+    // 今天（本地时区）
+    public static LapExportFilter today(long nowMillis) {
+        return lastDays(1, nowMillis);
+    }
+
+    // 含今天在内的最近 days 天
+    public static LapExportFilter lastDays(int days, long nowMillis) {
+        Calendar cal = startOfDay(nowMillis);
+        cal.add(Calendar.DAY_OF_MONTH, 1);
+        long to = cal.getTimeInMillis();
+        cal.add(Calendar.DAY_OF_MONTH, -days);
+        return between(cal.getTimeInMillis(), to);
+    }
+
+    // 本月 / 上月（monthsAgo = 0 / 1）
+    public static LapExportFilter month(int monthsAgo, long nowMillis) {
+        Calendar cal = startOfDay(nowMillis);
+        cal.set(Calendar.DAY_OF_MONTH, 1);
+        cal.add(Calendar.MONTH, -monthsAgo);
+        long from = cal.getTimeInMillis();
+        cal.add(Calendar.MONTH, 1);
+        return between(from, cal.getTimeInMillis());
+    }
+
+    public LapExportFilter withCategory(@Nullable String category) {
+        return new LapExportFilter(fromMillis, toMillis, category, sinceLastExport, afterId);
+    }
+
+    // 已解析的水位标记（由 ExportWatermarks.resolve 调用）
+    LapExportFilter after(long lastExportedId) {
+        return new LapExportFilter(fromMillis, toMillis, category, false, lastExportedId);
+    }
+
+    // 导出结果是否一直覆盖到最新记录（不按种类、无截止时间），只有这样的导出才能推进水位标记
+    public boolean reachesLatest() {
+        return category == null && toMillis == Long.MAX_VALUE;
+    }
+
+    private static Calendar startOfDay(long millis) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(millis);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal;
+    }
+}
@@ -0,0 +1,34 @@
+// 【2026-10-18 19:20】新增：LapExporter - 分段记录导出格式的扩展接口
+// 功能作用：导出不再写死为 ExcelExportUtil：每种格式实现本接口（格式 id、MIME、扩展名、显示名称、流式写出），
+//          在 LapExporters 中注册后即可出现在导出按钮的格式列表里，并由 LapRepository.export 统一写入目标文件。
+// 新增时间：2026年10月18日 19:20
+// 【2026-10-19 10:20】修改：追加写出改为 AppendableLapExporter 子接口，本接口不再提供抛出异常的默认 append
+package com.example.timemanager.data.export;
+
+import androidx.annotation.NonNull;
+
+import com.example.timemanager.data.model.LapRecord;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface LapExporter {
+
+    // 稳定的格式标识（保存用户选择、日志使用），如 "xlsx"、"csv"
+    @NonNull
+    String getFormatId();
+
+    @NonNull
+    String getMimeType();
+
+    // 文件扩展名（不含点）
+    @NonNull
+    String getFileExtension();
+
+    // 格式列表中显示的名称（字符串资源 id）
+    int getDisplayNameRes();
+
+    // 把记录按顺序写入 out；实现应边遍历边写出，不在内存中生成整个文件，且不关闭 out
+    // 【2026-10-19 14:40】修改：记录改为只能顺序遍历一次的 Iterable（导出时由存储游标逐行读出，不再先收集为列表）
+    void write(@NonNull Iterable<LapRecord> records, @NonNull OutputStream out) throws IOException;
+}
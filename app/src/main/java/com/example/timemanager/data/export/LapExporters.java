@@ -0,0 +1,49 @@
+// 【2026-10-18 19:22】新增：LapExporters - 导出格式注册表
+// 功能作用：按注册顺序保存全部 LapExporter（第一个为默认格式），按格式 id 查找；
+//          内置 .xlsx、SpreadsheetML .xls、CSV、TSV 四种，新增格式只需在此注册。
+// 新增时间：2026年10月18日 19:22
+package com.example.timemanager.data.export;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class LapExporters {
+    private static final Map<String, LapExporter> EXPORTERS = new LinkedHashMap<>();
+
+    static {
+        register(new XlsxExporter());
+        register(new SpreadsheetMlExporter());
+        register(DelimitedTextExporter.csv());
+        register(DelimitedTextExporter.tsv());
+    }
+
+    private LapExporters() {
+    }
+
+    public static synchronized void register(@NonNull LapExporter exporter) {
+        EXPORTERS.put(exporter.getFormatId(), exporter);
+    }
+
+    @Nullable
+    public static synchronized LapExporter get(@Nullable String formatId) {
+        return formatId != null ? EXPORTERS.get(formatId) : null;
+    }
+
+    // 按 id 查找，找不到时返回默认格式
+    @NonNull
+    public static synchronized LapExporter getOrDefault(@Nullable String formatId) {
+        LapExporter exporter = get(formatId);
+        return exporter != null ? exporter : EXPORTERS.values().iterator().next();
+    }
+
+    @NonNull
+    public static synchronized List<LapExporter> all() {
+        return Collections.unmodifiableList(new ArrayList<>(EXPORTERS.values()));
+    }
+}
@@ -0,0 +1,43 @@
+// 【2026-10-18 19:25】新增：SpreadsheetMlExporter - SpreadsheetML 2003 XML（.xls）导出（委托 ExcelExportUtil.writeExcelContent）
+// 新增时间：2026年10月18日 19:25
+package com.example.timemanager.data.export;
+
+import androidx.annotation.NonNull;
+
+import com.example.timemanager.R;
+import com.example.timemanager.data.model.LapRecord;
+import com.example.timemanager.util.ExcelExportUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+final class SpreadsheetMlExporter implements LapExporter {
+
+    @NonNull
+    @Override
+    public String getFormatId() {
+        return "spreadsheetml";
+    }
+
+    @NonNull
+    @Override
+    public String getMimeType() {
+        return "application/vnd.ms-excel";
+    }
+
+    @NonNull
+    @Override
+    public String getFileExtension() {
+        return "xls";
+    }
+
+    @Override
+    public int getDisplayNameRes() {
+        return R.string.export_format_xls;
+    }
+
+    @Override
+    public void write(@NonNull Iterable<LapRecord> records, @NonNull OutputStream out) throws IOException {
+        ExcelExportUtil.writeExcelContent(records, out);
+    }
+}
@@ -0,0 +1,43 @@
+// 【2026-10-18 19:24】新增：XlsxExporter - 原生 .xlsx 导出（委托 XlsxExportUtil.writeXlsx）
+// 新增时间：2026年10月18日 19:24
+package com.example.timemanager.data.export;
+
+import androidx.annotation.NonNull;
+
+import com.example.timemanager.R;
+import com.example.timemanager.data.model.LapRecord;
+import com.example.timemanager.util.XlsxExportUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+final class XlsxExporter implements LapExporter {
+
+    @NonNull
+    @Override
+    public String getFormatId() {
+        return "xlsx";
+    }
+
+    @NonNull
+    @Override
+    public String getMimeType() {
+        return XlsxExportUtil.MIME_TYPE;
+    }
+
+    @NonNull
+    @Override
+    public String getFileExtension() {
+        return "xlsx";
+    }
+
+    @Override
+    public int getDisplayNameRes() {
+        return R.string.export_format_xlsx;
+    }
+
+    @Override
+    public void write(@NonNull Iterable<LapRecord> records, @NonNull OutputStream out) throws IOException {
+        XlsxExportUtil.writeXlsx(records, out);
+    }
+}
@@ -0,0 +1,74 @@
+// 【2026-10-18 22:00】新增：CsvLapRowSource - 流式读取 8 列 CSV 的导入数据源
+// 功能作用：基于 CsvReader 逐条解析；构造时读取并检查表头，空文件或表头不符抛出 LapImportException。
+//          列数不足或序号不是数字的行记录日志后跳过，空行直接忽略。
+// 新增时间：2026年10月18日 22:00
+// 【2026-10-19 10:42】修改：跳过行的日志改用物理行号（CsvReader.getLineNumber），含多行引号字段的文件也能准确定位
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.example.timemanager.data.model.LapRecord;
+import com.example.timemanager.util.LogUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+public final class CsvLapRowSource implements LapRowSource {
+    private static final String TAG = "CsvLapRowSource";
+
+    private final CsvReader reader;
+    private final String[] cells = new String[LapRows.COLUMN_COUNT];
+    private int skippedRows;
+
+    public CsvLapRowSource(@NonNull Reader in) throws IOException {
+        this.reader = new CsvReader(in);
+        if (!reader.next()) {
+            throw new LapImportException(LapImportException.Reason.EMPTY, "文件内容为空");
+        }
+        String[] header = new String[reader.getFieldCount()];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = reader.getField(i);
+        }
+        if (!LapRows.isHeader(header, header.length)) {
+            throw new LapImportException(LapImportException.Reason.HEADER, "文件头不匹配预期的8列格式");
+        }
+    }
+
+    @Nullable
+    @Override
+    public LapRecord next() throws IOException {
+        while (reader.next()) {
+            if (reader.isBlankRecord()) continue;
+            long line = reader.getLineNumber();
+            int count = reader.getFieldCount();
+            if (count < LapRows.COLUMN_COUNT) {
+                skippedRows++;
+                LogUtils.log(String.format(Locale.getDefault(), "【CsvLapRowSource】第 %d 行数据不完整，跳过。列数: %d", line, count));
+                android.util.Log.w(TAG, String.format(Locale.ROOT, "Skipping record %d: Incomplete data. Fields: %d", line, count));
+                continue;
+            }
+            for (int i = 0; i < LapRows.COLUMN_COUNT; i++) {
+                cells[i] = reader.getField(i);
+            }
+            try {
+                return LapRows.fromText(cells);
+            } catch (NumberFormatException e) {
+                skippedRows++;
+                LogUtils.log(String.format(Locale.getDefault(), "【CsvLapRowSource】第 %d 行序号格式错误，跳过。序号: %s", line, cells[0]));
+                android.util.Log.e(TAG, "Number format error at record " + line, e);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getSkippedRows() {
+        return skippedRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
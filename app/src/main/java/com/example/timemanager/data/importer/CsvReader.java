@@ -0,0 +1,196 @@
+// 【2026-10-18 21:50】新增：CsvReader - 逐字符状态机的流式 CSV 读取器
+// 功能作用：取代 readLine + split(",")：按 RFC 4180 处理双引号字段（字段内可含分隔符、换行，"" 表示一个引号），
+//          兼容 CRLF / LF / CR 行尾，跳过文件开头的 UTF-8 BOM。
+//          每次 next() 只读出一条记录，字段直接由字符缓冲区截取（跨缓冲区或含转义引号时才经过 StringBuilder），
+//          内存占用与文件大小无关。close() 会关闭底层 Reader。
+// 新增时间：2026年10月18日 21:50
+// 【2026-10-19 10:40】修改：增加物理行号（引号内的换行也计入），日志中的行号与文本编辑器中看到的一致
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+public final class CsvReader implements Closeable {
+    private static final int STATE_FIELD_START = 0;
+    private static final int STATE_UNQUOTED = 1;
+    private static final int STATE_QUOTED = 2;
+    // 引号字段中读到一个引号：下一个字符若仍是引号则为转义，否则字段的引号部分结束
+    private static final int STATE_QUOTE_SEEN = 3;
+
+    private final Reader in;
+    private final char delimiter;
+    private final char[] buffer;
+    private int pos;
+    private int limit;
+
+    // 跨缓冲区或含转义引号的字段内容
+    private final StringBuilder pending = new StringBuilder();
+    private String[] fields = new String[8];
+    private int fieldCount;
+    private long recordNumber;
+    // 已读过的行尾数（CRLF 计一次）与当前记录起始的物理行号
+    private long linesRead;
+    private long lineNumber;
+    // 引号字段中上一个字符是 '\r'：紧跟的 '\n' 与它同属一个行尾
+    private boolean quotedCarriageReturn;
+    private boolean bomChecked;
+    // 上一条记录以 '\r' 结束：若紧跟 '\n' 则一并跳过（CRLF）
+    private boolean skipLineFeed;
+
+    public CsvReader(@NonNull Reader in) {
+        this(in, ',', 16 * 1024);
+    }
+
+    public CsvReader(@NonNull Reader in, char delimiter, int bufferSize) {
+        this.in = in;
+        this.delimiter = delimiter;
+        this.buffer = new char[bufferSize];
+    }
+
+    // 读取下一条记录；已到文件末尾时返回 false
+    public boolean next() throws IOException {
+        fieldCount = 0;
+        if (skipLineFeed) {
+            skipLineFeed = false;
+            if (!ensure()) return false;
+            if (buffer[pos] == '\n') pos++;
+        }
+        if (!ensure()) return false;
+        lineNumber = linesRead + 1;
+        if (!bomChecked) {
+            bomChecked = true;
+            if (buffer[pos] == '\uFEFF') {
+                pos++;
+                if (!ensure()) return false;
+            }
+        }
+
+        int state = STATE_FIELD_START;
+        int runStart = pos;
+        pending.setLength(0);
+        while (true) {
+            if (pos == limit) {
+                pending.append(buffer, runStart, pos - runStart);
+                if (!refill()) {
+                    // 文件末尾没有换行（或引号未闭合）：以已读内容结束本条记录
+                    addField(0, 0);
+                    recordNumber++;
+                    return true;
+                }
+                runStart = pos;
+            }
+            char c = buffer[pos];
+            if (state == STATE_QUOTED) {
+                if (c == '"') {
+                    pending.append(buffer, runStart, pos - runStart);
+                    state = STATE_QUOTE_SEEN;
+                    runStart = ++pos;
+                } else {
+                    if (c == '\r' || (c == '\n' && !quotedCarriageReturn)) linesRead++;
+                    pos++;
+                }
+                quotedCarriageReturn = c == '\r';
+                continue;
+            }
+            if (state == STATE_QUOTE_SEEN) {
+                if (c == '"') {
+                    // 转义的引号：保留这一个，继续引号字段
+                    runStart = pos++;
+                    state = STATE_QUOTED;
+                    continue;
+                }
+                state = STATE_UNQUOTED;
+            }
+            if (c == delimiter) {
+                addField(runStart, pos);
+                runStart = ++pos;
+                state = STATE_FIELD_START;
+            } else if (c == '\n' || c == '\r') {
+                addField(runStart, pos);
+                pos++;
+                skipLineFeed = c == '\r';
+                recordNumber++;
+                linesRead++;
+                return true;
+            } else if (c == '"' && state == STATE_FIELD_START) {
+                runStart = ++pos;
+                state = STATE_QUOTED;
+            } else {
+                // 未加引号字段中的引号按普通字符处理（宽松解析）
+                pos++;
+                state = STATE_UNQUOTED;
+            }
+        }
+    }
+
+    // 当前记录的字段数
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public String getField(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("字段序号越界: " + index + " / " + fieldCount);
+        }
+        return fields[index];
+    }
+
+    // 当前记录是第几条（从 1 开始，含表头），用于日志定位
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    // 【2026-10-19 10:40】新增：当前记录从第几行开始（从 1 开始，含表头；引号内的换行计入），用于日志定位
+    // 新增时间：2026年10月19日 10:40
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    // 已读过的完整行数（最后一条记录没有行尾时不计入）
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    // 当前记录是否为空行（只有一个空字段）
+    public boolean isBlankRecord() {
+        return fieldCount == 1 && fields[0].isEmpty();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void addField(int from, int to) {
+        String value;
+        if (pending.length() == 0) {
+            value = new String(buffer, from, to - from);
+        } else {
+            value = pending.append(buffer, from, to - from).toString();
+            pending.setLength(0);
+        }
+        if (fieldCount == fields.length) {
+            String[] grown = new String[fieldCount * 2];
+            System.arraycopy(fields, 0, grown, 0, fieldCount);
+            fields = grown;
+        }
+        fields[fieldCount++] = value;
+    }
+
+    private boolean ensure() throws IOException {
+        return pos < limit || refill();
+    }
+
+    private boolean refill() throws IOException {
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        pos = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+}
@@ -0,0 +1,154 @@
+// 【2026-10-18 23:22】新增：ImportMonitor - 单次导入任务的进度统计与取消控制
+// 功能作用：包装导入文件的输入流与解析出的数据源：读取字节时累计已读字节数，取出记录时累计条数，
+//          二者都会检查取消标记并抛出 InterruptedIOException，因此任何格式的导入都能在文件中途停下。
+//          进度按时间节流（约 4 次 / 秒）回调，与 ExportMonitor 相同。
+// 新增时间：2026年10月18日 23:22
+// 【2026-10-19 12:30】修改：记录是否已发布最终结果（isFinished），供界面在导入期间禁止修改分段记录
+package com.example.timemanager.data.importer;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.timemanager.data.model.LapRecord;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public final class ImportMonitor {
+    private static final AtomicLong NEXT_JOB_ID = new AtomicLong(1);
+    private static final long PUBLISH_INTERVAL_MILLIS = 250;
+    // 每取出这么多条记录检查一次是否该发布进度
+    private static final int PUBLISH_CHECK_ROWS = 256;
+
+    private final long jobId = NEXT_JOB_ID.getAndIncrement();
+    private final Consumer<ImportProgress> listener;
+    private final long startMillis = SystemClock.elapsedRealtime();
+
+    private volatile boolean cancelled;
+    private volatile boolean finished;
+    private volatile long totalBytes = -1;
+    private volatile long bytesRead;
+    private volatile int rowsParsed;
+    private volatile int skippedRows;
+    private long lastPublishMillis;
+
+    public ImportMonitor(@NonNull Consumer<ImportProgress> listener) {
+        this.listener = listener;
+    }
+
+    // 文件大小在导入线程中查询
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getJobId() {
+        return jobId;
+    }
+
+    // 可在任意线程调用；导入线程会在下一次读取或下一条记录时停止
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // 最终结果由 LapRepository 在主线程发布，且在切换为导入的数据之后
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int getRowsParsed() {
+        return rowsParsed;
+    }
+
+    public long getRowsPerSecond() {
+        long elapsed = SystemClock.elapsedRealtime() - startMillis;
+        return elapsed > 0 ? rowsParsed * 1000L / elapsed : rowsParsed;
+    }
+
+    // 发布当前进度（RUNNING）或最终结果
+    public void publish(@NonNull ImportProgress.State state, @Nullable ImportProgress.Failure failure) {
+        if (state != ImportProgress.State.RUNNING) {
+            finished = true;
+        }
+        lastPublishMillis = SystemClock.elapsedRealtime();
+        listener.accept(new ImportProgress(jobId, state, failure, bytesRead, totalBytes, rowsParsed, skippedRows,
+                lastPublishMillis - startMillis));
+    }
+
+    // 统计已读字节数并响应取消的输入流
+    @NonNull
+    public InputStream track(@NonNull InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                checkCancelled();
+                int b = in.read();
+                if (b >= 0) bytesRead++;
+                return b;
+            }
+
+            @Override
+            public int read(@NonNull byte[] b, int off, int len) throws IOException {
+                checkCancelled();
+                int read = in.read(b, off, len);
+                if (read > 0) bytesRead += read;
+                return read;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                checkCancelled();
+                long skipped = in.skip(n);
+                bytesRead += skipped;
+                return skipped;
+            }
+        };
+    }
+
+    // 统计条数与跳过行数并响应取消的数据源
+    @NonNull
+    public LapRowSource track(@NonNull LapRowSource source) {
+        return new LapRowSource() {
+            @Nullable
+            @Override
+            public LapRecord next() throws IOException {
+                checkCancelled();
+                LapRecord record = source.next();
+                skippedRows = source.getSkippedRows();
+                if (record != null) onRow();
+                return record;
+            }
+
+            @Override
+            public int getSkippedRows() {
+                return source.getSkippedRows();
+            }
+
+            @Override
+            public void close() throws IOException {
+                source.close();
+            }
+        };
+    }
+
+    private void checkCancelled() throws InterruptedIOException {
+        if (cancelled) throw new InterruptedIOException("导入已取消");
+    }
+
+    private void onRow() {
+        int rows = ++rowsParsed;
+        if (rows % PUBLISH_CHECK_ROWS == 0
+                && SystemClock.elapsedRealtime() - lastPublishMillis >= PUBLISH_INTERVAL_MILLIS) {
+            publish(ImportProgress.State.RUNNING, null);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+// 【2026-10-18 23:20】新增：ImportProgress - 一次导入任务的进度快照（不可变）
+// 功能作用：由 ImportMonitor 在导入线程生成，经 LiveData 发布给界面；
+//          进行中给出已读字节数 / 文件大小与已解析条数，失败时附带原因，供界面给出对应提示。
+// 新增时间：2026年10月18日 23:20
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+public final class ImportProgress {
+    public enum State {
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        CANCELLED
+    }
+
+    // 失败原因（仅 FAILED 时有值）
+    public enum Failure {
+        // 文件为空或无法读取
+        EMPTY,
+        // 文件头不匹配预期的 8 列格式
+        HEADER,
+        // 文件中没有有效记录，原数据保持不变
+        NO_RECORDS,
+        // 没有读取该文件的权限
+        PERMISSION,
+        // 读取或写入存储时出错
+        IO
+    }
+
+    // 进程内递增的任务编号，界面据此只对每个任务的结果提示一次
+    public final long jobId;
+    @NonNull
+    public final State state;
+    @Nullable
+    public final Failure failure;
+    public final long bytesRead;
+    // 文件大小；无法得知时为 -1
+    public final long totalBytes;
+    public final int rowsParsed;
+    public final int skippedRows;
+    public final long elapsedMillis;
+
+    ImportProgress(long jobId, @NonNull State state, @Nullable Failure failure, long bytesRead, long totalBytes,
+                   int rowsParsed, int skippedRows, long elapsedMillis) {
+        this.jobId = jobId;
+        this.state = state;
+        this.failure = failure;
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.rowsParsed = rowsParsed;
+        this.skippedRows = skippedRows;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isFinished() {
+        return state != State.RUNNING;
+    }
+
+    // 文件大小已知时为 0 ~ 100，否则为 -1
+    public int percent() {
+        if (totalBytes <= 0) return -1;
+        return (int) (Math.min(bytesRead, totalBytes) * 100L / totalBytes);
+    }
+
+    public long rowsPerSecond() {
+        return elapsedMillis > 0 ? rowsParsed * 1000L / elapsedMillis : rowsParsed;
+    }
+}
@@ -0,0 +1,28 @@
+// 【2026-10-18 21:54】新增：LapImportException - 导入文件本身无效（空文件、表头不符）
+// 功能作用：与读写异常区分开，调用方据 getReason() 给出对应提示；数据行的格式错误只跳过该行，不抛出此异常
+// 新增时间：2026年10月18日 21:54
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+public class LapImportException extends IOException {
+    public enum Reason {
+        EMPTY,
+        HEADER
+    }
+
+    @NonNull
+    private final Reason reason;
+
+    public LapImportException(@NonNull Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    @NonNull
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,29 @@
+// 【2026-10-18 21:56】新增：LapImportResult - 一次导入的结果（不可变）
+// 功能作用：导入时边读边构建的记录列表、最大间隔累计（用于把计时器设置到导入数据的末尾）与跳过的行数
+// 新增时间：2026年10月18日 21:56
+// 【2026-10-19 12:10】修改：不再携带导入的记录列表（内存随行数增长），改为导入条数，
+//                      以及提交后从存储重新加载的前缀和索引（只含间隔，供界面计算累计值与总时长）
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.NonNull;
+import com.example.timemanager.data.collection.LapIntervalIndex;
+
+public final class LapImportResult {
+    // 提交后存储中记录的前缀和索引；未提交时为空索引。交给主线程后只由界面使用
+    @NonNull
+    public final LapIntervalIndex intervals;
+    public final int importedCount;
+    public final long maxLapTimeMillis;
+    public final int skippedRows;
+    // 是否已替换存储中的数据（没有有效记录时保留原数据）
+    public final boolean committed;
+
+    public LapImportResult(@NonNull LapIntervalIndex intervals, int importedCount, long maxLapTimeMillis,
+                           int skippedRows, boolean committed) {
+        this.intervals = intervals;
+        this.importedCount = importedCount;
+        this.maxLapTimeMillis = maxLapTimeMillis;
+        this.skippedRows = skippedRows;
+        this.committed = committed;
+    }
+}
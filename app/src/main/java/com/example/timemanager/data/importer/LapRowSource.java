@@ -0,0 +1,21 @@
+// 【2026-10-18 21:52】新增：LapRowSource - 逐条产出导入记录的数据源
+// 功能作用：导入时不再先把整个文件解析进一个 List，而是由数据源逐条读出，LapRepository 按固定批量提交到存储，
+//          内存占用与文件行数无关。无法解析的行由实现记录日志后跳过，并计入 getSkippedRows()。
+// 新增时间：2026年10月18日 21:52
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.Nullable;
+import com.example.timemanager.data.model.LapRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface LapRowSource extends Closeable {
+
+    // 下一条记录；没有更多记录时返回 null
+    @Nullable
+    LapRecord next() throws IOException;
+
+    // 已跳过的无效行数
+    int getSkippedRows();
+}
@@ -0,0 +1,92 @@
+// 【2026-10-18 22:34】新增：LapRowSources - 按文件开头的字节识别导入格式并打开对应的数据源
+// 功能作用：导入入口不再假定为 CSV：跳过 UTF-8 BOM 与空白后以 '<' 开头（<?xml / <Workbook）的按 SpreadsheetML 读取，
+//          其余按 CSV 读取。只预读开头的少量字节（mark / reset），不影响后续流式解析。
+// 新增时间：2026年10月18日 22:34
+// 修改时间：2026年10月18日 22:50 - 以 zip 签名 "PK\3\4" 开头的按 .xlsx 读取
+// 修改时间：2026年10月18日 23:10 - 多核设备上 CSV 改为分块并行解析（ParallelCsvLapRowSource）
+// 修改时间：2026年10月19日 10:46 - 并行解析改为由调用方显式选择（open(in, true)），默认仍逐行解析：
+//                               并行解析额外占用解析线程与在途块的内存，单核或小文件上没有收益
+package com.example.timemanager.data.importer;
+
+import android.util.Xml;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+public final class LapRowSources {
+    private static final int SNIFF_LENGTH = 256;
+
+    public enum Format {
+        CSV,
+        SPREADSHEET_ML,
+        XLSX
+    }
+
+    private LapRowSources() {
+    }
+
+    // 打开数据源（检查表头）；失败时关闭输入流
+    @NonNull
+    public static LapRowSource open(@NonNull InputStream in) throws IOException {
+        return open(in, false);
+    }
+
+    // parallelCsv 为 true 且设备有多个核心时，CSV 使用 ParallelCsvLapRowSource 分块并行解析
+    @NonNull
+    public static LapRowSource open(@NonNull InputStream in, boolean parallelCsv) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, 16 * 1024);
+        try {
+            switch (detect(buffered)) {
+                case XLSX:
+                    return new XlsxLapRowSource(buffered, Xml::newPullParser);
+                case SPREADSHEET_ML:
+                    return new SpreadsheetMlLapRowSource(Xml.newPullParser(), buffered);
+                case CSV:
+                default:
+                    // 假设文件编码为 UTF-8 (CSV常见编码)，BOM 由 CsvReader 跳过
+                    Reader reader = new InputStreamReader(buffered, StandardCharsets.UTF_8);
+                    return parallelCsv && ParallelCsvLapRowSource.PARALLELISM > 1
+                            ? new ParallelCsvLapRowSource(reader)
+                            : new CsvLapRowSource(reader);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                buffered.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            throw e;
+        }
+    }
+
+    // 根据开头的字节判断格式，读取后复位到文件开头
+    @NonNull
+    public static Format detect(@NonNull BufferedInputStream in) throws IOException {
+        byte[] head = new byte[SNIFF_LENGTH];
+        in.mark(SNIFF_LENGTH);
+        int length = 0;
+        int read;
+        while (length < head.length && (read = in.read(head, length, head.length - length)) > 0) {
+            length += read;
+        }
+        in.reset();
+
+        if (length >= 4 && head[0] == 'P' && head[1] == 'K' && head[2] == 3 && head[3] == 4) {
+            return Format.XLSX;
+        }
+        int i = 0;
+        if (length >= 3 && (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF) {
+            i = 3;
+        }
+        while (i < length && (head[i] == ' ' || head[i] == '\t' || head[i] == '\r' || head[i] == '\n')) {
+            i++;
+        }
+        return i < length && head[i] == '<' ? Format.SPREADSHEET_ML : Format.CSV;
+    }
+}
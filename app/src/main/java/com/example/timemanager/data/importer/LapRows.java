@@ -0,0 +1,58 @@
+// 【2026-10-18 21:58】新增：LapRows - 8 列导入行（序号,日期,间隔,间隔累计,开始时间,记录时间,分段种类,具体事件）与 LapRecord 的转换
+// 功能作用：各格式的数据源共用同一套表头检查与逐列解析，规则与原 ExcelImportUtil 一致
+// 新增时间：2026年10月18日 21:58
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.NonNull;
+import com.example.timemanager.data.model.LapRecord;
+
+final class LapRows {
+    static final int COLUMN_COUNT = 8;
+
+    private LapRows() {
+    }
+
+    // 表头需包含关键列名（序号、间隔累计、具体事件）
+    static boolean isHeader(@NonNull String[] cells, int count) {
+        boolean index = false;
+        boolean lapTime = false;
+        boolean detail = false;
+        for (int i = 0; i < count; i++) {
+            String cell = cells[i];
+            if (cell == null) continue;
+            index |= cell.contains("序号");
+            lapTime |= cell.contains("间隔累计");
+            detail |= cell.contains("具体事件");
+        }
+        return index && lapTime && detail;
+    }
+
+    // 间隔 / 间隔累计未以数值给出，需由文本解析
+    static final long UNSET = Long.MIN_VALUE;
+
+    // 由 8 列文本构造记录；序号不是整数时抛出 NumberFormatException，时间无法解析时按 0 处理
+    // 导入数据的 recordSystemTimeMillis 设为 0
+    @NonNull
+    static LapRecord fromText(@NonNull String[] cells) {
+        return fromText(cells, UNSET, UNSET);
+    }
+
+    // 【2026-10-18 22:44】新增：间隔 / 间隔累计已是毫秒数值时（xlsx 数值单元格）直接使用，不经过文本
+    @NonNull
+    static LapRecord fromText(@NonNull String[] cells, long intervalMillis, long totalAccumulatedMillis) {
+        int index = Integer.parseInt(cells[0].trim());
+        if (intervalMillis == UNSET) intervalMillis = LapRecord.parseTime(cells[2].trim());
+        if (totalAccumulatedMillis == UNSET) totalAccumulatedMillis = LapRecord.parseTime(cells[3].trim());
+        return new LapRecord(
+                index,
+                cells[1].trim(),
+                intervalMillis,
+                totalAccumulatedMillis,
+                cells[4].trim(),
+                cells[5].trim(),
+                0L,
+                cells[6].trim(),
+                cells[7].trim()
+        );
+    }
+}
@@ -0,0 +1,269 @@
+// 【2026-10-18 23:05】新增：ParallelCsvLapRowSource - 分块并行解析的 CSV 导入数据源
+// 功能作用：大文件导入时逐行解析（序号、两次 parseTime、trim、日期时间解析）是 CPU 瓶颈。
+//          读取线程只负责把输入切成以记录边界结尾的块（与 CsvReader 相同的引号状态机，引号内的换行不会被切开），
+//          各块交给有界的 ForkJoinPool 并行解析，next() 按块的原始顺序依次取出结果，记录顺序与逐行解析完全一致。
+//          同时在途的块数有上限，内存与文件大小无关。跳过的行在合并时按顺序记日志，行号加上前面各块的记录数，
+//          与 CsvLapRowSource 报告的行号相同。
+// 新增时间：2026年10月18日 23:05
+// 【2026-10-19 10:44】修改：行号改为物理行号（块内行号加上前面各块的行数），与 CsvLapRowSource 一致；
+//                      LapRowSources 默认不再使用本类，需由调用方显式选择
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.example.timemanager.data.model.LapRecord;
+import com.example.timemanager.util.LogUtils;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public final class ParallelCsvLapRowSource implements LapRowSource {
+    private static final String TAG = "ParallelCsvLapRowSource";
+    // 解析线程数：最多 4 个，避免导入时占满所有核心
+    public static final int PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
+    static final int DEFAULT_CHUNK_CHARS = 256 * 1024;
+    private static final int MAX_IN_FLIGHT = PARALLELISM * 2;
+    // 导入专用线程池；工作线程按需创建，空闲后自动回收
+    private static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM);
+
+    // 与 CsvReader 相同的解析状态，用于寻找块边界
+    private static final int STATE_FIELD_START = 0;
+    private static final int STATE_UNQUOTED = 1;
+    private static final int STATE_QUOTED = 2;
+    private static final int STATE_QUOTE_SEEN = 3;
+
+    private final Reader in;
+    private final ArrayDeque<ForkJoinTask<Chunk>> pending = new ArrayDeque<>();
+    private char[] buffer;
+    private int filled;
+    private boolean eof;
+    // 已扫描到的位置、该位置的解析状态、最后一个记录边界（其后的字符属于下一块）
+    private int scanned;
+    private int state = STATE_FIELD_START;
+    private int lastBoundary;
+
+    private Chunk current;
+    private int position;
+    // 已合并的各块行数之和（含表头、空行与引号内的换行），用于换算全局行号
+    private long lineBase;
+    private int skippedRows;
+
+    public ParallelCsvLapRowSource(@NonNull Reader in) throws IOException {
+        this(in, DEFAULT_CHUNK_CHARS);
+    }
+
+    // 第一块在当前线程解析并检查表头；空文件或表头不符抛出 LapImportException
+    ParallelCsvLapRowSource(@NonNull Reader in, int chunkChars) throws IOException {
+        this.in = in;
+        this.buffer = new char[chunkChars];
+        char[] first = nextChunk();
+        if (first == null) {
+            throw new LapImportException(LapImportException.Reason.EMPTY, "文件内容为空");
+        }
+        accept(parse(first, true));
+    }
+
+    @Nullable
+    @Override
+    public LapRecord next() throws IOException {
+        while (current == null || position == current.records.size()) {
+            if (current != null) {
+                lineBase += current.lineCount;
+                current = null;
+            }
+            fillPipeline();
+            ForkJoinTask<Chunk> task = pending.poll();
+            if (task == null) return null;
+            accept(join(task));
+        }
+        return current.records.get(position++);
+    }
+
+    @Override
+    public int getSkippedRows() {
+        return skippedRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ForkJoinTask<Chunk> task : pending) {
+            task.cancel(false);
+        }
+        pending.clear();
+        in.close();
+    }
+
+    // 读取并提交后续的块，直到在途块数达到上限或输入结束
+    private void fillPipeline() throws IOException {
+        while (pending.size() < MAX_IN_FLIGHT) {
+            char[] text = nextChunk();
+            if (text == null) return;
+            pending.add(POOL.submit(() -> {
+                try {
+                    return parse(text, false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+    }
+
+    private static Chunk join(ForkJoinTask<Chunk> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // 合并一块：按顺序记录跳过的行（全局行号），并把它设为当前块
+    private void accept(Chunk chunk) {
+        for (Skip skip : chunk.skips) {
+            long line = lineBase + skip.line;
+            skippedRows++;
+            if (skip.error == null) {
+                LogUtils.log(String.format(Locale.getDefault(), "【ParallelCsvLapRowSource】第 %d 行数据不完整，跳过。列数: %d", line, skip.fieldCount));
+                android.util.Log.w(TAG, String.format(Locale.ROOT, "Skipping record %d: Incomplete data. Fields: %d", line, skip.fieldCount));
+            } else {
+                LogUtils.log(String.format(Locale.getDefault(), "【ParallelCsvLapRowSource】第 %d 行序号格式错误，跳过。序号: %s", line, skip.index));
+                android.util.Log.e(TAG, "Number format error at record " + line, skip.error);
+            }
+        }
+        current = chunk;
+        position = 0;
+    }
+
+    // 解析一块完整的记录；规则与 CsvLapRowSource 相同，行号为块内物理行号
+    private static Chunk parse(char[] text, boolean header) throws IOException {
+        CsvReader reader = new CsvReader(new CharArrayReader(text), ',', Math.min(text.length, 16 * 1024));
+        Chunk chunk = new Chunk();
+        if (header) {
+            if (!reader.next()) {
+                throw new LapImportException(LapImportException.Reason.EMPTY, "文件内容为空");
+            }
+            String[] cells = new String[reader.getFieldCount()];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = reader.getField(i);
+            }
+            if (!LapRows.isHeader(cells, cells.length)) {
+                throw new LapImportException(LapImportException.Reason.HEADER, "文件头不匹配预期的8列格式");
+            }
+        }
+        String[] cells = new String[LapRows.COLUMN_COUNT];
+        while (reader.next()) {
+            if (reader.isBlankRecord()) continue;
+            int count = reader.getFieldCount();
+            if (count < LapRows.COLUMN_COUNT) {
+                chunk.skips.add(new Skip(reader.getLineNumber(), count, null, null));
+                continue;
+            }
+            for (int i = 0; i < LapRows.COLUMN_COUNT; i++) {
+                cells[i] = reader.getField(i);
+            }
+            try {
+                chunk.records.add(LapRows.fromText(cells));
+            } catch (NumberFormatException e) {
+                chunk.skips.add(new Skip(reader.getLineNumber(), count, cells[0], e));
+            }
+        }
+        chunk.lineCount = reader.getLinesRead();
+        return chunk;
+    }
+
+    // 返回下一块（以记录边界结尾，最后一块除外）；输入结束时返回 null
+    @Nullable
+    private char[] nextChunk() throws IOException {
+        while (true) {
+            while (!eof && filled < buffer.length) {
+                int read = in.read(buffer, filled, buffer.length - filled);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    filled += read;
+                }
+            }
+            scan();
+            int end = eof ? filled : lastBoundary;
+            if (end > 0) {
+                char[] chunk = Arrays.copyOf(buffer, end);
+                System.arraycopy(buffer, end, buffer, 0, filled - end);
+                filled -= end;
+                scanned -= end;
+                lastBoundary = 0;
+                return chunk;
+            }
+            if (eof) return null;
+            // 单条记录比缓冲区还长（例如引号内的大段文本）：扩大缓冲区后继续读取
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+    }
+
+    // 从上次停下的位置继续扫描，记录最后一个不在引号内的记录结尾
+    private void scan() {
+        int i = scanned;
+        while (i < filled) {
+            char c = buffer[i];
+            if (state == STATE_QUOTED) {
+                if (c == '"') state = STATE_QUOTE_SEEN;
+                i++;
+                continue;
+            }
+            if (state == STATE_QUOTE_SEEN) {
+                if (c == '"') {
+                    state = STATE_QUOTED;
+                    i++;
+                    continue;
+                }
+                state = STATE_UNQUOTED;
+            }
+            if (c == '\r') {
+                // \r\n 需整体留在同一块，\r 位于缓冲区末尾时等读到下一个字符再判断
+                if (i + 1 == filled && !eof) break;
+                if (i + 1 < filled && buffer[i + 1] == '\n') i++;
+                lastBoundary = i + 1;
+                state = STATE_FIELD_START;
+            } else if (c == '\n') {
+                lastBoundary = i + 1;
+                state = STATE_FIELD_START;
+            } else if (c == ',') {
+                state = STATE_FIELD_START;
+            } else if (c == '"' && state == STATE_FIELD_START) {
+                state = STATE_QUOTED;
+            } else {
+                state = STATE_UNQUOTED;
+            }
+            i++;
+        }
+        scanned = i;
+    }
+
+    private static final class Chunk {
+        final List<LapRecord> records = new ArrayList<>();
+        final List<Skip> skips = new ArrayList<>();
+        long lineCount;
+    }
+
+    // 被跳过的一行：error 为 null 表示列数不足，否则为序号格式错误
+    private static final class Skip {
+        final long line;
+        final int fieldCount;
+        final String index;
+        final NumberFormatException error;
+
+        Skip(long line, int fieldCount, String index, NumberFormatException error) {
+            this.line = line;
+            this.fieldCount = fieldCount;
+            this.index = index;
+            this.error = error;
+        }
+    }
+}
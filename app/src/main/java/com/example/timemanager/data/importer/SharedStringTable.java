@@ -0,0 +1,42 @@
+// 【2026-10-18 22:46】新增：SharedStringTable - xlsx 共享字符串的紧凑存储
+// 功能作用：全部字符串首尾相接存放在一个 char[] 中，另以 int[] 记录各条的结束位置，
+//          每条只占字符本身 + 4 字节，而不是每条一个 String 对象（约 40 字节额外开销）；取用时才创建 String。
+// 新增时间：2026年10月18日 22:46
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+final class SharedStringTable {
+    private char[] chars = new char[4096];
+    private int length;
+    private int[] ends = new int[256];
+    private int count;
+
+    void add(@NonNull CharSequence text) {
+        int n = text.length();
+        if (length + n > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + n));
+        }
+        for (int i = 0; i < n; i++) {
+            chars[length + i] = text.charAt(i);
+        }
+        length += n;
+        if (count == ends.length) {
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        ends[count++] = length;
+    }
+
+    int size() {
+        return count;
+    }
+
+    // 序号越界时返回 null
+    String get(int index) {
+        if (index < 0 || index >= count) return null;
+        int start = index == 0 ? 0 : ends[index - 1];
+        return new String(chars, start, ends[index] - start);
+    }
+}
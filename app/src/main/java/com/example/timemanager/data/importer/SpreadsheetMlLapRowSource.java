@@ -0,0 +1,187 @@
+// 【2026-10-18 22:30】新增：SpreadsheetMlLapRowSource - 流式读取 SpreadsheetML（.xls，ExcelExportUtil 的导出格式）
+// 功能作用：用 XmlPullParser 逐个事件读取 <Workbook>/<Worksheet>/<Table>/<Row>/<Cell>/<Data>，每次只保留当前一行的 8 个单元格，
+//          不构建 DOM，内存占用与文件大小无关。只读取第一个工作表，第一行为表头（规则同 CSV）。
+//          兼容 Excel 另存后的文件：省略的空单元格（ss:Index 跳列、行尾省略）按空串处理，
+//          ss:Type="DateTime" 的 "yyyy-MM-ddTHH:mm:ss.SSS" 还原为 "yyyy-MM-dd HH:mm:ss"。
+// 新增时间：2026年10月18日 22:30
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.example.timemanager.data.model.LapRecord;
+import com.example.timemanager.util.LogUtils;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Locale;
+
+public final class SpreadsheetMlLapRowSource implements LapRowSource {
+    private static final String TAG = "SpreadsheetMlLapRowSource";
+
+    private final XmlPullParser parser;
+    private final InputStream in;
+    private final String[] cells = new String[LapRows.COLUMN_COUNT];
+    private final StringBuilder text = new StringBuilder();
+    private int cellCount;
+    private int rowNumber;
+    private int skippedRows;
+    private boolean finished;
+
+    // parser 由调用方创建（Android 上为 Xml.newPullParser()），in 为文件内容
+    public SpreadsheetMlLapRowSource(@NonNull XmlPullParser parser, @NonNull InputStream in) throws IOException {
+        this.parser = parser;
+        this.in = in;
+        try {
+            parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, false);
+            parser.setInput(in, null);
+            if (!readRow()) {
+                throw new LapImportException(LapImportException.Reason.EMPTY, "工作表中没有数据行");
+            }
+        } catch (XmlPullParserException e) {
+            throw new LapImportException(LapImportException.Reason.HEADER, "不是有效的 SpreadsheetML 文件：" + e.getMessage());
+        }
+        if (!LapRows.isHeader(cells, cellCount)) {
+            throw new LapImportException(LapImportException.Reason.HEADER, "文件头不匹配预期的8列格式");
+        }
+    }
+
+    @Nullable
+    @Override
+    public LapRecord next() throws IOException {
+        try {
+            while (readRow()) {
+                if (isBlankRow()) continue;
+                try {
+                    return LapRows.fromText(cells);
+                } catch (NumberFormatException e) {
+                    skippedRows++;
+                    LogUtils.log(String.format(Locale.getDefault(), "【SpreadsheetMlLapRowSource】第 %d 行序号格式错误，跳过。序号: %s", rowNumber, cells[0]));
+                    android.util.Log.e(TAG, "Number format error at row " + rowNumber, e);
+                }
+            }
+            return null;
+        } catch (XmlPullParserException e) {
+            throw new IOException("SpreadsheetML 解析失败（第 " + parser.getLineNumber() + " 行）：" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int getSkippedRows() {
+        return skippedRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // 读到下一个 <Row> 并收集其单元格；第一个工作表结束时返回 false
+    private boolean readRow() throws XmlPullParserException, IOException {
+        if (finished) return false;
+        int event = parser.getEventType();
+        while (true) {
+            if (event == XmlPullParser.END_DOCUMENT) {
+                finished = true;
+                return false;
+            }
+            if (event == XmlPullParser.END_TAG && "Worksheet".equals(localName(parser.getName()))) {
+                finished = true;
+                return false;
+            }
+            if (event == XmlPullParser.START_TAG && "Row".equals(localName(parser.getName()))) {
+                break;
+            }
+            event = parser.next();
+        }
+
+        Arrays.fill(cells, "");
+        cellCount = 0;
+        rowNumber++;
+        int column = 0;
+        int cellDepth = -1;
+        boolean inData = false;
+        boolean dateTime = false;
+        while (true) {
+            event = parser.next();
+            if (event == XmlPullParser.END_DOCUMENT) {
+                finished = true;
+                return true;
+            }
+            String name = event == XmlPullParser.START_TAG || event == XmlPullParser.END_TAG
+                    ? localName(parser.getName()) : null;
+            if (event == XmlPullParser.START_TAG) {
+                if ("Cell".equals(name)) {
+                    // ss:Index 为 1 起的列号，表示其前的单元格被省略
+                    String index = attribute("Index");
+                    if (index != null) {
+                        try {
+                            column = Math.max(column, Integer.parseInt(index.trim()) - 1);
+                        } catch (NumberFormatException ignored) {
+                            // 忽略无效列号，按顺序排列
+                        }
+                    }
+                    cellDepth = parser.getDepth();
+                    text.setLength(0);
+                    dateTime = false;
+                } else if ("Data".equals(name) && cellDepth >= 0) {
+                    inData = true;
+                    dateTime = "DateTime".equals(attribute("Type"));
+                }
+            } else if (event == XmlPullParser.TEXT) {
+                // <Data> 内可能拆成多段文本或带有富文本标签，全部拼接
+                if (inData) text.append(parser.getText());
+            } else if (event == XmlPullParser.END_TAG) {
+                if ("Data".equals(name)) {
+                    inData = false;
+                } else if ("Cell".equals(name) && cellDepth >= 0) {
+                    if (column < LapRows.COLUMN_COUNT) {
+                        cells[column] = dateTime ? fromDateTime(text) : text.toString();
+                        cellCount = Math.max(cellCount, column + 1);
+                    }
+                    column++;
+                    cellDepth = -1;
+                } else if ("Row".equals(name)) {
+                    parser.next();
+                    return true;
+                }
+            }
+        }
+    }
+
+    private boolean isBlankRow() {
+        for (int i = 0; i < cellCount; i++) {
+            if (!cells[i].trim().isEmpty()) return false;
+        }
+        return true;
+    }
+
+    // 按本地名取属性（未启用命名空间处理时属性名带 "ss:" 前缀）
+    @Nullable
+    private String attribute(String localName) {
+        for (int i = 0, count = parser.getAttributeCount(); i < count; i++) {
+            if (localName.equals(localName(parser.getAttributeName(i)))) {
+                return parser.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static String localName(String name) {
+        if (name == null) return null;
+        int colon = name.indexOf(':');
+        return colon < 0 ? name : name.substring(colon + 1);
+    }
+
+    // "yyyy-MM-ddTHH:mm:ss.SSS" -> "yyyy-MM-dd HH:mm:ss"；其他形式原样返回
+    private static String fromDateTime(CharSequence value) {
+        String s = value.toString().trim();
+        if (s.length() >= 19 && s.charAt(10) == 'T') {
+            return s.substring(0, 10) + ' ' + s.substring(11, 19);
+        }
+        return s;
+    }
+}
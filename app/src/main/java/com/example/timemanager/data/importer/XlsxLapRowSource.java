@@ -0,0 +1,414 @@
+// 【2026-10-18 22:48】新增：XlsxLapRowSource - 流式读取 .xlsx（Excel / WPS 保存的文件与本应用的 xlsx 导出）
+// 功能作用：直接从 ContentResolver 的输入流按顺序读取 zip 条目：xl/sharedStrings.xml 载入紧凑的 SharedStringTable，
+//          xl/worksheets/sheet1.xml 用 XmlPullParser 逐行解析，每次只保留当前一行，内存与行数无关。
+//          zip 中工作表可能排在共享字符串之前（本应用与多数工具都是如此），此时先把工作表以压缩形式暂存到临时文件，
+//          读完共享字符串后再从临时文件解析；共享字符串在前时直接从 zip 流解析，不产生临时文件。
+//          Excel 会把日期 / 时长识别为数值：时长按“天”换算为毫秒，日期与时间戳按 1900 日期系统还原为文本。
+// 新增时间：2026年10月18日 22:48
+// 【2026-10-19 12:20】修改：说明内存占用的范围：“与行数无关”指本类与其后的导入流程
+//                      （LapRepository.importRecords 只统计条数，不再构建 LapTimeline）；
+//                      共享字符串表随不重复的字符串增长（每条只占字符 + 4 字节），与行数本身无关
+package com.example.timemanager.data.importer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.example.timemanager.data.model.LapRecord;
+import com.example.timemanager.util.LogUtils;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public final class XlsxLapRowSource implements LapRowSource {
+    private static final String TAG = "XlsxLapRowSource";
+    static final String SHEET_ENTRY = "xl/worksheets/sheet1.xml";
+    static final String SHARED_STRINGS_ENTRY = "xl/sharedStrings.xml";
+    private static final double MILLIS_PER_DAY = 86_400_000d;
+    // 1900 日期系统的序列号 25569 对应 1970-01-01
+    private static final long EXCEL_EPOCH_DAY = 25569L;
+
+    private final ZipInputStream zip;
+    // 交给解析器的 zip 条目输入：部分解析器读到文档末尾会关闭输入流，这里忽略 close，zip 由本类关闭
+    private final InputStream entryInput;
+    private final Supplier<XmlPullParser> parsers;
+    private final SharedStringTable strings = new SharedStringTable();
+    private final String[] cells = new String[LapRows.COLUMN_COUNT];
+    private final StringBuilder text = new StringBuilder();
+    private XmlPullParser sheet;
+    // 工作表暂存文件（工作表排在共享字符串之前时使用）及其输入流
+    private File spool;
+    private InputStream spoolIn;
+    private long intervalMillis;
+    private long lapTimeMillis;
+    private int cellCount;
+    private int rowNumber;
+    private int skippedRows;
+    private boolean finished;
+
+    // parsers 每次调用返回一个新的解析器（Android 上为 Xml::newPullParser）
+    public XlsxLapRowSource(@NonNull InputStream in, @NonNull Supplier<XmlPullParser> parsers) throws IOException {
+        this.zip = new ZipInputStream(in);
+        this.entryInput = new FilterInputStream(zip) {
+            @Override
+            public void close() {
+            }
+        };
+        this.parsers = parsers;
+        try {
+            openSheet();
+            if (!readRow()) {
+                throw new LapImportException(LapImportException.Reason.EMPTY, "工作表中没有数据行");
+            }
+        } catch (XmlPullParserException e) {
+            close();
+            throw new LapImportException(LapImportException.Reason.HEADER, "不是有效的 xlsx 工作表：" + e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        if (!LapRows.isHeader(cells, cellCount)) {
+            close();
+            throw new LapImportException(LapImportException.Reason.HEADER, "文件头不匹配预期的8列格式");
+        }
+    }
+
+    @Nullable
+    @Override
+    public LapRecord next() throws IOException {
+        try {
+            while (readRow()) {
+                if (isBlankRow()) continue;
+                try {
+                    return LapRows.fromText(cells, intervalMillis, lapTimeMillis);
+                } catch (NumberFormatException e) {
+                    skippedRows++;
+                    LogUtils.log(String.format(Locale.getDefault(), "【XlsxLapRowSource】第 %d 行序号格式错误，跳过。序号: %s", rowNumber, cells[0]));
+                    android.util.Log.e(TAG, "Number format error at row " + rowNumber, e);
+                }
+            }
+            return null;
+        } catch (XmlPullParserException e) {
+            throw new IOException("xlsx 工作表解析失败（第 " + sheet.getLineNumber() + " 行）：" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int getSkippedRows() {
+        return skippedRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (spoolIn != null) spoolIn.close();
+            zip.close();
+        } finally {
+            if (spool != null && !spool.delete()) {
+                spool.deleteOnExit();
+            }
+        }
+    }
+
+    // 按顺序扫描 zip 条目，定位到可以开始逐行解析的工作表
+    private void openSheet() throws IOException, XmlPullParserException {
+        boolean stringsLoaded = false;
+        boolean sheetFound = false;
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String name = entry.getName();
+            if (name.equalsIgnoreCase(SHARED_STRINGS_ENTRY)) {
+                readSharedStrings();
+                stringsLoaded = true;
+                if (sheetFound) break;
+            } else if (name.equalsIgnoreCase(SHEET_ENTRY)) {
+                sheetFound = true;
+                if (stringsLoaded) {
+                    // 共享字符串已就绪：直接从 zip 流解析，读到条目末尾即结束
+                    sheet = newParser(entryInput);
+                    return;
+                }
+                spoolSheet();
+            }
+        }
+        if (!sheetFound) {
+            throw new LapImportException(LapImportException.Reason.HEADER, "文件中没有工作表 " + SHEET_ENTRY);
+        }
+        spoolIn = new InflaterInputStream(new BufferedInputStream(new FileInputStream(spool)), new Inflater(), 16 * 1024);
+        sheet = newParser(spoolIn);
+    }
+
+    // 把当前 zip 条目（工作表 XML）以快速压缩写入临时文件，磁盘占用约为原 zip 中该条目的大小
+    private void spoolSheet() throws IOException {
+        spool = File.createTempFile("import-sheet", ".xml.z");
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream out = new DeflaterOutputStream(new BufferedOutputStream(new FileOutputStream(spool)), deflater, 16 * 1024)) {
+            byte[] buffer = new byte[16 * 1024];
+            int read;
+            while ((read = zip.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private XmlPullParser newParser(InputStream in) throws XmlPullParserException {
+        XmlPullParser parser = parsers.get();
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, false);
+        parser.setInput(in, null);
+        return parser;
+    }
+
+    // <sst><si><t>..</t></si> 或富文本 <si><r><t>..</t></r>..</si>；注音 <rPh> 中的文本不计入
+    private void readSharedStrings() throws IOException, XmlPullParserException {
+        XmlPullParser parser = newParser(entryInput);
+        boolean inItem = false;
+        boolean inText = false;
+        int phoneticDepth = 0;
+        for (int event = parser.next(); event != XmlPullParser.END_DOCUMENT; event = parser.next()) {
+            if (event == XmlPullParser.START_TAG) {
+                String name = localName(parser.getName());
+                if ("si".equals(name)) {
+                    inItem = true;
+                    text.setLength(0);
+                } else if ("rPh".equals(name)) {
+                    phoneticDepth++;
+                } else if ("t".equals(name) && inItem && phoneticDepth == 0) {
+                    inText = true;
+                }
+            } else if (event == XmlPullParser.TEXT) {
+                if (inText) text.append(parser.getText());
+            } else if (event == XmlPullParser.END_TAG) {
+                String name = localName(parser.getName());
+                if ("t".equals(name)) {
+                    inText = false;
+                } else if ("rPh".equals(name)) {
+                    phoneticDepth--;
+                } else if ("si".equals(name)) {
+                    strings.add(text);
+                    inItem = false;
+                }
+            }
+        }
+    }
+
+    // 读到下一个 <row> 并收集其单元格；<sheetData> 结束时返回 false
+    private boolean readRow() throws XmlPullParserException, IOException {
+        if (finished) return false;
+        int event = sheet.getEventType();
+        while (true) {
+            if (event == XmlPullParser.END_DOCUMENT
+                    || (event == XmlPullParser.END_TAG && "sheetData".equals(localName(sheet.getName())))) {
+                finished = true;
+                return false;
+            }
+            if (event == XmlPullParser.START_TAG && "row".equals(localName(sheet.getName()))) {
+                break;
+            }
+            event = sheet.next();
+        }
+
+        Arrays.fill(cells, "");
+        cellCount = 0;
+        intervalMillis = LapRows.UNSET;
+        lapTimeMillis = LapRows.UNSET;
+        rowNumber++;
+        int column = 0;
+        String type = null;
+        boolean inCell = false;
+        boolean inValue = false;
+        boolean inInline = false;
+        int phoneticDepth = 0;
+        while (true) {
+            event = sheet.next();
+            if (event == XmlPullParser.END_DOCUMENT) {
+                finished = true;
+                return true;
+            }
+            if (event == XmlPullParser.START_TAG) {
+                String name = localName(sheet.getName());
+                if ("c".equals(name)) {
+                    String reference = attribute("r");
+                    if (reference != null) {
+                        int referenced = columnOf(reference);
+                        if (referenced >= 0) column = referenced;
+                    }
+                    type = attribute("t");
+                    inCell = true;
+                    text.setLength(0);
+                } else if ("v".equals(name) && inCell) {
+                    inValue = true;
+                } else if ("rPh".equals(name)) {
+                    phoneticDepth++;
+                } else if ("t".equals(name) && inCell && phoneticDepth == 0) {
+                    inInline = true;
+                }
+            } else if (event == XmlPullParser.TEXT) {
+                if (inValue || inInline) text.append(sheet.getText());
+            } else if (event == XmlPullParser.END_TAG) {
+                String name = localName(sheet.getName());
+                if ("v".equals(name)) {
+                    inValue = false;
+                } else if ("t".equals(name)) {
+                    inInline = false;
+                } else if ("rPh".equals(name)) {
+                    phoneticDepth--;
+                } else if ("c".equals(name)) {
+                    if (column < LapRows.COLUMN_COUNT) {
+                        setCell(column, type, text.toString());
+                        cellCount = Math.max(cellCount, column + 1);
+                    }
+                    column++;
+                    inCell = false;
+                } else if ("row".equals(name)) {
+                    sheet.next();
+                    return true;
+                }
+            }
+        }
+    }
+
+    // 按单元格类型取值：s 共享字符串、inlineStr / str 文本、b 布尔、e 错误、d ISO 日期，其余为数值
+    private void setCell(int column, String type, String value) {
+        if (type == null || "n".equals(type)) {
+            setNumericCell(column, value);
+        } else if ("s".equals(type)) {
+            String shared = null;
+            try {
+                shared = strings.get(Integer.parseInt(value.trim()));
+            } catch (NumberFormatException ignored) {
+                // 无效的共享字符串序号按空单元格处理
+            }
+            cells[column] = shared != null ? shared : "";
+        } else if ("e".equals(type)) {
+            cells[column] = "";
+        } else if ("d".equals(type)) {
+            String s = value.trim();
+            cells[column] = s.length() >= 19 && s.charAt(10) == 'T' ? s.substring(0, 10) + ' ' + s.substring(11, 19) : s;
+        } else {
+            cells[column] = value;
+        }
+    }
+
+    private void setNumericCell(int column, String value) {
+        String s = value.trim();
+        double number;
+        try {
+            number = Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            cells[column] = value;
+            return;
+        }
+        switch (column) {
+            case 0:
+                // 序号：Excel 可能保存为 "12" 或 "12.0"
+                cells[column] = number == Math.rint(number) ? Long.toString((long) number) : s;
+                break;
+            case 1:
+                cells[column] = fromSerial(number, false);
+                break;
+            case 2:
+                intervalMillis = Math.round(number * MILLIS_PER_DAY);
+                break;
+            case 3:
+                lapTimeMillis = Math.round(number * MILLIS_PER_DAY);
+                break;
+            case 4:
+            case 5:
+                cells[column] = fromSerial(number, true);
+                break;
+            default:
+                cells[column] = s;
+                break;
+        }
+    }
+
+    private boolean isBlankRow() {
+        if (intervalMillis != LapRows.UNSET || lapTimeMillis != LapRows.UNSET) return false;
+        for (int i = 0; i < cellCount; i++) {
+            if (!cells[i].trim().isEmpty()) return false;
+        }
+        return true;
+    }
+
+    @Nullable
+    private String attribute(String localName) {
+        for (int i = 0, count = sheet.getAttributeCount(); i < count; i++) {
+            if (localName.equals(localName(sheet.getAttributeName(i)))) {
+                return sheet.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static String localName(String name) {
+        if (name == null) return null;
+        int colon = name.indexOf(':');
+        return colon < 0 ? name : name.substring(colon + 1);
+    }
+
+    // "AB12" -> 27（从 0 开始的列号）；没有列字母时返回 -1
+    static int columnOf(String reference) {
+        int column = 0;
+        int i = 0;
+        for (; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                column = column * 26 + (c - 'A' + 1);
+            } else if (c >= 'a' && c <= 'z') {
+                column = column * 26 + (c - 'a' + 1);
+            } else {
+                break;
+            }
+        }
+        return i == 0 ? -1 : column - 1;
+    }
+
+    // 1900 日期系统序列号 -> "yyyy-MM-dd"（或 "yyyy-MM-dd HH:mm:ss"），按墙上时间还原，精确到秒
+    static String fromSerial(double serial, boolean withTime) {
+        long totalSeconds = Math.round(serial * 86_400d);
+        long days = Math.floorDiv(totalSeconds, 86_400L);
+        int secondOfDay = (int) Math.floorMod(totalSeconds, 86_400L);
+        // 由 1970-01-01 起的天数推算公历日期
+        long z = days - EXCEL_EPOCH_DAY + 719_468L;
+        long era = Math.floorDiv(z, 146_097L);
+        long dayOfEra = z - era * 146_097L;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return Double.toString(serial);
+        }
+        String date = LapRecord.formatDateKey((int) (year * 10000 + month * 100 + day));
+        if (!withTime) return date;
+        StringBuilder sb = new StringBuilder(19).append(date).append(' ');
+        appendTwoDigits(sb, secondOfDay / 3600).append(':');
+        appendTwoDigits(sb, secondOfDay / 60 % 60).append(':');
+        return appendTwoDigits(sb, secondOfDay % 60).toString();
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        return sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
@@ -0,0 +1,42 @@
+// 【2026-10-18 12:35】新增：CategoryTable - 分段种类字符串驻留表
+// 功能作用：把分段种类映射为小整数 id，LapRecord 只保存 id；相同种类在内存中只保存一份字符串。
+//          id 仅在进程内有效，持久化时始终写种类名称。
+// 新增时间：2026年10月18日 12:35
+package com.example.timemanager.data.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class CategoryTable {
+    // id 0 固定表示“无种类”（null）
+    public static final int NONE = 0;
+
+    private static final List<String> NAMES = new ArrayList<>();
+    private static final Map<String, Integer> IDS = new HashMap<>();
+
+    static {
+        NAMES.add(null);
+    }
+
+    private CategoryTable() {
+    }
+
+    // 获取种类名称对应的 id，首次出现时分配新 id
+    public static synchronized int idOf(String name) {
+        if (name == null) return NONE;
+        Integer id = IDS.get(name);
+        if (id == null) {
+            id = NAMES.size();
+            NAMES.add(name);
+            IDS.put(name, id);
+        }
+        return id;
+    }
+
+    // 根据 id 取回种类名称
+    public static synchronized String nameOf(int id) {
+        return id > 0 && id < NAMES.size() ? NAMES.get(id) : null;
+    }
+}
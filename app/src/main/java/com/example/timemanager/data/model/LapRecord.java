@@ -1,41 +1,148 @@
 package com.example.timemanager.data.model;
 
+import com.example.timemanager.util.DurationFormatter;
 import com.example.timemanager.util.LogUtils;
-
-import java.util.Locale;
-import java.util.concurrent.TimeUnit;
+import com.example.timemanager.util.TimeFormatService;
+import com.google.gson.annotations.JsonAdapter;
 
 /**
  * LapRecord 数据模型
  * 修改时间：2025-11-19 15:10 - 架构优化：集成时间格式化逻辑，构造函数接收 long 类型原始数据
+ * 修改时间：2026-10-18 12:20 - v2 结构：时长与时间戳以 long 保存，分段种类以小整数 id 保存，
+ *                              只在显示 / 导出时格式化；v1 JSON 由 LapRecordTypeAdapter 透明迁移
+ * 修改时间：2026-10-19 14:10 - 增加存储主键 id：修改 / 删除 / 分页按主键定位，不再按位置扫描
  */
+@JsonAdapter(LapRecordTypeAdapter.class)
 public class LapRecord {
+    private long id; // 存储主键（SQLite _id），按记录顺序单调递增；0 表示尚未分配
     private int index;
-    private String date; // 年月日信息 (yyyy-MM-dd)
-    private String interval; // 间隔时间（字符串格式）
-    private String lapTime; // 间隔累计（字符串格式）
-    private String startTime; // 本次记录的开始系统时间
-    private String recordTime; // 本次记录的完成系统时间
+    private int dateKey; // 年月日信息，yyyyMMdd 整数形式 (如 20261018)，0 表示未知
+    private long intervalMillis; // 间隔时间（毫秒）
+    private long lapTimeMillis; // 间隔累计（毫秒）
+    private long startTimeMillis; // 本次记录的开始系统时间（epoch 毫秒），0 表示未知
+    private long recordTimeMillis; // 本次记录的完成系统时间（epoch 毫秒），0 表示未知
     private long recordSystemTimeMillis; // 记录完成时的系统时间戳
-    private String category; // 分段种类
+    private int categoryId; // 分段种类 id（见 CategoryTable）
     private String detail; // 具体事件描述
+    // 导入数据中无法解析为数值的原始文本，原样保留用于显示；正常记录均为 null
+    private String dateText;
+    private String startTimeText;
+    private String recordTimeText;
 
     /**
      * 构造函数
      * 修改时间：2025-11-19 15:10 -改为接收 long 类型的 intervalMillis 和 totalAccumulatedMillis
      * 并在内部调用 formatTime 进行格式化，实现逻辑内聚。
+     * 修改时间：2026-10-18 12:22 - v2：日期与开始 / 记录时间字符串在此解析为数值保存（导入、旧数据使用）
      */
     public LapRecord(int index, String date, long intervalMillis, long totalAccumulatedMillis, String startTime, String recordTime, long recordSystemTimeMillis, String category, String detail) {
         this.index = index;
-        this.date = date;
-        // 内部直接格式化，不再依赖外部传入 String
-        this.interval = formatTime(intervalMillis);
-        this.lapTime = formatTime(totalAccumulatedMillis);
-        this.startTime = startTime;
-        this.recordTime = recordTime;
+        this.intervalMillis = intervalMillis;
+        this.lapTimeMillis = totalAccumulatedMillis;
+        this.recordSystemTimeMillis = recordSystemTimeMillis;
+        this.categoryId = CategoryTable.idOf(category);
+        this.detail = detail;
+
+        this.dateKey = parseDateKey(date);
+        if (dateKey == 0) this.dateText = date;
+        this.startTimeMillis = parseDateTime(startTime);
+        if (startTimeMillis == 0) this.startTimeText = startTime;
+        this.recordTimeMillis = parseDateTime(recordTime);
+        if (recordTimeMillis == 0) this.recordTimeText = recordTime;
+    }
+
+    /**
+     * v2 构造函数：全部使用原始数值
+     * 新增时间：2026-10-18 12:24 - 供新增分段使用，日期由记录时间推导，无需任何字符串格式化
+     */
+    public LapRecord(int index, long intervalMillis, long totalAccumulatedMillis, long startTimeMillis, long recordTimeMillis, long recordSystemTimeMillis, String category, String detail) {
+        this.index = index;
+        this.intervalMillis = intervalMillis;
+        this.lapTimeMillis = totalAccumulatedMillis;
+        this.startTimeMillis = startTimeMillis;
+        this.recordTimeMillis = recordTimeMillis;
         this.recordSystemTimeMillis = recordSystemTimeMillis;
-        this.category = category;
+        this.categoryId = CategoryTable.idOf(category);
         this.detail = detail;
+        this.dateKey = toDateKey(recordTimeMillis);
+    }
+
+    private LapRecord() {
+    }
+
+    /**
+     * 从持久化数据（SQLite / JSON）还原记录
+     * 新增时间：2026-10-18 12:26 - 字段按 v2 结构逐一给出，不做任何解析
+     */
+    public static LapRecord restore(int index, int dateKey, long intervalMillis, long lapTimeMillis,
+                                    long startTimeMillis, long recordTimeMillis, long recordSystemTimeMillis,
+                                    String category, String detail,
+                                    String dateText, String startTimeText, String recordTimeText) {
+        return restore(0L, index, dateKey, intervalMillis, lapTimeMillis, startTimeMillis, recordTimeMillis,
+                recordSystemTimeMillis, category, detail, dateText, startTimeText, recordTimeText);
+    }
+
+    // 【2026-10-19 14:10】新增：带存储主键还原
+    public static LapRecord restore(long id, int index, int dateKey, long intervalMillis, long lapTimeMillis,
+                                    long startTimeMillis, long recordTimeMillis, long recordSystemTimeMillis,
+                                    String category, String detail,
+                                    String dateText, String startTimeText, String recordTimeText) {
+        LapRecord record = new LapRecord();
+        record.id = id;
+        record.index = index;
+        record.dateKey = dateKey;
+        record.intervalMillis = intervalMillis;
+        record.lapTimeMillis = lapTimeMillis;
+        record.startTimeMillis = startTimeMillis;
+        record.recordTimeMillis = recordTimeMillis;
+        record.recordSystemTimeMillis = recordSystemTimeMillis;
+        record.categoryId = CategoryTable.idOf(category);
+        record.detail = detail;
+        record.dateText = dateText;
+        record.startTimeText = startTimeText;
+        record.recordTimeText = recordTimeText;
+        return record;
+    }
+
+    /**
+     * 返回修改了间隔 / 间隔累计的副本（记录本身不可变，供累计索引重算使用）
+     * 新增时间：2026-10-18 14:40
+     */
+    public LapRecord withIntervalMillis(long newIntervalMillis) {
+        LapRecord copy = copy();
+        copy.intervalMillis = newIntervalMillis;
+        return copy;
+    }
+
+    public LapRecord withLapTimeMillis(long newLapTimeMillis) {
+        LapRecord copy = copy();
+        copy.lapTimeMillis = newLapTimeMillis;
+        return copy;
+    }
+
+    // 【2026-10-19 14:10】新增：返回分配了存储主键的副本（新增分段在写入存储前由界面分配）
+    public LapRecord withId(long newId) {
+        LapRecord copy = copy();
+        copy.id = newId;
+        return copy;
+    }
+
+    private LapRecord copy() {
+        LapRecord copy = new LapRecord();
+        copy.id = id;
+        copy.index = index;
+        copy.dateKey = dateKey;
+        copy.intervalMillis = intervalMillis;
+        copy.lapTimeMillis = lapTimeMillis;
+        copy.startTimeMillis = startTimeMillis;
+        copy.recordTimeMillis = recordTimeMillis;
+        copy.recordSystemTimeMillis = recordSystemTimeMillis;
+        copy.categoryId = categoryId;
+        copy.detail = detail;
+        copy.dateText = dateText;
+        copy.startTimeText = startTimeText;
+        copy.recordTimeText = recordTimeText;
+        return copy;
     }
 
     /**
@@ -44,12 +151,8 @@ public class LapRecord {
      * 格式：HH:mm:ss.SS (分秒两位，毫秒两位)
      */
     public static String formatTime(long millis) {
-        long hours = TimeUnit.MILLISECONDS.toHours(millis);
-        long minutes = TimeUnit.MILLISECONDS.toMinutes(millis) % 60;
-        long seconds = TimeUnit.MILLISECONDS.toSeconds(millis) % 60;
-        long centiseconds = (millis % 1000) / 10;
-
-        return String.format(Locale.getDefault(), "%d:%02d:%02d.%02d", hours, minutes, seconds, centiseconds);
+        // 【2026-10-18 13:35】修改：改用 DurationFormatter 直接写字符缓冲，不再经过 String.format
+        return DurationFormatter.toString(millis);
     }
 
     // 【2025-11-22 18:30】新增：时间字符串反向解析为毫秒数
@@ -61,29 +164,16 @@ public class LapRecord {
         }
         try {
             // 格式: H:mm:ss.SS
-            String[] parts = timeString.split("[:.]"); // 分割 ':', '.'
-            if (parts.length != 4) {
-                LogUtils.log("【LapRecord】时间字符串解析失败: 格式错误。原始值: " + timeString);
-                android.util.Log.e("LapRecord", "Invalid time string format: " + timeString);
-                return 0L;
-            }
-
-            long hours = Long.parseLong(parts[0].trim());
-            long minutes = Long.parseLong(parts[1].trim());
-            long seconds = Long.parseLong(parts[2].trim());
-            // parts[3] 是两位毫秒，表示厘秒 (centiseconds)，需要乘以 10 得到毫秒
-            long centiseconds = Long.parseLong(parts[3].trim());
-
-            long totalMillis = hours * 3600000L +
-                    minutes * 60000L +
-                    seconds * 1000L +
-                    centiseconds * 10L;
-
-            return totalMillis;
+            // 【2026-10-18 13:36】修改：改用 DurationFormatter.parse 逐字符解析，不再 split 产生子串数组
+            return DurationFormatter.parse(timeString);
         } catch (NumberFormatException e) {
             LogUtils.log("【LapRecord】时间字符串包含非数字：解析异常。原始值: " + timeString);
             android.util.Log.e("LapRecord", "Time string parsing error (NumberFormatException): " + timeString, e);
             return 0L;
+        } catch (IllegalArgumentException e) {
+            LogUtils.log("【LapRecord】时间字符串解析失败: 格式错误。原始值: " + timeString);
+            android.util.Log.e("LapRecord", "Invalid time string format: " + timeString);
+            return 0L;
         } catch (Exception e) {
             LogUtils.log("【LapRecord】时间字符串解析发生未知错误。原始值: " + timeString);
             android.util.Log.e("LapRecord", "Time string parsing error (Exception): " + timeString, e);
@@ -91,29 +181,92 @@ public class LapRecord {
         }
     }
 
+    // 【2026-10-18 12:30】新增：日期 / 时间戳与字符串互转（仅在构造旧格式数据、显示与导出时使用）
+    // 【2026-10-18 17:50】修改：格式化器统一由 TimeFormatService 提供（线程内复用 + 按秒记忆）
+    // "yyyy-MM-dd" -> yyyyMMdd 整数；格式不符返回 0
+    public static int parseDateKey(String date) {
+        if (date == null) return 0;
+        String s = date.trim();
+        if (s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') return 0;
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 7);
+        int day = digits(s, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) return 0;
+        return year * 10000 + month * 100 + day;
+    }
+
+    // yyyyMMdd 整数 -> "yyyy-MM-dd"
+    public static String formatDateKey(int dateKey) {
+        char[] buf = new char[10];
+        int year = dateKey / 10000;
+        int month = (dateKey / 100) % 100;
+        int day = dateKey % 100;
+        buf[0] = (char) ('0' + year / 1000 % 10);
+        buf[1] = (char) ('0' + year / 100 % 10);
+        buf[2] = (char) ('0' + year / 10 % 10);
+        buf[3] = (char) ('0' + year % 10);
+        buf[4] = '-';
+        buf[5] = (char) ('0' + month / 10);
+        buf[6] = (char) ('0' + month % 10);
+        buf[7] = '-';
+        buf[8] = (char) ('0' + day / 10);
+        buf[9] = (char) ('0' + day % 10);
+        return new String(buf);
+    }
+
+    // epoch 毫秒 -> 本地日期 yyyyMMdd 整数
+    public static int toDateKey(long epochMillis) {
+        return TimeFormatService.toDateKey(epochMillis);
+    }
+
+    // "yyyy-MM-dd HH:mm:ss" -> epoch 毫秒；无法解析返回 0
+    public static long parseDateTime(String text) {
+        return TimeFormatService.parseDateTime(text);
+    }
+
+    // epoch 毫秒 -> "yyyy-MM-dd HH:mm:ss"
+    public static String formatDateTime(long epochMillis) {
+        return TimeFormatService.formatDateTime(epochMillis);
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
     // Getter 方法 (保持不变，适配 Adapter 和 ExcelExportUtil)
+    // 修改时间：2026-10-18 12:32 - 字符串 Getter 改为按需格式化，数值 Getter 供热路径与存储使用
+    public long getId() {
+        return id;
+    }
+
     public int getIndex() {
         return index;
     }
 
     public String getDate() {
-        return date;
+        return dateKey != 0 ? formatDateKey(dateKey) : dateText;
     }
 
     public String getInterval() {
-        return interval;
+        return formatTime(intervalMillis);
     }
 
     public String getLapTime() {
-        return lapTime;
+        return formatTime(lapTimeMillis);
     }
 
     public String getStartTime() {
-        return startTime;
+        return startTimeMillis != 0 ? formatDateTime(startTimeMillis) : startTimeText;
     }
 
     public String getRecordTime() {
-        return recordTime;
+        return recordTimeMillis != 0 ? formatDateTime(recordTimeMillis) : recordTimeText;
     }
 
     public long getRecordSystemTimeMillis() {
@@ -121,10 +274,47 @@ public class LapRecord {
     }
 
     public String getCategory() {
-        return category;
+        return CategoryTable.nameOf(categoryId);
     }
 
     public String getDetail() {
         return detail;
     }
-}
\ No newline at end of file
+
+    public int getDateKey() {
+        return dateKey;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public long getLapTimeMillis() {
+        return lapTimeMillis;
+    }
+
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    public long getRecordTimeMillis() {
+        return recordTimeMillis;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    // 原始文本（仅当对应数值无法解析时非空），供持久化使用
+    public String getDateText() {
+        return dateText;
+    }
+
+    public String getStartTimeText() {
+        return startTimeText;
+    }
+
+    public String getRecordTimeText() {
+        return recordTimeText;
+    }
+}
@@ -0,0 +1,117 @@
+// 【2026-10-18 12:40】新增：LapRecordTypeAdapter - LapRecord 的 JSON 读写
+// 功能作用：写出 v2 数值结构；读取时同时识别 v1（字符串时间字段）与 v2 字段名，旧快照、日志透明迁移。
+//          分段种类始终按名称读写，不写进程内的种类 id。
+// 新增时间：2026年10月18日 12:40
+// 修改时间：2026年10月19日 14:12 - 读写存储主键 id（未分配时不写）
+package com.example.timemanager.data.model;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+public class LapRecordTypeAdapter extends TypeAdapter<LapRecord> {
+    private static final int VERSION = 2;
+
+    @Override
+    public void write(JsonWriter out, LapRecord record) throws IOException {
+        if (record == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("v").value(VERSION);
+        if (record.getId() != 0) {
+            out.name("id").value(record.getId());
+        }
+        out.name("index").value(record.getIndex());
+        out.name("dateKey").value(record.getDateKey());
+        out.name("intervalMillis").value(record.getIntervalMillis());
+        out.name("lapTimeMillis").value(record.getLapTimeMillis());
+        out.name("startTimeMillis").value(record.getStartTimeMillis());
+        out.name("recordTimeMillis").value(record.getRecordTimeMillis());
+        out.name("recordSystemTimeMillis").value(record.getRecordSystemTimeMillis());
+        writeOptional(out, "category", record.getCategory());
+        writeOptional(out, "detail", record.getDetail());
+        writeOptional(out, "dateText", record.getDateText());
+        writeOptional(out, "startTimeText", record.getStartTimeText());
+        writeOptional(out, "recordTimeText", record.getRecordTimeText());
+        out.endObject();
+    }
+
+    @Override
+    public LapRecord read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        long id = 0;
+        int index = 0;
+        int dateKey = 0;
+        long intervalMillis = 0;
+        long lapTimeMillis = 0;
+        long startTimeMillis = 0;
+        long recordTimeMillis = 0;
+        long recordSystemTimeMillis = 0;
+        String category = null;
+        String detail = null;
+        String dateText = null;
+        String startTimeText = null;
+        String recordTimeText = null;
+        // v1 字段（字符串格式）
+        String date = null;
+        String interval = null;
+        String lapTime = null;
+        String startTime = null;
+        String recordTime = null;
+        boolean v1 = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id": id = in.nextLong(); break;
+                case "index": index = in.nextInt(); break;
+                case "dateKey": dateKey = in.nextInt(); break;
+                case "intervalMillis": intervalMillis = in.nextLong(); break;
+                case "lapTimeMillis": lapTimeMillis = in.nextLong(); break;
+                case "startTimeMillis": startTimeMillis = in.nextLong(); break;
+                case "recordTimeMillis": recordTimeMillis = in.nextLong(); break;
+                case "recordSystemTimeMillis": recordSystemTimeMillis = in.nextLong(); break;
+                case "category": category = in.nextString(); break;
+                case "detail": detail = in.nextString(); break;
+                case "dateText": dateText = in.nextString(); break;
+                case "startTimeText": startTimeText = in.nextString(); break;
+                case "recordTimeText": recordTimeText = in.nextString(); break;
+                // v1 字段
+                case "date": date = in.nextString(); v1 = true; break;
+                case "interval": interval = in.nextString(); v1 = true; break;
+                case "lapTime": lapTime = in.nextString(); v1 = true; break;
+                case "startTime": startTime = in.nextString(); v1 = true; break;
+                case "recordTime": recordTime = in.nextString(); v1 = true; break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+
+        if (v1) {
+            // v1 记录：经由字符串构造函数解析为 v2 数值结构
+            return new LapRecord(index, date, LapRecord.parseTime(interval), LapRecord.parseTime(lapTime),
+                    startTime, recordTime, recordSystemTimeMillis, category, detail);
+        }
+        return LapRecord.restore(id, index, dateKey, intervalMillis, lapTimeMillis, startTimeMillis,
+                recordTimeMillis, recordSystemTimeMillis, category, detail,
+                dateText, startTimeText, recordTimeText);
+    }
+
+    private static void writeOptional(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+// 【2026-10-19 14:32】新增：LapCursor - 按顺序逐条读出存储记录的游标
+// 功能作用：导出时不再把符合条件的记录整体加载为列表：SQLite 实现直接包装数据库游标，每次 next 还原一行；
+//          用完必须关闭。与导入侧的 LapRowSource 对应
+// 新增时间：2026年10月19日 14:32
+package com.example.timemanager.data.repository;
+
+import androidx.annotation.Nullable;
+import com.example.timemanager.data.model.LapRecord;
+
+import java.io.Closeable;
+
+public interface LapCursor extends Closeable {
+
+    // 下一条记录；没有更多记录时返回 null
+    @Nullable
+    LapRecord next();
+
+    @Override
+    void close();
+}
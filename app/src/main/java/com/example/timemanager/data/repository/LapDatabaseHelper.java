@@ -0,0 +1,87 @@
+// 【2026-10-18 10:15】新增：LapDatabaseHelper - 分段记录 SQLite 数据库
+// 功能作用：建表 laps（以序号 lap_index 为主键），并在 date / category / record_system_time_millis 上建索引，
+//          支持按日期、种类、时间戳范围的索引查询。
+// 修改时间：2026年10月19日 09:20 - 主键改为自增 _id（即记录顺序），lap_index 改为普通索引列，
+//          导入文件中序号重复的行不再互相覆盖
+// 新增时间：2026年10月18日 10:15
+// 修改时间：2026年10月19日 13:20 - 数据库尚未随任何版本发布，开发期间的结构变化（数值日期 / 时间列、自增主键）
+//          直接合并为版本 1 的建表语句，删除针对未发布结构的升级路径
+package com.example.timemanager.data.repository;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import androidx.annotation.NonNull;
+
+public class LapDatabaseHelper extends SQLiteOpenHelper {
+    private static final String DB_NAME = "time_manager.db";
+    // 版本 1：自增主键 _id，序号 lap_index 不唯一；日期、开始 / 记录时间为数值列，原文本列仅保存无法解析的导入数据
+    private static final int DB_VERSION = 1;
+
+    static final String TABLE_LAPS = "laps";
+    // 导入暂存表：导入完成后在一个事务内替换 laps
+    static final String TABLE_LAPS_IMPORT = "laps_import";
+    // 自增主键，按插入顺序递增，列表位置即按 _id 排序后的位置
+    static final String COL_ID = "_id";
+    static final String COL_INDEX = "lap_index";
+    static final String COL_DATE_KEY = "date_key";
+    static final String COL_DATE_TEXT = "date";
+    static final String COL_INTERVAL_MILLIS = "interval_millis";
+    static final String COL_LAP_TIME_MILLIS = "lap_time_millis";
+    static final String COL_START_TIME_MILLIS = "start_time_millis";
+    static final String COL_RECORD_TIME_MILLIS = "record_time_millis";
+    static final String COL_START_TIME_TEXT = "start_time";
+    static final String COL_RECORD_TIME_TEXT = "record_time";
+    static final String COL_RECORD_SYSTEM_TIME = "record_system_time_millis";
+    static final String COL_CATEGORY = "category";
+    static final String COL_DETAIL = "detail";
+
+    public LapDatabaseHelper(@NonNull Context context) {
+        super(context.getApplicationContext(), DB_NAME, null, DB_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        createLapsTable(db, TABLE_LAPS);
+        createLapsIndexes(db);
+    }
+
+    // 【2026-10-18 22:04】修改：建表与建索引拆为独立方法，导入暂存表使用相同结构，切换后再建索引
+    static void createLapsTable(SQLiteDatabase db, String table) {
+        db.execSQL("CREATE TABLE " + table + " ("
+                + COL_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + COL_INDEX + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_DATE_KEY + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_INTERVAL_MILLIS + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_LAP_TIME_MILLIS + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_START_TIME_MILLIS + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_RECORD_TIME_MILLIS + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_RECORD_SYSTEM_TIME + " INTEGER NOT NULL DEFAULT 0, "
+                + COL_CATEGORY + " TEXT, "
+                + COL_DETAIL + " TEXT, "
+                + COL_DATE_TEXT + " TEXT, "
+                + COL_START_TIME_TEXT + " TEXT, "
+                + COL_RECORD_TIME_TEXT + " TEXT)");
+    }
+
+    static void createLapsIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX idx_laps_index ON " + TABLE_LAPS + "(" + COL_INDEX + ")");
+        db.execSQL("CREATE INDEX idx_laps_date_key ON " + TABLE_LAPS + "(" + COL_DATE_KEY + ")");
+        db.execSQL("CREATE INDEX idx_laps_category ON " + TABLE_LAPS + "(" + COL_CATEGORY + ")");
+        db.execSQL("CREATE INDEX idx_laps_record_time ON " + TABLE_LAPS + "(" + COL_RECORD_SYSTEM_TIME + ")");
+    }
+
+    // 【2026-10-19 13:20】修改：原 v2 / v3 迁移针对的结构从未发布，已合并进 onCreate，当前没有需要升级的旧版本
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+    }
+
+    static void bindTextOrNull(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+// 【2026-10-18 09:10】新增：LapJournalStore - 基于追加日志 + 定期快照的分段记录存储
+// 功能作用：每次分段只向日志文件追加一行 JSON，日志达到阈值后压缩为快照；启动时回放“快照 + 日志尾部”。
+//          单次分段的写入成本与历史记录数量无关，不再整体重写 SharedPreferences 中的大 JSON 字符串。
+// 新增时间：2026年10月18日 09:10
+// 【2026-10-19 13:40】修改：日志按代（generation）分文件 lap_journal.<代>.jsonl，快照头部记录它所对应的代：
+//                      写新快照（压缩、整体替换、导入提交）时换用新的代，改名生效后旧代日志即被忽略，再删除。
+//                      进程在“快照改名”与“删除旧日志”之间被杀时，启动时不会把已并入快照的旧日志再回放一遍（记录重复）
+package com.example.timemanager.data.repository;
+
+import androidx.annotation.NonNull;
+import com.example.timemanager.data.model.LapRecord;
+import com.example.timemanager.util.LogUtils;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LapJournalStore implements LapStore {
+    private static final String TAG = "LapJournalStore";
+    private static final String SNAPSHOT_FILE = "lap_snapshot.json";
+    private static final String SNAPSHOT_TEMP_FILE = "lap_snapshot.json.tmp";
+    private static final String SNAPSHOT_IMPORT_FILE = "lap_snapshot.json.import";
+    private static final String JOURNAL_PREFIX = "lap_journal.";
+    private static final String JOURNAL_SUFFIX = ".jsonl";
+    private static final String KEY_GENERATION = "generation";
+    private static final String KEY_RECORDS = "records";
+
+    // 日志条数达到该阈值后触发一次压缩（写新快照 + 清空日志）
+    static final int COMPACT_THRESHOLD = 500;
+
+    private final File dir;
+    private final File snapshotFile;
+    private final File snapshotTempFile;
+    private final File snapshotImportFile;
+    private final Gson gson;
+
+    // 当前日志文件中的记录条数（load 时统计，append 时递增）
+    private int journalEntries = 0;
+    // 当前快照对应的代（只回放这一代的日志）；-1 表示尚未读取。下一个可用的代只增不减
+    private long generation = -1;
+    private long nextGeneration;
+
+    // 【2026-10-18 09:12】新增构造函数
+    // 功能作用：确定快照与日志文件位置（应用私有目录）
+    // 新增时间：2026年10月18日 09:12
+    public LapJournalStore(@NonNull File dir, @NonNull Gson gson) {
+        this.dir = dir;
+        this.snapshotFile = new File(dir, SNAPSHOT_FILE);
+        this.snapshotTempFile = new File(dir, SNAPSHOT_TEMP_FILE);
+        this.snapshotImportFile = new File(dir, SNAPSHOT_IMPORT_FILE);
+        this.gson = gson;
+    }
+
+    // 【2026-10-18 09:14】新增：是否已有持久化数据
+    // 功能作用：供 LapRepository 判断是否需要从旧版 SharedPreferences 迁移
+    // 新增时间：2026年10月18日 09:14
+    public boolean exists() {
+        return snapshotFile.exists() || journalFiles().length > 0;
+    }
+
+    // 【2026-10-18 09:16】新增：加载全部记录（快照 + 日志回放）
+    // 功能作用：先流式读取快照数组，再逐行回放日志；日志末尾若因进程被杀而残缺，则丢弃该行
+    // 新增时间：2026年10月18日 09:16
+    // 【2026-10-19 13:40】修改：只回放快照头部记录的那一代日志，其余各代（已并入快照）删除
+    @Override
+    public synchronized List<LapRecord> load() throws IOException {
+        List<LapRecord> records = new ArrayList<>();
+        long snapshotGeneration = 0;
+        if (snapshotFile.exists()) {
+            try (JsonReader reader = new JsonReader(new InputStreamReader(
+                    new FileInputStream(snapshotFile), StandardCharsets.UTF_8))) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (KEY_GENERATION.equals(name)) {
+                        snapshotGeneration = reader.nextLong();
+                    } else if (KEY_RECORDS.equals(name)) {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            LapRecord record = gson.fromJson(reader, LapRecord.class);
+                            if (record != null) records.add(record);
+                        }
+                        reader.endArray();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+        }
+        setGeneration(snapshotGeneration);
+        deleteStaleJournals();
+
+        journalEntries = 0;
+        File journalFile = journalFile(generation);
+        if (journalFile.exists()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(journalFile), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) continue;
+                    try {
+                        LapRecord record = gson.fromJson(line, LapRecord.class);
+                        if (record != null) {
+                            records.add(record);
+                            journalEntries++;
+                        }
+                    } catch (JsonParseException e) {
+                        // 通常是最后一行写到一半时进程被杀，跳过即可
+                        LogUtils.log("【LapJournalStore】跳过损坏的日志行：" + e.getMessage());
+                        android.util.Log.w(TAG, "Skipping corrupt journal line", e);
+                    }
+                }
+            }
+        }
+        assignMissingIds(records);
+        return records;
+    }
+
+    // 【2026-10-19 14:20】新增：旧数据与导入的记录没有主键，按顺序接在前面最大的主键之后编号。
+    // 功能作用：编号只取决于文件内容，每次加载结果相同；新增分段带着界面分配的主键（大于已有的全部主键）追加，
+    //          修改 / 删除按主键定位时与界面一致
+    private static void assignMissingIds(List<LapRecord> records) {
+        long lastId = 0L;
+        for (int i = 0; i < records.size(); i++) {
+            LapRecord record = records.get(i);
+            if (record.getId() == 0) {
+                records.set(i, record.withId(++lastId));
+            } else {
+                lastId = Math.max(lastId, record.getId());
+            }
+        }
+    }
+
+    // 【2026-10-18 09:20】新增：追加一条记录到日志
+    // 功能作用：一次小写入（单行 JSON），与历史记录总量无关；达到阈值时自动压缩
+    // 新增时间：2026年10月18日 09:20
+    @Override
+    public synchronized void append(@NonNull LapRecord record) throws IOException {
+        String line = gson.toJson(record) + "\n";
+        ensureGeneration();
+        try (FileOutputStream out = new FileOutputStream(journalFile(generation), true)) {
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+        journalEntries++;
+        if (journalEntries >= COMPACT_THRESHOLD) {
+            compact();
+        }
+    }
+
+    // 【2026-10-18 09:22】新增：用给定列表整体替换存储内容
+    // 功能作用：供重置、导入使用；写入新快照并清空日志
+    // 新增时间：2026年10月18日 09:22
+    @Override
+    public synchronized void replaceAll(@NonNull List<LapRecord> records) throws IOException {
+        installSnapshot(records);
+    }
+
+    // 【2026-10-18 22:08】新增：分批导入
+    // 功能作用：各批记录直接流式写入单独的导入快照文件，提交时 fsync 后改名为快照并清空日志（与 writeSnapshot 相同的原子替换），
+    //          不在内存中收集全部导入记录；放弃时删除导入文件，原快照与日志不变。
+    // 新增时间：2026年10月18日 22:08
+    // 【2026-10-19 13:40】修改：开始时预留新的代写入导入快照头部，提交改名后切换到该代
+    @Override
+    public synchronized ImportSession beginImport() throws IOException {
+        ensureGeneration();
+        long importGeneration = nextGeneration++;
+        FileOutputStream fos = new FileOutputStream(snapshotImportFile);
+        JsonWriter jsonWriter = new JsonWriter(new BufferedWriter(new OutputStreamWriter(fos, StandardCharsets.UTF_8)));
+        jsonWriter.beginObject();
+        jsonWriter.name(KEY_GENERATION).value(importGeneration);
+        jsonWriter.name(KEY_RECORDS).beginArray();
+        return new ImportSession() {
+            @Override
+            public void add(@NonNull List<LapRecord> batch) {
+                synchronized (LapJournalStore.this) {
+                    for (LapRecord record : batch) {
+                        gson.toJson(record, LapRecord.class, jsonWriter);
+                    }
+                }
+            }
+
+            @Override
+            public void commit() throws IOException {
+                synchronized (LapJournalStore.this) {
+                    try {
+                        jsonWriter.endArray();
+                        jsonWriter.endObject();
+                        jsonWriter.flush();
+                        fos.getFD().sync();
+                    } finally {
+                        jsonWriter.close();
+                    }
+                    if (!snapshotImportFile.renameTo(snapshotFile)) {
+                        throw new IOException("导入快照重命名失败：" + snapshotFile.getAbsolutePath());
+                    }
+                    generation = importGeneration;
+                    deleteStaleJournals();
+                }
+            }
+
+            @Override
+            public void abort() {
+                synchronized (LapJournalStore.this) {
+                    try {
+                        jsonWriter.close();
+                    } catch (IOException e) {
+                        android.util.Log.w(TAG, "Failed to close import snapshot", e);
+                    }
+                    if (snapshotImportFile.exists() && !snapshotImportFile.delete()) {
+                        android.util.Log.w(TAG, "Failed to delete import snapshot");
+                    }
+                }
+            }
+        };
+    }
+
+    // 【2026-10-18 09:24】新增：压缩日志
+    // 功能作用：把“快照 + 日志”合并写成新快照后删除日志，控制启动回放的行数
+    // 新增时间：2026年10月18日 09:24
+    public synchronized void compact() throws IOException {
+        List<LapRecord> all = load();
+        installSnapshot(all);
+        LogUtils.log("【LapJournalStore】日志已压缩为快照，记录数：" + all.size());
+    }
+
+    // 【2026-10-18 10:12】新增：删除快照与日志文件
+    // 功能作用：数据迁移到 SQLite 后清理旧文件
+    // 新增时间：2026年10月18日 10:12
+    public synchronized void delete() {
+        if (snapshotFile.exists() && !snapshotFile.delete()) {
+            android.util.Log.w(TAG, "Failed to delete snapshot file");
+        }
+        for (File file : journalFiles()) {
+            if (!file.delete()) {
+                android.util.Log.w(TAG, "Failed to delete journal file " + file.getName());
+            }
+        }
+        generation = -1;
+        journalEntries = 0;
+    }
+
+    // 【2026-10-19 13:40】私有方法：以新的代写入快照并切换过去，然后删除旧代日志
+    // 功能作用：快照改名即生效；之后无论旧日志是否来得及删除，load 都只回放新的一代（此时为空）
+    // 新增时间：2026年10月19日 13:40
+    private void installSnapshot(@NonNull List<LapRecord> records) throws IOException {
+        ensureGeneration();
+        long next = nextGeneration++;
+        writeSnapshot(records, next);
+        generation = next;
+        deleteStaleJournals();
+    }
+
+    // 【2026-10-18 09:26】私有方法：原子写入快照
+    // 功能作用：先写临时文件并 fsync，再 rename 覆盖，保证任何时刻磁盘上都有完整快照
+    // 新增时间：2026年10月18日 09:26
+    // 【2026-10-19 13:40】修改：快照为 {"generation": 代, "records": [...]}，代写在最前面
+    private void writeSnapshot(@NonNull List<LapRecord> records, long snapshotGeneration) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(snapshotTempFile)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(fos, StandardCharsets.UTF_8));
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            jsonWriter.beginObject();
+            jsonWriter.name(KEY_GENERATION).value(snapshotGeneration);
+            jsonWriter.name(KEY_RECORDS).beginArray();
+            for (LapRecord record : records) {
+                gson.toJson(record, LapRecord.class, jsonWriter);
+            }
+            jsonWriter.endArray();
+            jsonWriter.endObject();
+            jsonWriter.flush();
+            fos.getFD().sync();
+        }
+        if (!snapshotTempFile.renameTo(snapshotFile)) {
+            throw new IOException("快照文件重命名失败：" + snapshotFile.getAbsolutePath());
+        }
+    }
+
+    // 尚未 load 时只读取快照头部的代
+    private void ensureGeneration() throws IOException {
+        if (generation >= 0) return;
+        long snapshotGeneration = 0;
+        if (snapshotFile.exists()) {
+            try (JsonReader reader = new JsonReader(new InputStreamReader(
+                    new FileInputStream(snapshotFile), StandardCharsets.UTF_8))) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (KEY_GENERATION.equals(reader.nextName())) {
+                        snapshotGeneration = reader.nextLong();
+                        break;
+                    }
+                    reader.skipValue();
+                }
+            }
+        }
+        setGeneration(snapshotGeneration);
+    }
+
+    // 下一个可用的代大于目录中已有的任何一代，被删除的旧代不会被重新使用
+    private void setGeneration(long snapshotGeneration) {
+        generation = snapshotGeneration;
+        long max = snapshotGeneration;
+        for (File file : journalFiles()) {
+            max = Math.max(max, generationOf(file));
+        }
+        nextGeneration = Math.max(nextGeneration, max + 1);
+    }
+
+    // 删除除当前一代以外的日志（已并入快照，或属于被整体替换的数据）
+    private void deleteStaleJournals() {
+        for (File file : journalFiles()) {
+            if (generationOf(file) != generation && !file.delete()) {
+                android.util.Log.w(TAG, "Failed to delete stale journal file " + file.getName());
+            }
+        }
+        journalEntries = 0;
+    }
+
+    private File journalFile(long journalGeneration) {
+        return new File(dir, JOURNAL_PREFIX + journalGeneration + JOURNAL_SUFFIX);
+    }
+
+    @NonNull
+    private File[] journalFiles() {
+        File[] files = dir.listFiles((d, name) -> name.startsWith(JOURNAL_PREFIX) && name.endsWith(JOURNAL_SUFFIX)
+                && generationOf(name) >= 0);
+        return files != null ? files : new File[0];
+    }
+
+    private static long generationOf(File file) {
+        return generationOf(file.getName());
+    }
+
+    // 文件名中的代；不是 lap_journal.<数字>.jsonl 时返回 -1
+    private static long generationOf(String name) {
+        int from = JOURNAL_PREFIX.length();
+        int to = name.length() - JOURNAL_SUFFIX.length();
+        if (to <= from || to - from > 18) return -1;
+        String digits = name.substring(from, to);
+        for (int i = 0; i < digits.length(); i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') return -1;
+        }
+        return Long.parseLong(digits);
+    }
+}
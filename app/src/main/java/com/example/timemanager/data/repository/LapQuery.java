@@ -0,0 +1,65 @@
+// 【2026-10-19 14:30】新增：LapQuery - 按条件读取记录（导出）时的筛选条件
+// 功能作用：时间范围 [fromMillis, toMillis)、分段种类、主键范围 (afterId, upToId] 组合成一个条件，
+//          SQLite 实现把它翻译为一条走索引的 WHERE 语句，默认实现逐条调用 matches。
+//          记录的时间取 recordSystemTimeMillis；导入数据该值为 0，依次退回记录时间与“日期”列（当天零点）。
+// 新增时间：2026年10月19日 14:30
+package com.example.timemanager.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.example.timemanager.data.model.LapRecord;
+import com.example.timemanager.util.TimeFormatService;
+
+public final class LapQuery {
+    // 半开区间 [fromMillis, toMillis)，无边界时为 Long.MIN_VALUE / Long.MAX_VALUE
+    public final long fromMillis;
+    public final long toMillis;
+    // null 表示全部种类
+    @Nullable
+    public final String category;
+    // 只取主键在 (afterId, upToId] 内的记录；afterId 为 0 表示不限起点
+    public final long afterId;
+    public final long upToId;
+
+    public LapQuery(long fromMillis, long toMillis, @Nullable String category, long afterId, long upToId) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        this.category = category;
+        this.afterId = afterId;
+        this.upToId = upToId;
+    }
+
+    public boolean hasTimeRange() {
+        return fromMillis != Long.MIN_VALUE || toMillis != Long.MAX_VALUE;
+    }
+
+    // 只有“日期”列的记录按当天零点比较：零点落在 [fromMillis, toMillis) 内的第一个日期（yyyyMMdd）
+    public int fromDateKey() {
+        if (fromMillis == Long.MIN_VALUE) return Integer.MIN_VALUE;
+        int key = TimeFormatService.toDateKey(fromMillis);
+        long start = TimeFormatService.startOfDayMillis(key);
+        // 起点不在零点时当天零点早于起点，从下一天开始（30 小时必然落在下一天，与夏令时无关）
+        return start < fromMillis ? TimeFormatService.toDateKey(start + 30L * 3600_000L) : key;
+    }
+
+    // 零点落在 [fromMillis, toMillis) 内的最后一个日期
+    public int toDateKey() {
+        if (toMillis == Long.MAX_VALUE) return Integer.MAX_VALUE;
+        return TimeFormatService.toDateKey(toMillis - 1);
+    }
+
+    public boolean matches(@NonNull LapRecord record) {
+        if (record.getId() <= afterId || record.getId() > upToId) return false;
+        if (category != null && !category.equals(record.getCategory())) return false;
+        long time = timeOf(record);
+        return time >= fromMillis && time < toMillis;
+    }
+
+    // 记录用于范围比较的时间（epoch 毫秒），无任何时间信息时为 Long.MIN_VALUE
+    public static long timeOf(@NonNull LapRecord record) {
+        if (record.getRecordSystemTimeMillis() > 0) return record.getRecordSystemTimeMillis();
+        if (record.getRecordTimeMillis() > 0) return record.getRecordTimeMillis();
+        if (record.getDateKey() != 0) return TimeFormatService.startOfDayMillis(record.getDateKey());
+        return Long.MIN_VALUE;
+    }
+}
@@ -4,17 +4,51 @@
 package com.example.timemanager.data.repository;
 
 import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.DocumentsContract;
+import android.provider.OpenableColumns;
 import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.timemanager.data.collection.LapIntervalIndex;
+import com.example.timemanager.data.export.AppendableLapExporter;
+import com.example.timemanager.data.export.ExportMonitor;
+import com.example.timemanager.data.export.ExportProgress;
+import com.example.timemanager.data.export.ExportWatermarks;
+import com.example.timemanager.data.export.LapExportFilter;
+import com.example.timemanager.data.export.LapExporter;
+import com.example.timemanager.data.importer.ImportMonitor;
+import com.example.timemanager.data.importer.ImportProgress;
+import com.example.timemanager.data.importer.LapImportException;
+import com.example.timemanager.data.importer.LapImportResult;
+import com.example.timemanager.data.importer.LapRowSource;
 import com.example.timemanager.data.model.LapRecord;
-import com.example.timemanager.util.ExcelExportUtil;
+import com.example.timemanager.util.ExcelImportUtil;
 import com.example.timemanager.util.LogUtils;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 public class LapRepository {
     private static final String PREF_NAME = "TimeManagerPrefs";
@@ -22,6 +56,25 @@ public class LapRepository {
 
     private final Context context;
     private final Gson gson;
+    // 【2026-10-18 09:30】新增：追加日志存储 + 进程内共享的单线程 IO 执行器
+    // 功能作用：所有读写按提交顺序串行执行，且不阻塞主线程（ViewModel 重建时也不会并发写同一文件）
+    private static final ExecutorService IO_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    // 【2026-10-18 20:08】新增：导出专用线程与进程内共享的导出进度（导出耗时长，不与存储读写共用 IO_EXECUTOR）
+    private static final ExecutorService EXPORT_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final MutableLiveData<ExportProgress> EXPORT_PROGRESS = new MutableLiveData<>();
+    private static volatile ExportMonitor activeExport;
+    // 【2026-10-18 22:10】新增：导入时每批提交的记录数
+    static final int IMPORT_BATCH_SIZE = 1000;
+    // 【2026-10-18 23:26】新增：导入专用线程与进程内共享的导入进度（导入时要等待 IO_EXECUTOR 写完每一批，不能在其上运行）
+    private static final ExecutorService IMPORT_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final MutableLiveData<ImportProgress> IMPORT_PROGRESS = new MutableLiveData<>();
+    private static volatile ImportMonitor activeImport;
+    private final LapJournalStore journalStore;
+    // 【2026-10-18 21:30】新增：各导出目标的增量导出标记
+    private final ExportWatermarks watermarks;
+    // 【2026-10-18 10:30】新增：当前生效的存储（默认 SQLite，数据库打开失败时回退到追加日志）
+    private final LapStore store;
 
     // 【2025-11-22 06:02】新增构造函数
     // 功能作用：初始化上下文和Gson实例，确保线程安全
@@ -29,73 +82,685 @@ public class LapRepository {
     public LapRepository(@NonNull Context context) {
         this.context = context.getApplicationContext();
         this.gson = new Gson();
+        this.journalStore = new LapJournalStore(this.context.getFilesDir(), gson);
+        this.store = openStore();
+        this.watermarks = new ExportWatermarks(this.context);
+    }
+
+    // 【2026-10-18 10:32】私有方法：选择底层存储
+    // 功能作用：优先使用 SQLite；若数据库无法打开则回退到追加日志存储，保证记录功能可用
+    // 新增时间：2026年10月18日 10:32
+    private LapStore openStore() {
+        try {
+            LapDatabaseHelper helper = new LapDatabaseHelper(context);
+            helper.getWritableDatabase();
+            return new SqliteLapStore(helper);
+        } catch (Exception e) {
+            LogUtils.log("【LapRepository】SQLite 打开失败，回退到日志存储：" + e.getMessage());
+            android.util.Log.e("LapRepository", "打开 SQLite 数据库异常", e);
+            return journalStore;
+        }
+    }
+
+    // 【2026-10-18 09:32】新增：追加单条分段记录
+    // 功能作用：只把新记录追加到日志文件，写入成本与历史记录数量无关；在 IO 线程执行
+    // 新增时间：2026年10月18日 09:32
+    public void appendLapRecord(@NonNull LapRecord record) {
+        IO_EXECUTOR.execute(() -> {
+            try {
+                store.append(record);
+            } catch (Exception e) {
+                LogUtils.log("【LapRepository.appendLapRecord】追加失败：" + e.getMessage());
+                android.util.Log.e("LapRepository", "追加分段记录异常", e);
+            }
+        });
+    }
+
+    // 【2026-10-18 14:54】新增：更新单条分段记录（修改间隔）
+    // 功能作用：只写被修改的一行；后续记录的间隔累计由 LapIntervalIndex 按前缀和给出，无需重写
+    // 新增时间：2026年10月18日 14:54
+    // 【2026-10-19 09:26】修改：按位置更新（序号可能重复）
+    // 【2026-10-19 14:22】修改：按存储主键更新
+    public void updateLapRecord(long id, @NonNull LapRecord record) {
+        IO_EXECUTOR.execute(() -> {
+            try {
+                store.update(id, record);
+            } catch (Exception e) {
+                LogUtils.log("【LapRepository.updateLapRecord】更新失败：" + e.getMessage());
+                android.util.Log.e("LapRepository", "更新分段记录异常", e);
+            }
+        });
+    }
+
+    // 【2026-10-19 11:48】新增：只修改一条记录的间隔与间隔累计（界面只持有前缀和索引，不持有完整记录）
+    // 新增时间：2026年10月19日 11:48
+    // 【2026-10-19 14:22】修改：按存储主键定位
+    public void updateLapInterval(long id, long intervalMillis, long lapTimeMillis) {
+        IO_EXECUTOR.execute(() -> {
+            try {
+                store.updateInterval(id, intervalMillis, lapTimeMillis);
+            } catch (Exception e) {
+                LogUtils.log("【LapRepository.updateLapInterval】更新失败：" + e.getMessage());
+                android.util.Log.e("LapRepository", "更新分段间隔异常", e);
+            }
+        });
+    }
+
+    // 【2026-10-18 14:55】新增：删除单条分段记录
+    // 新增时间：2026年10月18日 14:55
+    // 【2026-10-19 09:26】修改：按位置删除（序号可能重复）
+    // 【2026-10-19 14:22】修改：按存储主键删除
+    public void deleteLapRecord(long id) {
+        IO_EXECUTOR.execute(() -> {
+            try {
+                store.delete(id);
+            } catch (Exception e) {
+                LogUtils.log("【LapRepository.deleteLapRecord】删除失败：" + e.getMessage());
+                android.util.Log.e("LapRepository", "删除分段记录异常", e);
+            }
+        });
     }
 
     // 【2025-11-22 06:03】新增：保存分段记录到 SharedPreferences
     // 功能作用：将 List<LapRecord> 序列化为 JSON 并持久化
     // 新增时间：2025年11月22日 06:03
     public void saveLapRecords(@NonNull List<LapRecord> records) {
-        try {
-            String json = gson.toJson(records);
-            context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE)
-                    .edit()
-                    .putString(KEY_LAP_RECORDS, json)
-                    .apply();
-            LogUtils.log("【LapRepository】分段记录已保存，数量：" + records.size());
-        } catch (Exception e) {
-            LogUtils.log("【LapRepository.saveLapRecords】保存失败：" + e.getMessage());
-            android.util.Log.e("LapRepository", "保存分段记录异常", e);
-        }
+        // 【2026-10-18 09:34】修改：改为整体写入快照（重置时使用），不再写 SharedPreferences 大字符串
+        // 【2026-10-18 14:24】修改：不可变快照直接复用，仅对普通可变列表做一次复制
+        // 【2026-10-19 15:20】修改：界面不再持有记录列表，调用方传入的都是普通列表，统一复制一次后交给 IO 线程
+        List<LapRecord> copy = new ArrayList<>(records);
+        IO_EXECUTOR.execute(() -> {
+            try {
+                store.replaceAll(copy);
+                LogUtils.log("【LapRepository】分段记录已保存，数量：" + copy.size());
+            } catch (Exception e) {
+                LogUtils.log("【LapRepository.saveLapRecords】保存失败：" + e.getMessage());
+                android.util.Log.e("LapRepository", "保存分段记录异常", e);
+            }
+        });
     }
 
     // 【2025-11-22 18:40】新增：直接保存指定记录列表
     // 功能作用：用于数据导入功能，将导入的数据列表作为新的系统保存数据
     // 新增时间：2025年11月22日 18:40
     public void saveAllLapRecords(@NonNull List<LapRecord> records) {
-        try {
-            String json = gson.toJson(records);
-            context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE)
-                    .edit()
-                    .putString(KEY_LAP_RECORDS, json)
-                    .apply();
-            LogUtils.log(String.format(Locale.getDefault(), "【LapRepository】已保存所有分段记录，数量：%d", records.size()));
-        } catch (Exception e) {
-            LogUtils.log("【LapRepository.saveAllLapRecords】保存失败：" + e.getMessage());
-            android.util.Log.e("LapRepository", "保存所有分段记录异常", e);
+        // 【2026-10-18 09:35】修改：导入数据写入新快照并清空日志
+        // 【2026-10-18 14:24】修改：不可变快照直接复用，仅对普通可变列表做一次复制
+        // 【2026-10-19 15:20】修改：统一复制一次后交给 IO 线程
+        List<LapRecord> copy = new ArrayList<>(records);
+        IO_EXECUTOR.execute(() -> {
+            try {
+                store.replaceAll(copy);
+                LogUtils.log(String.format(Locale.getDefault(), "【LapRepository】已保存所有分段记录，数量：%d", copy.size()));
+            } catch (Exception e) {
+                LogUtils.log("【LapRepository.saveAllLapRecords】保存失败：" + e.getMessage());
+                android.util.Log.e("LapRepository", "保存所有分段记录异常", e);
+            }
+        });
+    }
+
+    // 【2026-10-19 11:48】新增：加载前缀和索引（只含各条的间隔与起点偏移），供界面计算间隔累计与区间总时长
+    // 功能作用：先完成旧数据迁移，并排在尚未完成的写入之后；不在内存中还原记录
+    // 新增时间：2026年10月19日 11:48
+    // 【2026-10-19 15:30】修改：启动时不再阻塞主线程等待迁移与读取：在 IO 线程执行、主线程回调；
+    //                      失败时回调空索引。原同步的 loadLapRecords（整表读入内存）已无调用方，一并删除
+    public void loadLapIntervalsAsync(@NonNull Consumer<LapIntervalIndex> callback) {
+        IO_EXECUTOR.execute(() -> {
+            LapIntervalIndex index;
+            try {
+                migrateLegacyPrefs();
+                migrateJournalToSqlite();
+                index = store.loadIntervals();
+                LogUtils.log("【LapRepository】分段索引已加载，数量：" + index.size());
+            } catch (Exception e) {
+                LogUtils.log("【LapRepository.loadLapIntervalsAsync】加载失败：" + e.getMessage());
+                android.util.Log.e("LapRepository", "加载分段索引异常", e);
+                index = new LapIntervalIndex();
+            }
+            LapIntervalIndex result = index;
+            MAIN_HANDLER.post(() -> callback.accept(result));
+        });
+    }
+
+    // 【2026-10-18 09:38】新增：旧版数据迁移
+    // 功能作用：若 SharedPreferences 中仍有整块 JSON 且尚无日志存储，则一次性写为快照并删除旧键
+    // 新增时间：2026年10月18日 09:38
+    private void migrateLegacyPrefs() throws java.io.IOException {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        String json = prefs.getString(KEY_LAP_RECORDS, null);
+        if (json == null) return;
+        if (!journalStore.exists()) {
+            Type type = new TypeToken<ArrayList<LapRecord>>(){}.getType();
+            List<LapRecord> legacy = gson.fromJson(json, type);
+            journalStore.replaceAll(legacy != null ? legacy : new ArrayList<>());
+            LogUtils.log("【LapRepository】已将旧版 SharedPreferences 记录迁移为快照，数量：" + (legacy != null ? legacy.size() : 0));
+        }
+        prefs.edit().remove(KEY_LAP_RECORDS).apply();
+    }
+
+    // 【2026-10-18 10:34】新增：日志存储迁移到 SQLite
+    // 功能作用：首次启用 SQLite 时，把快照 + 日志中的记录在一个事务内批量写入数据库，然后删除旧文件
+    // 新增时间：2026年10月18日 10:34
+    // 【2026-10-19 13:30】修改：数据库已有记录时不再直接删除日志：SQLite 打开失败期间（回退到日志存储）记录的分段
+    //                      只在日志中。把数据库中还没有的记录（记录时间晚于库中最新一条）在同一事务内追加，
+    //                      事务提交成功后才删除日志；写入失败时日志保留，下次启动重试
+    private void migrateJournalToSqlite() throws java.io.IOException {
+        if (store == journalStore || !journalStore.exists()) return;
+        List<LapRecord> legacy = journalStore.load();
+        if (!legacy.isEmpty()) {
+            int merged = ((SqliteLapStore) store).appendNewer(legacy);
+            LogUtils.log("【LapRepository】已将日志存储合并到 SQLite，新增：" + merged + " / " + legacy.size());
         }
+        journalStore.delete();
     }
 
-    // 【2025-11-22 06:04】新增：从 SharedPreferences 加载分段记录
-    // 功能作用：反序列化 JSON 为 List<LapRecord>
-    // 新增时间：2025年11月22日 06:04
-    public List<LapRecord> loadLapRecords() {
+    // 【2026-10-18 22:10】新增：从数据源流式导入，整体替换现有记录
+    // 功能作用：在调用线程上逐条读取，每 IMPORT_BATCH_SIZE 条交给 IO 线程写入存储的导入会话；
+    //          提交下一批前先等待上一批写完，内存中最多只有两批待写记录。
+    //          全部读完且有有效记录时才一次切换为新数据；读取失败、没有有效记录时放弃会话，原数据保持不变。
+    // 新增时间：2026年10月18日 22:10
+    // 【2026-10-18 23:28】修改：由 importAsync 在导入线程调用，不再在主线程执行
+    // 【2026-10-19 12:10】修改：读取过程中不再构建 LapTimeline（内存随行数增长），只统计条数与最大累计值；
+    //                      提交后在同一个 IO 任务中从存储重新加载前缀和索引（只含间隔），界面列表按页从存储读取
+    public LapImportResult importRecords(@NonNull LapRowSource source) throws Exception {
+        LapStore.ImportSession session = IO_EXECUTOR.submit(store::beginImport).get();
+        int importedCount = 0;
+        long maxLapTimeMillis = 0L;
+        LapIntervalIndex intervals = new LapIntervalIndex();
+        boolean committed = false;
         try {
-            String json = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE)
-                    .getString(KEY_LAP_RECORDS, null);
-            if (json == null) return new ArrayList<>();
-            Type type = new TypeToken<ArrayList<LapRecord>>(){}.getType();
-            List<LapRecord> records = gson.fromJson(json, type);
-            LogUtils.log("【LapRepository】分段记录已加载，数量：" + (records != null ? records.size() : 0));
-            return records != null ? records : new ArrayList<>();
-        } catch (Exception e) {
-            LogUtils.log("【LapRepository.loadLapRecords】加载失败：" + e.getMessage());
-            android.util.Log.e("LapRepository", "加载分段记录异常", e);
-            return new ArrayList<>();
+            Future<?> writing = null;
+            List<LapRecord> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            LapRecord record;
+            while ((record = source.next()) != null) {
+                batch.add(record);
+                importedCount++;
+                maxLapTimeMillis = Math.max(maxLapTimeMillis, record.getLapTimeMillis());
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    writing = writeImportBatch(session, batch, writing);
+                    batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writing = writeImportBatch(session, batch, writing);
+            }
+            if (writing != null) {
+                writing.get();
+            }
+            if (importedCount > 0 && maxLapTimeMillis > 0) {
+                // 提交与重新加载之间不插入其它写入，索引与存储中的数据一致
+                intervals = IO_EXECUTOR.submit(() -> {
+                    session.commit();
+                    return store.loadIntervals();
+                }).get();
+                committed = true;
+            }
+        } finally {
+            if (!committed) {
+                IO_EXECUTOR.execute(session::abort);
+            }
+        }
+        LogUtils.log(String.format(Locale.getDefault(), "【LapRepository.import】导入%s，有效 %d 条，跳过 %d 行，最大累计时间 %s",
+                committed ? "成功" : "无有效数据", importedCount, source.getSkippedRows(), LapRecord.formatTime(maxLapTimeMillis)));
+        return new LapImportResult(intervals, importedCount, maxLapTimeMillis, source.getSkippedRows(), committed);
+    }
+
+    // 【2026-10-18 23:28】新增：在后台导入文件
+    // 功能作用：在导入专用线程中打开、解析并分批写入（importRecords），主线程不再读取文件；
+    //          进度（已读字节 / 已解析条数）经 getImportProgress() 发布，返回的 ImportMonitor 可随时取消，取消时原数据保持不变。
+    //          提交成功后在主线程回调 onCommitted，由界面一次性切换为导入的数据，之后才发布最终结果。
+    //          同一时间只运行一个导入任务，新任务会取消旧任务。
+    // 新增时间：2026年10月18日 23:28
+    public ImportMonitor importAsync(@NonNull Uri uri, @NonNull Consumer<LapImportResult> onCommitted) {
+        ImportMonitor monitor = new ImportMonitor(LapRepository::postImportProgress);
+        ImportMonitor previous = activeImport;
+        if (previous != null) {
+            previous.cancel();
+        }
+        activeImport = monitor;
+        monitor.publish(ImportProgress.State.RUNNING, null);
+        IMPORT_EXECUTOR.execute(() -> runImport(uri, monitor, onCommitted));
+        return monitor;
+    }
+
+    // 【2026-10-18 23:29】新增：取消正在进行的导入
+    // 新增时间：2026年10月18日 23:29
+    public static void cancelImport() {
+        ImportMonitor monitor = activeImport;
+        if (monitor != null) {
+            monitor.cancel();
+        }
+    }
+
+    // 【2026-10-18 23:29】新增：导入进度（进程内共享，供界面观察）
+    // 新增时间：2026年10月18日 23:29
+    public static LiveData<ImportProgress> getImportProgress() {
+        return IMPORT_PROGRESS;
+    }
+
+    // 被新任务取代的旧任务不再发布进度，避免覆盖新任务的状态
+    private static void postImportProgress(ImportProgress progress) {
+        ImportMonitor active = activeImport;
+        if (active == null || active.getJobId() <= progress.jobId) {
+            IMPORT_PROGRESS.postValue(progress);
+        }
+    }
+
+    // 【2026-10-18 23:30】私有方法：在导入线程中读取文件并写入存储
+    // 新增时间：2026年10月18日 23:30
+    private void runImport(Uri uri, ImportMonitor monitor, Consumer<LapImportResult> onCommitted) {
+        ImportProgress.State state;
+        ImportProgress.Failure failure = null;
+        LapImportResult result = null;
+        if (monitor.isCancelled()) {
+            state = ImportProgress.State.CANCELLED;
+        } else {
+            monitor.setTotalBytes(documentSize(uri));
+            try (LapRowSource source = monitor.track(ExcelImportUtil.openLapRowSource(context, uri, monitor))) {
+                result = importRecords(source);
+                if (result.committed) {
+                    state = ImportProgress.State.SUCCEEDED;
+                } else {
+                    state = ImportProgress.State.FAILED;
+                    failure = ImportProgress.Failure.NO_RECORDS;
+                }
+            } catch (LapImportException e) {
+                state = ImportProgress.State.FAILED;
+                failure = e.getReason() == LapImportException.Reason.EMPTY
+                        ? ImportProgress.Failure.EMPTY : ImportProgress.Failure.HEADER;
+            } catch (SecurityException e) {
+                state = ImportProgress.State.FAILED;
+                failure = ImportProgress.Failure.PERMISSION;
+                LogUtils.log("【LapRepository.import】文件权限不足：" + e.getMessage());
+                android.util.Log.e("LapRepository", "Permission denied for URI: " + uri, e);
+            } catch (Exception e) {
+                // 取消时读取中断（InterruptedIOException）或关闭流出错，以取消标记为准
+                if (monitor.isCancelled()) {
+                    state = ImportProgress.State.CANCELLED;
+                } else {
+                    state = ImportProgress.State.FAILED;
+                    failure = ImportProgress.Failure.IO;
+                    LogUtils.log("【LapRepository.import】异常：" + e.getMessage());
+                    android.util.Log.e("LapRepository", "导入异常", e);
+                }
+            }
         }
+        if (activeImport == monitor) {
+            activeImport = null;
+        }
+        LapImportResult committed = state == ImportProgress.State.SUCCEEDED ? result : null;
+        ImportProgress.State finalState = state;
+        ImportProgress.Failure finalFailure = failure;
+        // 先在主线程切换数据，再发布结果：界面提示成功时列表已是导入后的内容，不会出现导入一半的列表
+        MAIN_HANDLER.post(() -> {
+            if (committed != null) {
+                onCommitted.accept(committed);
+            }
+            monitor.publish(finalState, finalFailure);
+        });
+        LogUtils.log(String.format(Locale.getDefault(), "【LapRepository.import】%s（%d 条，%d 条/秒）",
+                state == ImportProgress.State.SUCCEEDED ? "成功" : state == ImportProgress.State.CANCELLED ? "已取消" : "失败：" + failure,
+                monitor.getRowsParsed(), monitor.getRowsPerSecond()));
+    }
+
+    private static Future<?> writeImportBatch(LapStore.ImportSession session, List<LapRecord> batch,
+                                              Future<?> previous) throws Exception {
+        if (previous != null) {
+            previous.get();
+        }
+        return IO_EXECUTOR.submit(() -> {
+            session.add(batch);
+            return null;
+        });
+    }
+
+    // 【2026-10-18 10:36】新增：记录总数（不加载记录本身）
+    // 功能作用：供分页列表、导出等按需读取使用；与写入在同一 IO 线程上排队，保证读到最新数据
+    // 新增时间：2026年10月18日 10:36
+    public int getLapCount() throws Exception {
+        return IO_EXECUTOR.submit(() -> store.count()).get();
+    }
+
+    // 【2026-10-18 10:37】新增：按位置读取一页记录
+    // 新增时间：2026年10月18日 10:37
+    // 【2026-10-19 14:22】修改：按主键续读，返回主键大于 afterId 的前 limit 条
+    public List<LapRecord> loadLapRange(long afterId, int limit) throws Exception {
+        return IO_EXECUTOR.submit(() -> store.loadRange(afterId, limit)).get();
+    }
+
+    // 【2026-10-18 11:05】新增：异步读取一页记录
+    // 功能作用：供分页列表使用，在 IO 线程查询、主线程回调；失败时回调空列表
+    // 新增时间：2026年10月18日 11:05
+    // 【2026-10-19 14:22】修改：按主键续读（见 LapStore.loadRange）
+    public void loadLapRangeAsync(long afterId, int limit, @NonNull Consumer<List<LapRecord>> callback) {
+        IO_EXECUTOR.execute(() -> {
+            List<LapRecord> page;
+            try {
+                page = store.loadRange(afterId, limit);
+            } catch (Exception e) {
+                LogUtils.log("【LapRepository.loadLapRangeAsync】分页读取失败：" + e.getMessage());
+                android.util.Log.e("LapRepository", "分页读取异常", e);
+                page = new ArrayList<>();
+            }
+            List<LapRecord> result = page;
+            MAIN_HANDLER.post(() -> callback.accept(result));
+        });
+    }
+
+    // 【2026-10-19 15:10】新增：异步读取存储中出现过的分段种类（导出时选择种类）
+    // 功能作用：在 IO 线程查询（排在已提交的写入之后）、主线程回调；失败时回调空列表
+    // 新增时间：2026年10月19日 15:10
+    public void loadCategoriesAsync(@NonNull Consumer<List<String>> callback) {
+        IO_EXECUTOR.execute(() -> {
+            List<String> categories;
+            try {
+                categories = store.distinctCategories();
+            } catch (Exception e) {
+                LogUtils.log("【LapRepository.loadCategoriesAsync】种类读取失败：" + e.getMessage());
+                android.util.Log.e("LapRepository", "种类读取异常", e);
+                categories = new ArrayList<>();
+            }
+            List<String> result = categories;
+            MAIN_HANDLER.post(() -> callback.accept(result));
+        });
+    }
+
+    // 【2026-10-18 10:38】新增：按记录完成时间戳范围 [fromMillis, toMillis) 查询
+    // 新增时间：2026年10月18日 10:38
+    public List<LapRecord> queryByRecordTime(long fromMillis, long toMillis) throws Exception {
+        return IO_EXECUTOR.submit(() -> store.queryByRecordTime(fromMillis, toMillis)).get();
+    }
+
+    // 【2026-10-18 10:39】新增：按日期范围（yyyy-MM-dd，闭区间）查询
+    // 新增时间：2026年10月18日 10:39
+    public List<LapRecord> queryByDate(@NonNull String fromDate, @NonNull String toDate) throws Exception {
+        return IO_EXECUTOR.submit(() -> store.queryByDate(fromDate, toDate)).get();
+    }
+
+    // 【2026-10-18 10:40】新增：按分段种类查询
+    // 新增时间：2026年10月18日 10:40
+    public List<LapRecord> queryByCategory(@NonNull String category) throws Exception {
+        return IO_EXECUTOR.submit(() -> store.queryByCategory(category)).get();
     }
 
     // 【2025-11-22 06:05】新增：导出分段记录到 Excel
     // 功能作用：调用工具类执行导出，并记录结果
     // 新增时间：2025年11月22日 06:05
-    public boolean exportToExcel(@NonNull Uri uri, @NonNull List<LapRecord> records) {
+    // 【2026-10-18 19:30】修改：改为按 LapExporter 导出任意已注册格式（取代写死的 ExcelExportUtil 调用）
+    // 【2026-10-18 20:10】修改：改为在独立的导出线程后台执行（不占用存储 IO 线程，导出期间仍可正常记录分段），
+    //                      基于调用时的不可变快照写出；进度与最终吞吐量经 getExportProgress() 发布，
+    //                      返回的 ExportMonitor 可随时取消。同一时间只运行一个导出任务，新任务会取消旧任务。
+    // 【2026-10-18 21:00】修改：增加日期范围 / 种类筛选；筛选在导出线程中对快照进行（二分定位 + 视图，不复制）
+    // 【2026-10-18 21:30】修改：增加增量导出与追加写入。append 为 true 时把记录追加到已有文档末尾（仅 CSV / TSV），
+    //                      “自上次导出以来”的起点按目标（追加的文档 / 新建文件的格式）从 ExportWatermarks 读取
+    // 【2026-10-19 11:50】修改：界面不再持有全部记录，快照改为调用时在 IO 线程排队读取存储：
+    //                      排在此前提交的所有写入之后、此后的写入之前，内容与调用时界面看到的一致；
+    //                      间隔累计按存储中的间隔重新计算（LapTimeline），不依赖各行写入时的旧值
+    // 【2026-10-19 14:48】修改：不再把全部历史加载进内存再筛选：筛选条件转换为 LapQuery，由存储走索引查询，
+    //                      游标逐行交给导出器。导出范围为调用时界面索引 intervals 的快照（主键不超过其最后一条），
+    //                      各行的间隔累计由快照按主键给出（O(log n)）；读取排在此前提交的所有写入之后
+    public ExportMonitor exportAsync(@NonNull Uri uri, @NonNull LapExporter exporter,
+                                     @NonNull LapExportFilter filter, boolean append,
+                                     @NonNull LapIntervalIndex intervals) {
+        // 【2026-10-19 10:22】修改：追加能力由 AppendableLapExporter 表示
+        if (append && !(exporter instanceof AppendableLapExporter)) {
+            throw new IllegalArgumentException("该格式不支持追加写入: " + exporter.getFormatId());
+        }
+        Future<?> flushed = IO_EXECUTOR.submit(() -> { });
+        ExportMonitor monitor = new ExportMonitor(exporter.getFormatId(), 0, LapRepository::postExportProgress);
+        ExportMonitor previous = activeExport;
+        if (previous != null) {
+            previous.cancel();
+        }
+        activeExport = monitor;
+        monitor.publish(ExportProgress.State.RUNNING);
+        EXPORT_EXECUTOR.execute(() -> runExport(uri, flushed, intervals, exporter, filter, append, monitor));
+        return monitor;
+    }
+
+    // 【2026-10-18 20:12】新增：取消正在进行的导出
+    // 新增时间：2026年10月18日 20:12
+    public static void cancelExport() {
+        ExportMonitor monitor = activeExport;
+        if (monitor != null) {
+            monitor.cancel();
+        }
+    }
+
+    // 【2026-10-18 20:13】新增：导出进度（进程内共享，供界面与 DaemonService 通知观察）
+    // 新增时间：2026年10月18日 20:13
+    public static LiveData<ExportProgress> getExportProgress() {
+        return EXPORT_PROGRESS;
+    }
+
+    // 被新任务取代的旧任务不再发布进度，避免覆盖新任务的状态
+    private static void postExportProgress(ExportProgress progress) {
+        ExportMonitor active = activeExport;
+        if (active == null || active.getJobId() <= progress.jobId) {
+            EXPORT_PROGRESS.postValue(progress);
+        }
+    }
+
+    // 【2026-10-18 20:14】私有方法：在导出线程中写出文件
+    // 功能作用：取消或失败时删除已创建的文档（无法删除则截断为空），不留下只写了一半的损坏文件
+    // 新增时间：2026年10月18日 20:14
+    // 【2026-10-18 21:32】修改：解析增量起点；成功写到最新一条时更新导出标记。追加模式见 appendToDocument
+    // 【2026-10-19 14:48】修改：按 LapQuery 从存储游标逐行导出，总行数由同条件的 COUNT 给出
+    private void runExport(Uri uri, Future<?> flushed, LapIntervalIndex intervals, LapExporter exporter,
+                           LapExportFilter filter, boolean append, ExportMonitor monitor) {
+        ExportProgress.State result;
+        String uriMark = ExportWatermarks.forUri(uri.toString());
+        String formatMark = ExportWatermarks.forFormat(exporter.getFormatId());
+        // 【2026-10-19 09:12】修改：筛选也可能抛出运行时异常，失败时同样发布结果，不让进度停在 RUNNING
+        LapQuery query;
+        int totalRows = 0;
+        try {
+            flushed.get();
+            query = queryOf(watermarks.resolve(filter, append ? uriMark : formatMark), intervals.lastId());
+            totalRows = store.count(query);
+        } catch (Exception e) {
+            // 【2026-10-19 11:50】修改：读取快照失败同样按失败处理
+            LogUtils.log("【LapRepository.export】读取或筛选记录异常：" + e.getMessage());
+            android.util.Log.e("LapRepository", "导出筛选异常（" + exporter.getFormatId() + "）", e);
+            query = null;
+        }
+        monitor.setTotalRows(totalRows);
+        ExportRows rows = null;
+        if (query == null) {
+            result = ExportProgress.State.FAILED;
+            if (!append) {
+                discardDocument(uri);
+            }
+        } else if (monitor.isCancelled()) {
+            result = ExportProgress.State.CANCELLED;
+        } else if (append) {
+            if (totalRows == 0) {
+                result = ExportProgress.State.SUCCEEDED;
+            } else {
+                try (LapCursor cursor = store.scan(query)) {
+                    rows = new ExportRows(cursor, intervals);
+                    result = appendToDocument(uri, rows, (AppendableLapExporter) exporter, monitor);
+                } catch (Exception e) {
+                    LogUtils.log("【LapRepository.export】读取记录异常：" + e.getMessage());
+                    android.util.Log.e("LapRepository", "导出读取异常（" + exporter.getFormatId() + "）", e);
+                    result = ExportProgress.State.FAILED;
+                }
+            }
+        } else {
+            // "wt"：部分文档提供方的 "w" 不截断旧内容
+            try (OutputStream out = context.getContentResolver().openOutputStream(uri, "wt");
+                 LapCursor cursor = store.scan(query)) {
+                if (out == null) {
+                    throw new IOException("无法打开输出流: " + uri);
+                }
+                rows = new ExportRows(cursor, intervals);
+                OutputStream tracked = monitor.track(out);
+                exporter.write(monitor.track(rows), tracked);
+                tracked.flush();
+                result = ExportProgress.State.SUCCEEDED;
+            } catch (CancellationException | InterruptedIOException e) {
+                result = ExportProgress.State.CANCELLED;
+            } catch (Exception e) {
+                // 取消时关闭流也可能抛出异常，以取消标记为准
+                result = monitor.isCancelled() ? ExportProgress.State.CANCELLED : ExportProgress.State.FAILED;
+                if (result == ExportProgress.State.FAILED) {
+                    LogUtils.log("【LapRepository.export】异常：" + e.getMessage());
+                    android.util.Log.e("LapRepository", "导出异常（" + exporter.getFormatId() + "）", e);
+                }
+            }
+            if (result != ExportProgress.State.SUCCEEDED) {
+                discardDocument(uri);
+            }
+        }
+        // 只有写到了最新一条（未限定截止时间与种类）才推进标记，否则下次增量会漏掉中间的记录
+        LapRecord last = rows != null ? rows.last : null;
+        if (result == ExportProgress.State.SUCCEEDED && filter.reachesLatest() && last != null) {
+            watermarks.record(uriMark, last.getId());
+            if (!append) {
+                watermarks.record(formatMark, last.getId());
+            }
+        }
+        if (activeExport == monitor) {
+            activeExport = null;
+        }
+        monitor.publish(result);
+        LogUtils.log(String.format(Locale.getDefault(), "【LapRepository.export】%s%s（%s，%d/%d 条，%d 条/秒）",
+                append ? "追加" : "导出",
+                result == ExportProgress.State.SUCCEEDED ? "成功" : result == ExportProgress.State.CANCELLED ? "已取消" : "失败",
+                exporter.getFormatId(), monitor.getRowsWritten(), totalRows, monitor.getRowsPerSecond()));
+    }
+
+    // 【2026-10-19 14:48】新增：导出筛选条件转换为存储查询；主键不超过 upToId（导出开始时界面上的最后一条）
+    // 【2026-10-19 15:00】修改：水位标记为主键，直接作为查询的主键下限（_id > ?），只读取新增的行
+    private static LapQuery queryOf(LapExportFilter filter, long upToId) {
+        return new LapQuery(filter.fromMillis, filter.toMillis, filter.category, filter.afterId, upToId);
+    }
+
+    // 【2026-10-19 14:48】新增：游标中的记录按界面索引快照修正间隔累计后交给导出器（只能遍历一次），并记下最后一条
+    private static final class ExportRows implements Iterable<LapRecord> {
+        private final LapCursor cursor;
+        private final LapIntervalIndex intervals;
+        private LapRecord last;
+
+        ExportRows(LapCursor cursor, LapIntervalIndex intervals) {
+            this.cursor = cursor;
+            this.intervals = intervals;
+        }
+
+        @NonNull
+        @Override
+        public Iterator<LapRecord> iterator() {
+            return new Iterator<LapRecord>() {
+                private LapRecord next = advance();
+
+                private LapRecord advance() {
+                    LapRecord record = cursor.next();
+                    if (record == null) return null;
+                    long lapTime = intervals.cumulativeMillisOf(record.getId(), record.getLapTimeMillis());
+                    return lapTime == record.getLapTimeMillis() ? record : record.withLapTimeMillis(lapTime);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public LapRecord next() {
+                    if (next == null) throw new NoSuchElementException();
+                    last = next;
+                    next = advance();
+                    return last;
+                }
+            };
+        }
+    }
+
+    // 【2026-10-18 21:34】私有方法：把增量记录追加到用户已有的文档
+    // 功能作用：已有内容不能删除或截断，因此先把新增行完整写入缓存目录的临时文件，
+    //          成功后再一次性以 "wa" 追加到文档末尾；取消或失败只丢弃临时文件，文档保持原样，不会留下半行。
+    //          文档为空（或无法查询大小且从未追加过）时连同表头一起写出。
+    // 新增时间：2026年10月18日 21:34
+    // 【2026-10-19 14:48】修改：记录由存储游标逐行读出，没有记录时由调用方直接判定成功
+    private ExportProgress.State appendToDocument(Uri uri, Iterable<LapRecord> rows, AppendableLapExporter exporter,
+                                                  ExportMonitor monitor) {
+        File staging = null;
+        try {
+            boolean writeHeader = isEmptyDocument(uri);
+            staging = File.createTempFile("export-append", "." + exporter.getFileExtension(), context.getCacheDir());
+            try (OutputStream out = new FileOutputStream(staging)) {
+                OutputStream tracked = monitor.track(out);
+                exporter.append(monitor.track(rows), tracked, writeHeader);
+                tracked.flush();
+            }
+            if (monitor.isCancelled()) {
+                return ExportProgress.State.CANCELLED;
+            }
+            try (OutputStream out = context.getContentResolver().openOutputStream(uri, "wa");
+                 InputStream in = new FileInputStream(staging)) {
+                if (out == null) {
+                    throw new IOException("无法打开输出流: " + uri);
+                }
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            return ExportProgress.State.SUCCEEDED;
+        } catch (CancellationException | InterruptedIOException e) {
+            return ExportProgress.State.CANCELLED;
+        } catch (Exception e) {
+            if (monitor.isCancelled()) {
+                return ExportProgress.State.CANCELLED;
+            }
+            LogUtils.log("【LapRepository.export】追加写入异常：" + e.getMessage());
+            android.util.Log.e("LapRepository", "追加导出异常（" + exporter.getFormatId() + "）", e);
+            return ExportProgress.State.FAILED;
+        } finally {
+            if (staging != null && !staging.delete()) {
+                staging.deleteOnExit();
+            }
+        }
+    }
+
+    // 文档当前是否为空；提供方不报告大小时，以该文档是否追加过为准
+    private boolean isEmptyDocument(Uri uri) {
+        long size = documentSize(uri);
+        if (size >= 0) {
+            return size == 0L;
+        }
+        return !watermarks.has(ExportWatermarks.forUri(uri.toString()));
+    }
+
+    // 【2026-10-18 23:31】新增：文档大小（字节），无法查询时返回 -1；由 isEmptyDocument 拆出，导入进度也据此计算百分比
+    private long documentSize(Uri uri) {
+        try (Cursor cursor = context.getContentResolver().query(uri, new String[]{OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                int column = cursor.getColumnIndex(OpenableColumns.SIZE);
+                if (column >= 0 && !cursor.isNull(column)) {
+                    return cursor.getLong(column);
+                }
+            }
+        } catch (Exception e) {
+            android.util.Log.w("LapRepository", "查询文档大小失败", e);
+        }
+        return -1L;
+    }
+
+    private void discardDocument(Uri uri) {
         try {
-            boolean success = ExcelExportUtil.exportLapRecordsToExcel(context, uri, records);
-            LogUtils.log("【LapRepository.exportToExcel】导出" + (success ? "成功" : "失败"));
-            return success;
+            if (DocumentsContract.deleteDocument(context.getContentResolver(), uri)) {
+                return;
+            }
+        } catch (Exception e) {
+            android.util.Log.w("LapRepository", "删除未完成的导出文件失败，改为截断", e);
+        }
+        try (OutputStream ignored = context.getContentResolver().openOutputStream(uri, "wt")) {
+            LogUtils.log("【LapRepository.export】未完成的导出文件已截断为空：" + uri);
         } catch (Exception e) {
-            LogUtils.log("【LapRepository.exportToExcel】异常：" + e.getMessage());
-            android.util.Log.e("LapRepository", "导出Excel异常", e);
-            return false;
+            LogUtils.log("【LapRepository.export】无法清理未完成的导出文件：" + e.getMessage());
+            android.util.Log.e("LapRepository", "清理导出文件异常", e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+// 【2026-10-18 10:05】新增：LapStore - 分段记录底层存储接口
+// 功能作用：抽象出“加载 / 追加 / 整体替换 / 按需查询”操作，LapRepository 可在 SQLite 与追加日志两种实现间切换。
+//          查询方法提供基于全量加载的默认实现，SQLite 实现会用索引查询覆盖它们。
+// 新增时间：2026年10月18日 10:05
+package com.example.timemanager.data.repository;
+
+import androidx.annotation.NonNull;
+import com.example.timemanager.data.collection.LapIntervalIndex;
+import com.example.timemanager.data.model.LapRecord;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+public interface LapStore {
+
+    // 加载全部记录（按记录顺序）
+    List<LapRecord> load() throws IOException;
+
+    // 追加单条记录
+    void append(@NonNull LapRecord record) throws IOException;
+
+    // 用给定列表整体替换存储内容（重置、导入）
+    void replaceAll(@NonNull List<LapRecord> records) throws IOException;
+
+    // 【2026-10-18 22:02】新增：开始一次导入（分批写入，提交时整体替换）
+    // 功能作用：默认实现先在内存中收集，提交时 replaceAll；SQLite 与日志存储会覆盖为写入暂存区、提交时一次切换，
+    //          导入期间原数据保持不变，中途失败或放弃不影响现有记录。会话的所有方法须在同一 IO 线程上调用。
+    // 新增时间：2026年10月18日 22:02
+    default ImportSession beginImport() throws IOException {
+        List<LapRecord> collected = new ArrayList<>();
+        return new ImportSession() {
+            @Override
+            public void add(@NonNull List<LapRecord> batch) {
+                collected.addAll(batch);
+            }
+
+            @Override
+            public void commit() throws IOException {
+                replaceAll(collected);
+            }
+
+            @Override
+            public void abort() {
+                collected.clear();
+            }
+        };
+    }
+
+    // 导入会话：add 可调用多次，最后 commit 或 abort 一次
+    interface ImportSession {
+        void add(@NonNull List<LapRecord> batch) throws IOException;
+
+        void commit() throws IOException;
+
+        void abort();
+    }
+
+    // 记录总数
+    default int count() throws IOException {
+        return load().size();
+    }
+
+    // 【2026-10-19 11:45】新增：按顺序读取全部记录的间隔，构建前缀和索引（界面不持有记录本身）
+    // 功能作用：起点偏移取第一条记录的间隔累计减去其间隔；SQLite 实现只读取这两列
+    // 新增时间：2026年10月19日 11:45
+    default LapIntervalIndex loadIntervals() throws IOException {
+        LapIntervalIndex index = new LapIntervalIndex();
+        for (LapRecord record : load()) {
+            index.append(record);
+        }
+        return index;
+    }
+
+    // 【2026-10-18 10:07】新增：按位置读取一段记录（分页）
+    // 功能作用：offset 从 0 开始，最多返回 limit 条
+    // 新增时间：2026年10月18日 10:07
+    // 【2026-10-19 14:16】修改：改为按主键续读（keyset）：返回主键大于 afterId 的前 limit 条，
+    //                      SQLite 实现沿主键索引直接定位，不再 OFFSET 跳过前面各行
+    default List<LapRecord> loadRange(long afterId, int limit) throws IOException {
+        List<LapRecord> result = new ArrayList<>();
+        for (LapRecord record : load()) {
+            if (result.size() >= limit) break;
+            if (record.getId() > afterId) result.add(record);
+        }
+        return result;
+    }
+
+    // 【2026-10-18 10:08】新增：按记录完成时间戳查询 [fromMillis, toMillis)
+    // 新增时间：2026年10月18日 10:08
+    default List<LapRecord> queryByRecordTime(long fromMillis, long toMillis) throws IOException {
+        List<LapRecord> result = new ArrayList<>();
+        for (LapRecord record : load()) {
+            long t = record.getRecordSystemTimeMillis();
+            if (t >= fromMillis && t < toMillis) result.add(record);
+        }
+        return result;
+    }
+
+    // 【2026-10-18 10:09】新增：按日期（yyyy-MM-dd，闭区间）查询
+    // 新增时间：2026年10月18日 10:09
+    default List<LapRecord> queryByDate(@NonNull String fromDate, @NonNull String toDate) throws IOException {
+        List<LapRecord> result = new ArrayList<>();
+        for (LapRecord record : load()) {
+            String date = record.getDate();
+            if (date != null && date.compareTo(fromDate) >= 0 && date.compareTo(toDate) <= 0) result.add(record);
+        }
+        return result;
+    }
+
+    // 【2026-10-18 10:10】新增：按分段种类查询
+    // 新增时间：2026年10月18日 10:10
+    default List<LapRecord> queryByCategory(@NonNull String category) throws IOException {
+        List<LapRecord> result = new ArrayList<>();
+        for (LapRecord record : load()) {
+            if (category.equals(record.getCategory())) result.add(record);
+        }
+        return result;
+    }
+
+    // 【2026-10-19 14:34】新增：符合条件的记录数（导出进度的总行数）
+    // 功能作用：默认实现过滤全量加载的结果；SQLite 实现为一次走索引的 COUNT
+    // 新增时间：2026年10月19日 14:34
+    default int count(@NonNull LapQuery query) throws IOException {
+        int count = 0;
+        for (LapRecord record : load()) {
+            if (query.matches(record)) count++;
+        }
+        return count;
+    }
+
+    // 【2026-10-19 15:10】新增：存储中出现过的全部分段种类（按名称排序，不含空种类），供导出时选择
+    // 功能作用：默认实现遍历全量加载的结果；SQLite 实现为一次走 idx_laps_category 的 SELECT DISTINCT
+    // 新增时间：2026年10月19日 15:10
+    default List<String> distinctCategories() throws IOException {
+        TreeSet<String> categories = new TreeSet<>();
+        for (LapRecord record : load()) {
+            if (record.getCategory() != null) categories.add(record.getCategory());
+        }
+        return new ArrayList<>(categories);
+    }
+
+    // 【2026-10-19 14:34】新增：按主键顺序逐条读取符合条件的记录（导出）
+    // 功能作用：SQLite 实现把条件翻译为走索引的查询，游标逐行还原，内存中不收集结果；
+    //          默认实现（日志存储）过滤一次全量加载的结果
+    // 新增时间：2026年10月19日 14:34
+    default LapCursor scan(@NonNull LapQuery query) throws IOException {
+        Iterator<LapRecord> it = load().iterator();
+        return new LapCursor() {
+            @Override
+            public LapRecord next() {
+                while (it.hasNext()) {
+                    LapRecord record = it.next();
+                    if (query.matches(record)) return record;
+                }
+                return null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    // 【2026-10-18 14:50】新增：更新单条记录（修改间隔等）
+    // 功能作用：默认实现整体重写；SQLite 实现为一次 UPDATE
+    // 新增时间：2026年10月18日 14:50
+    // 【2026-10-19 09:26】修改：按位置（从 0 开始）而不是序号定位，导入数据中的序号可能重复
+    // 【2026-10-19 14:16】修改：按存储主键定位（SQLite 实现为按主键的 UPDATE，不再按位置扫描）
+    default void update(long id, @NonNull LapRecord record) throws IOException {
+        List<LapRecord> all = load();
+        int position = positionOf(all, id);
+        if (position >= 0) {
+            all.set(position, record.withId(id));
+            replaceAll(all);
+        }
+    }
+
+    // 【2026-10-19 11:45】新增：只修改一条记录的间隔与间隔累计（界面不再持有完整记录）
+    // 功能作用：默认实现整体重写；SQLite 实现为一次 UPDATE
+    // 新增时间：2026年10月19日 11:45
+    // 【2026-10-19 14:16】修改：按存储主键定位
+    default void updateInterval(long id, long intervalMillis, long lapTimeMillis) throws IOException {
+        List<LapRecord> all = load();
+        int position = positionOf(all, id);
+        if (position >= 0) {
+            all.set(position, all.get(position).withIntervalMillis(intervalMillis).withLapTimeMillis(lapTimeMillis));
+            replaceAll(all);
+        }
+    }
+
+    // 【2026-10-18 14:51】新增：删除单条记录
+    // 功能作用：默认实现整体重写；SQLite 实现为一次按主键的 DELETE
+    // 新增时间：2026年10月18日 14:51
+    // 【2026-10-19 09:26】修改：按位置（从 0 开始）而不是序号定位
+    // 【2026-10-19 14:16】修改：按存储主键定位
+    default void delete(long id) throws IOException {
+        List<LapRecord> all = load();
+        int position = positionOf(all, id);
+        if (position >= 0) {
+            all.remove(position);
+            replaceAll(all);
+        }
+    }
+
+    // 主键为 id 的记录在列表中的位置，不存在返回 -1
+    private static int positionOf(@NonNull List<LapRecord> records, long id) {
+        for (int i = 0; i < records.size(); i++) {
+            if (records.get(i).getId() == id) return i;
+        }
+        return -1;
+    }
+}
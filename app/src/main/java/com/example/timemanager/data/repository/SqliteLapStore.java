@@ -0,0 +1,396 @@
+// 【2026-10-18 10:20】新增：SqliteLapStore - 基于 SQLite 的分段记录存储
+// 功能作用：单条追加为一次 INSERT；批量写入在一个事务中完成；
+//          分页、日期范围、时间戳范围、种类查询都走索引，只取需要的行，不再整体解析全部历史。
+// 修改时间：2026年10月19日 09:24 - 按自增主键 _id 排序与定位，序号重复的记录各自保留；插入不再 OR REPLACE
+// 修改时间：2026年10月19日 11:46 - 增加只读间隔两列的索引加载与只改间隔的 UPDATE
+// 修改时间：2026年10月19日 14:18 - 修改 / 删除按主键定位，分页按主键续读（keyset），去掉按位置 OFFSET 的子查询；
+//                              新增分段带着界面分配的主键写入，主键在删除、重置与导入之后都不回退
+// 修改时间：2026年10月19日 14:36 - 导出按 LapQuery 生成一条走索引的查询，游标逐行交给导出器，不再加载全部记录
+// 新增时间：2026年10月18日 10:20
+package com.example.timemanager.data.repository;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import androidx.annotation.NonNull;
+import com.example.timemanager.data.collection.LapIntervalIndex;
+import com.example.timemanager.data.model.LapRecord;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.timemanager.data.repository.LapDatabaseHelper.*;
+
+public class SqliteLapStore implements LapStore {
+    private static final String COLUMNS = COL_INDEX + ", " + COL_DATE_KEY + ", " + COL_INTERVAL_MILLIS + ", "
+            + COL_LAP_TIME_MILLIS + ", " + COL_START_TIME_MILLIS + ", " + COL_RECORD_TIME_MILLIS + ", "
+            + COL_RECORD_SYSTEM_TIME + ", " + COL_CATEGORY + ", " + COL_DETAIL + ", "
+            + COL_DATE_TEXT + ", " + COL_START_TIME_TEXT + ", " + COL_RECORD_TIME_TEXT;
+    private static final String SELECT = "SELECT " + COL_ID + ", " + COLUMNS + " FROM " + TABLE_LAPS;
+    // 主键为 NULL 时由 SQLite 分配
+    private static final String INSERT = "INSERT INTO " + TABLE_LAPS
+            + " (" + COL_ID + ", " + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_IMPORT = "INSERT INTO " + TABLE_LAPS_IMPORT
+            + " (" + COL_ID + ", " + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE " + TABLE_LAPS + " SET "
+            + COL_INDEX + " = ?, " + COL_DATE_KEY + " = ?, " + COL_INTERVAL_MILLIS + " = ?, "
+            + COL_LAP_TIME_MILLIS + " = ?, " + COL_START_TIME_MILLIS + " = ?, " + COL_RECORD_TIME_MILLIS + " = ?, "
+            + COL_RECORD_SYSTEM_TIME + " = ?, " + COL_CATEGORY + " = ?, " + COL_DETAIL + " = ?, "
+            + COL_DATE_TEXT + " = ?, " + COL_START_TIME_TEXT + " = ?, " + COL_RECORD_TIME_TEXT + " = ? "
+            + "WHERE " + COL_ID + " = ?";
+    private static final String UPDATE_INTERVAL = "UPDATE " + TABLE_LAPS + " SET "
+            + COL_INTERVAL_MILLIS + " = ?, " + COL_LAP_TIME_MILLIS + " = ? WHERE " + COL_ID + " = ?";
+    // AUTOINCREMENT 表已分配过的最大主键（删除的行不会让它回退）
+    private static final String MAX_ASSIGNED_ID = "SELECT seq FROM sqlite_sequence WHERE name = ?";
+
+    private final LapDatabaseHelper helper;
+
+    public SqliteLapStore(@NonNull LapDatabaseHelper helper) {
+        this.helper = helper;
+    }
+
+    @Override
+    public List<LapRecord> load() {
+        return query(SELECT + " ORDER BY " + COL_ID, null);
+    }
+
+    // 【2026-10-18 10:22】新增：追加单条记录（一次 INSERT，与历史数量无关）
+    // 新增时间：2026年10月18日 10:22
+    @Override
+    public void append(@NonNull LapRecord record) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        try (SQLiteStatement statement = db.compileStatement(INSERT)) {
+            bindInsert(statement, record, true);
+            statement.executeInsert();
+        }
+    }
+
+    // 【2026-10-18 10:23】新增：整体替换（单事务内清表 + 批量插入）
+    // 新增时间：2026年10月18日 10:23
+    @Override
+    public void replaceAll(@NonNull List<LapRecord> records) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE_LAPS, null, null);
+            insertAll(db, INSERT, records, true);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // 【2026-10-19 13:30】新增：把日志存储中数据库还没有的记录追加到末尾（单事务）
+    // 功能作用：数据库为空时全部写入；否则只写记录时间晚于库中最新一条的记录（回退到日志存储期间记录的分段），
+    //          已迁移过的记录不会重复写入。返回写入的条数。日志中的主键与数据库无关，由数据库重新分配
+    // 新增时间：2026年10月19日 13:30
+    public int appendNewer(@NonNull List<LapRecord> records) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            List<LapRecord> newer = records;
+            if (DatabaseUtils.queryNumEntries(db, TABLE_LAPS) > 0) {
+                long latest = DatabaseUtils.longForQuery(db, "SELECT MAX(" + COL_RECORD_SYSTEM_TIME + ") FROM "
+                        + TABLE_LAPS, null);
+                newer = new ArrayList<>();
+                for (LapRecord record : records) {
+                    if (record.getRecordSystemTimeMillis() > latest) newer.add(record);
+                }
+            }
+            insertAll(db, INSERT, newer, false);
+            db.setTransactionSuccessful();
+            return newer.size();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // 【2026-10-18 22:06】新增：分批导入
+    // 功能作用：每批在各自的事务中写入无索引的暂存表；提交时在一个事务内删除旧表、把暂存表改名为 laps 并重建索引，
+    //          不再把全部导入记录放在一次 replaceAll 中。放弃时删除暂存表，原数据不受影响。
+    // 新增时间：2026年10月18日 22:06
+    @Override
+    public ImportSession beginImport() {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        // 上次导入中途被杀时可能残留暂存表
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_LAPS_IMPORT);
+        LapDatabaseHelper.createLapsTable(db, TABLE_LAPS_IMPORT);
+        // 【2026-10-19 14:18】新增：暂存表的主键接着原表已分配的最大值继续（改名时该计数随表一起改名），
+        //                      导入后的记录主键大于导入前的所有记录，按主键记录的增量导出标记不会误跳过新数据
+        db.execSQL("INSERT INTO sqlite_sequence (name, seq) SELECT '" + TABLE_LAPS_IMPORT + "', seq"
+                + " FROM sqlite_sequence WHERE name = '" + TABLE_LAPS + "'");
+        return new ImportSession() {
+            @Override
+            public void add(@NonNull List<LapRecord> batch) {
+                db.beginTransaction();
+                try {
+                    insertAll(db, INSERT_IMPORT, batch, false);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+
+            @Override
+            public void commit() {
+                db.beginTransaction();
+                try {
+                    db.execSQL("DROP TABLE " + TABLE_LAPS);
+                    db.execSQL("ALTER TABLE " + TABLE_LAPS_IMPORT + " RENAME TO " + TABLE_LAPS);
+                    LapDatabaseHelper.createLapsIndexes(db);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+
+            @Override
+            public void abort() {
+                db.execSQL("DROP TABLE IF EXISTS " + TABLE_LAPS_IMPORT);
+            }
+        };
+    }
+
+    // 【2026-10-18 14:52】新增：更新单条记录（不影响其他行）
+    // 新增时间：2026年10月18日 14:52
+    // 【2026-10-19 09:24】修改：改为按位置定位的 UPDATE；原先委托给 append，主键冲突时实为删除再插入
+    // 【2026-10-19 14:18】修改：按主键定位，O(log n)
+    @Override
+    public void update(long id, @NonNull LapRecord record) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        try (SQLiteStatement statement = db.compileStatement(UPDATE)) {
+            bindColumns(statement, 1, record);
+            statement.bindLong(13, id);
+            statement.executeUpdateDelete();
+        }
+    }
+
+    @Override
+    public void updateInterval(long id, long intervalMillis, long lapTimeMillis) {
+        SQLiteDatabase db = helper.getWritableDatabase();
+        try (SQLiteStatement statement = db.compileStatement(UPDATE_INTERVAL)) {
+            statement.bindLong(1, intervalMillis);
+            statement.bindLong(2, lapTimeMillis);
+            statement.bindLong(3, id);
+            statement.executeUpdateDelete();
+        }
+    }
+
+    // 【2026-10-18 14:53】新增：删除单条记录
+    // 新增时间：2026年10月18日 14:53
+    // 【2026-10-19 09:24】修改：按位置定位（序号可能重复，不能作为删除条件）
+    // 【2026-10-19 14:18】修改：按主键定位
+    @Override
+    public void delete(long id) {
+        helper.getWritableDatabase().delete(TABLE_LAPS, COL_ID + " = ?", new String[]{String.valueOf(id)});
+    }
+
+    @Override
+    public int count() {
+        return (int) DatabaseUtils.queryNumEntries(helper.getReadableDatabase(), TABLE_LAPS);
+    }
+
+    // 【2026-10-19 11:46】新增：只读取间隔与间隔累计两列（不还原 LapRecord），一次性构建前缀和索引
+    // 新增时间：2026年10月19日 11:46
+    // 【2026-10-19 14:18】修改：同时读取主键，并取表已分配过的最大主键作为新记录主键的下限
+    @Override
+    public LapIntervalIndex loadIntervals() {
+        SQLiteDatabase db = helper.getReadableDatabase();
+        int capacity = Math.max(16, count());
+        long[] intervals = new long[capacity];
+        long[] ids = new long[capacity];
+        int count = 0;
+        long base = 0L;
+        try (Cursor cursor = db.rawQuery("SELECT " + COL_ID + ", " + COL_INTERVAL_MILLIS + ", "
+                + COL_LAP_TIME_MILLIS + " FROM " + TABLE_LAPS + " ORDER BY " + COL_ID, null)) {
+            while (cursor.moveToNext()) {
+                long interval = cursor.getLong(1);
+                if (count == 0) {
+                    base = cursor.getLong(2) - interval;
+                }
+                if (count == intervals.length) {
+                    intervals = Arrays.copyOf(intervals, count * 2);
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count] = cursor.getLong(0);
+                intervals[count++] = interval;
+            }
+        }
+        long maxAssigned = 0L;
+        try (Cursor cursor = db.rawQuery(MAX_ASSIGNED_ID, new String[]{TABLE_LAPS})) {
+            if (cursor.moveToFirst()) {
+                maxAssigned = cursor.getLong(0);
+            }
+        }
+        return LapIntervalIndex.of(base, intervals, ids, count, maxAssigned + 1);
+    }
+
+    // 【2026-10-19 14:18】修改：按主键续读，沿主键索引定位到 afterId 之后，与前面有多少行无关
+    @Override
+    public List<LapRecord> loadRange(long afterId, int limit) {
+        return query(SELECT + " WHERE " + COL_ID + " > ? ORDER BY " + COL_ID + " LIMIT ?",
+                new String[]{String.valueOf(afterId), String.valueOf(limit)});
+    }
+
+    @Override
+    public List<LapRecord> queryByRecordTime(long fromMillis, long toMillis) {
+        return query(SELECT + " WHERE " + COL_RECORD_SYSTEM_TIME + " >= ? AND " + COL_RECORD_SYSTEM_TIME
+                        + " < ? ORDER BY " + COL_ID,
+                new String[]{String.valueOf(fromMillis), String.valueOf(toMillis)});
+    }
+
+    // 修改时间：2026-10-18 12:55 - 按数值日期列 date_key 走索引查询
+    @Override
+    public List<LapRecord> queryByDate(@NonNull String fromDate, @NonNull String toDate) {
+        return query(SELECT + " WHERE " + COL_DATE_KEY + " BETWEEN ? AND ? ORDER BY " + COL_ID,
+                new String[]{String.valueOf(LapRecord.parseDateKey(fromDate)), String.valueOf(LapRecord.parseDateKey(toDate))});
+    }
+
+    @Override
+    public List<LapRecord> queryByCategory(@NonNull String category) {
+        return query(SELECT + " WHERE " + COL_CATEGORY + " = ? ORDER BY " + COL_ID,
+                new String[]{category});
+    }
+
+    // 【2026-10-19 15:10】新增：种类索引上的 DISTINCT，不读取记录行
+    // 新增时间：2026年10月19日 15:10
+    @Override
+    public List<String> distinctCategories() {
+        List<String> result = new ArrayList<>();
+        try (Cursor cursor = helper.getReadableDatabase().rawQuery("SELECT DISTINCT " + COL_CATEGORY + " FROM "
+                + TABLE_LAPS + " WHERE " + COL_CATEGORY + " IS NOT NULL ORDER BY " + COL_CATEGORY, null)) {
+            while (cursor.moveToNext()) {
+                result.add(cursor.getString(0));
+            }
+        }
+        return result;
+    }
+
+    // keepIds 为 false 时忽略记录中的主键，由数据库分配（导入、从日志存储合并）
+    // 【2026-10-19 14:36】新增：导出条件的行数（一次 COUNT，与条件相同的 WHERE）
+    // 新增时间：2026年10月19日 14:36
+    @Override
+    public int count(@NonNull LapQuery query) {
+        List<String> args = new ArrayList<>();
+        String where = where(query, args);
+        return (int) DatabaseUtils.longForQuery(helper.getReadableDatabase(),
+                "SELECT COUNT(*) FROM " + TABLE_LAPS + " WHERE " + where, args.toArray(new String[0]));
+    }
+
+    // 【2026-10-19 14:36】新增：按导出条件打开游标，next 时才还原一行
+    // 新增时间：2026年10月19日 14:36
+    @Override
+    public LapCursor scan(@NonNull LapQuery query) {
+        List<String> args = new ArrayList<>();
+        String where = where(query, args);
+        Cursor cursor = helper.getReadableDatabase().rawQuery(SELECT + " WHERE " + where + " ORDER BY " + COL_ID,
+                args.toArray(new String[0]));
+        return new LapCursor() {
+            @Override
+            public LapRecord next() {
+                return cursor.moveToNext() ? read(cursor) : null;
+            }
+
+            @Override
+            public void close() {
+                cursor.close();
+            }
+        };
+    }
+
+    // 条件的 WHERE 子句（参数追加到 args）。种类走 idx_laps_category；时间范围按 LapQuery.timeOf 的取值顺序分支，
+    // 记录时间戳一支按范围、其余（导入数据，时间戳为 0）按等值走 idx_laps_record_time，由 SQLite 合并两段索引结果。
+    // 有时间范围时主键条件前加一元 +，不让优化器改用主键范围逐行扫描整段历史；主键为内部生成的 long，直接写入语句
+    private static String where(LapQuery query, List<String> args) {
+        String id = query.hasTimeRange() ? "+" + COL_ID : COL_ID;
+        StringBuilder sql = new StringBuilder()
+                .append(id).append(" > ").append(query.afterId)
+                .append(" AND ").append(id).append(" <= ").append(query.upToId);
+        if (query.category != null) {
+            sql.append(" AND ").append(COL_CATEGORY).append(" = ?");
+            args.add(query.category);
+        }
+        if (query.hasTimeRange()) {
+            String from = String.valueOf(query.fromMillis);
+            String to = String.valueOf(query.toMillis);
+            sql.append(" AND (").append(COL_RECORD_SYSTEM_TIME).append(" >= ? AND ").append(COL_RECORD_SYSTEM_TIME)
+                    .append(" < ? OR ").append(COL_RECORD_SYSTEM_TIME).append(" = 0 AND (")
+                    .append(COL_RECORD_TIME_MILLIS).append(" >= ? AND ").append(COL_RECORD_TIME_MILLIS)
+                    .append(" < ? OR ").append(COL_RECORD_TIME_MILLIS).append(" = 0 AND ")
+                    .append(COL_DATE_KEY).append(" BETWEEN ? AND ?))");
+            args.add(from);
+            args.add(to);
+            args.add(from);
+            args.add(to);
+            // 无起点时 fromDateKey 为最小值，没有任何时间信息的记录（日期为 0）也算在内，与 LapQuery.matches 一致
+            args.add(String.valueOf(query.fromDateKey()));
+            args.add(String.valueOf(query.toDateKey()));
+        }
+        return sql.toString();
+    }
+
+    private void insertAll(SQLiteDatabase db, String sql, List<LapRecord> records, boolean keepIds) {
+        try (SQLiteStatement statement = db.compileStatement(sql)) {
+            for (LapRecord record : records) {
+                statement.clearBindings();
+                bindInsert(statement, record, keepIds);
+                statement.executeInsert();
+            }
+        }
+    }
+
+    private static void bindInsert(SQLiteStatement statement, LapRecord record, boolean keepId) {
+        if (keepId && record.getId() != 0) {
+            statement.bindLong(1, record.getId());
+        } else {
+            statement.bindNull(1);
+        }
+        bindColumns(statement, 2, record);
+    }
+
+    // 从第 first 个参数开始依次绑定 COLUMNS 中的 12 列
+    private static void bindColumns(SQLiteStatement statement, int first, LapRecord record) {
+        statement.bindLong(first, record.getIndex());
+        statement.bindLong(first + 1, record.getDateKey());
+        statement.bindLong(first + 2, record.getIntervalMillis());
+        statement.bindLong(first + 3, record.getLapTimeMillis());
+        statement.bindLong(first + 4, record.getStartTimeMillis());
+        statement.bindLong(first + 5, record.getRecordTimeMillis());
+        statement.bindLong(first + 6, record.getRecordSystemTimeMillis());
+        bindTextOrNull(statement, first + 7, record.getCategory());
+        bindTextOrNull(statement, first + 8, record.getDetail());
+        bindTextOrNull(statement, first + 9, record.getDateText());
+        bindTextOrNull(statement, first + 10, record.getStartTimeText());
+        bindTextOrNull(statement, first + 11, record.getRecordTimeText());
+    }
+
+    private List<LapRecord> query(String sql, String[] args) {
+        List<LapRecord> result = new ArrayList<>();
+        try (Cursor cursor = helper.getReadableDatabase().rawQuery(sql, args)) {
+            while (cursor.moveToNext()) {
+                result.add(read(cursor));
+            }
+        }
+        return result;
+    }
+
+    // 还原游标当前行（列顺序见 SELECT）
+    private static LapRecord read(Cursor cursor) {
+        return LapRecord.restore(
+                cursor.getLong(0),
+                cursor.getInt(1),
+                cursor.getInt(2),
+                cursor.getLong(3),
+                cursor.getLong(4),
+                cursor.getLong(5),
+                cursor.getLong(6),
+                cursor.getLong(7),
+                cursor.getString(8),
+                cursor.getString(9),
+                cursor.getString(10),
+                cursor.getString(11),
+                cursor.getString(12)
+        );
+    }
+}
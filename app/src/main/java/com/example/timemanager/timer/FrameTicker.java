@@ -0,0 +1,114 @@
+// 【2026-10-18 16:05】新增：FrameTicker - 与屏幕刷新同步的计时刷新驱动
+// 功能作用：用 Choreographer 帧回调代替固定 10ms 的 Handler 循环，刷新节奏自动匹配 60/90/120Hz 屏幕并与 vsync 对齐；
+//          省电模式开启或窗口失去焦点（分屏、弹窗、通知栏下拉）时降为每秒一次，减少唤醒次数。
+//          只在 start() 与 stop() 之间工作，界面不可见时不产生任何回调。
+// 新增时间：2026年10月18日 16:05
+package com.example.timemanager.timer;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.PowerManager;
+import android.view.Choreographer;
+import androidx.annotation.NonNull;
+
+public final class FrameTicker implements Choreographer.FrameCallback {
+    // 降频模式下的刷新间隔
+    static final long LOW_RATE_INTERVAL_MILLIS = 1000;
+
+    // 每帧（或降频后的每次）回调；在主线程执行
+    public interface Callback {
+        void onFrame(long frameTimeNanos);
+    }
+
+    private final Context context;
+    private final Callback callback;
+    private final PowerManager powerManager;
+    private final BroadcastReceiver powerSaveReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            updatePowerSave();
+        }
+    };
+
+    private boolean started = false;
+    private boolean posted = false;
+    private boolean powerSave = false;
+    private boolean windowFocused = true;
+
+    public FrameTicker(@NonNull Context context, @NonNull Callback callback) {
+        this.context = context;
+        this.callback = callback;
+        this.powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+    }
+
+    // 【2026-10-18 16:07】新增：开始按帧回调，并监听省电模式变化
+    // 新增时间：2026年10月18日 16:07
+    public void start() {
+        if (started) return;
+        started = true;
+        context.registerReceiver(powerSaveReceiver, new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+        powerSave = powerManager != null && powerManager.isPowerSaveMode();
+        schedule(true);
+    }
+
+    // 【2026-10-18 16:08】新增：停止回调并注销监听
+    // 新增时间：2026年10月18日 16:08
+    public void stop() {
+        if (!started) return;
+        started = false;
+        context.unregisterReceiver(powerSaveReceiver);
+        cancel();
+    }
+
+    // 【2026-10-18 16:09】新增：窗口焦点变化（由 Activity.onWindowFocusChanged 转发）
+    // 新增时间：2026年10月18日 16:09
+    public void setWindowFocused(boolean focused) {
+        if (windowFocused == focused) return;
+        windowFocused = focused;
+        reschedule();
+    }
+
+    public boolean isLowRate() {
+        return powerSave || !windowFocused;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        posted = false;
+        if (!started) return;
+        callback.onFrame(frameTimeNanos);
+        schedule(false);
+    }
+
+    private void updatePowerSave() {
+        boolean current = powerManager != null && powerManager.isPowerSaveMode();
+        if (powerSave == current) return;
+        powerSave = current;
+        reschedule();
+    }
+
+    // 切换频率时立即刷新一帧，随后按新频率继续
+    private void reschedule() {
+        if (!started) return;
+        cancel();
+        schedule(true);
+    }
+
+    private void schedule(boolean immediate) {
+        if (posted) return;
+        posted = true;
+        if (immediate || !isLowRate()) {
+            Choreographer.getInstance().postFrameCallback(this);
+        } else {
+            Choreographer.getInstance().postFrameCallbackDelayed(this, LOW_RATE_INTERVAL_MILLIS);
+        }
+    }
+
+    private void cancel() {
+        if (!posted) return;
+        posted = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+}
@@ -0,0 +1,39 @@
+// 【2026-10-18 15:21】新增：SystemTimerClock - 生产环境时钟
+// 功能作用：单调时间取 SystemClock.elapsedRealtimeNanos()（含深度睡眠时间），墙上时间取 System.currentTimeMillis()
+// 新增时间：2026年10月18日 15:21
+// 修改时间：2026年10月19日 09:30 - 开机序号取 Settings.Global.BOOT_COUNT，需要 Context 读取，不再提供单例
+package com.example.timemanager.timer;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.os.SystemClock;
+import android.provider.Settings;
+import androidx.annotation.NonNull;
+
+public final class SystemTimerClock implements TimerClock {
+    private final ContentResolver resolver;
+    // 开机序号在进程存活期间不变，只读取一次
+    private int bootCount = UNKNOWN_BOOT_COUNT;
+
+    public SystemTimerClock(@NonNull Context context) {
+        this.resolver = context.getApplicationContext().getContentResolver();
+    }
+
+    @Override
+    public long elapsedRealtimeNanos() {
+        return SystemClock.elapsedRealtimeNanos();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized int bootCount() {
+        if (bootCount == UNKNOWN_BOOT_COUNT) {
+            bootCount = Settings.Global.getInt(resolver, Settings.Global.BOOT_COUNT, UNKNOWN_BOOT_COUNT);
+        }
+        return bootCount;
+    }
+}
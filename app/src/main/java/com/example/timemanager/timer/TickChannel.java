@@ -0,0 +1,97 @@
+// 【2026-10-18 17:00】新增：TickChannel - 高频计时刷新的合并（conflated）订阅通道
+// 功能作用：与 LiveData 分开，专门传递每帧变化的计时值：回调参数为基本类型 long，不装箱；
+//          跨线程发布时只投递最新值（中间值被合并丢弃），同一值不重复投递；
+//          没有订阅者时 publish 直接返回，并通过 Activation 通知生产方停止产生数据。
+// 新增时间：2026年10月18日 17:00
+package com.example.timemanager.timer;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class TickChannel {
+
+    // 订阅回调，在通道所属线程（主线程）执行
+    public interface Listener {
+        void onTick(long value);
+    }
+
+    // 订阅者从无到有 / 从有到无时通知生产方启动、停止
+    public interface Activation {
+        void onActiveChanged(boolean active);
+    }
+
+    private final Looper looper;
+    private final Handler handler;
+    @Nullable
+    private final Activation activation;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong latest = new AtomicLong();
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+    private final Runnable drain = this::drain;
+    private long lastDelivered = Long.MIN_VALUE;
+
+    public TickChannel(@NonNull Looper looper, @Nullable Activation activation) {
+        this.looper = looper;
+        this.handler = new Handler(looper);
+        this.activation = activation;
+    }
+
+    // 【2026-10-18 17:02】新增：订阅（须在通道所属线程调用）
+    // 新增时间：2026年10月18日 17:02
+    public void subscribe(@NonNull Listener listener) {
+        if (!listeners.addIfAbsent(listener)) return;
+        // 新订阅者需要收到下一次发布的值，即使与上次投递的相同
+        lastDelivered = Long.MIN_VALUE;
+        if (listeners.size() == 1 && activation != null) {
+            activation.onActiveChanged(true);
+        }
+    }
+
+    // 【2026-10-18 17:03】新增：取消订阅（须在通道所属线程调用）
+    // 新增时间：2026年10月18日 17:03
+    public void unsubscribe(@NonNull Listener listener) {
+        if (listeners.remove(listener) && listeners.isEmpty()) {
+            lastDelivered = Long.MIN_VALUE;
+            if (activation != null) {
+                activation.onActiveChanged(false);
+            }
+        }
+    }
+
+    public boolean hasSubscribers() {
+        return !listeners.isEmpty();
+    }
+
+    // 【2026-10-18 17:04】新增：发布新值（任意线程）
+    // 功能作用：在通道线程上直接投递；其他线程发布时只保留最新值，并至多排队一次投递任务
+    // 新增时间：2026年10月18日 17:04
+    public void publish(long value) {
+        if (listeners.isEmpty()) return;
+        latest.set(value);
+        if (Looper.myLooper() == looper) {
+            pending.set(false);
+            handler.removeCallbacks(drain);
+            deliver(value);
+        } else if (pending.compareAndSet(false, true)) {
+            handler.post(drain);
+        }
+    }
+
+    private void drain() {
+        pending.set(false);
+        deliver(latest.get());
+    }
+
+    private void deliver(long value) {
+        if (value == lastDelivered) return;
+        lastDelivered = value;
+        for (Listener listener : listeners) {
+            listener.onTick(value);
+        }
+    }
+}
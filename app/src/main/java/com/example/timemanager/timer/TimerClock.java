@@ -0,0 +1,19 @@
+// 【2026-10-18 15:20】新增：TimerClock - 计时引擎使用的时钟接口
+// 功能作用：把“单调时钟”与“墙上时钟”的读取抽象出来，生产环境使用系统时钟，单元测试注入可手动拨动的假时钟
+// 新增时间：2026年10月18日 15:20
+package com.example.timemanager.timer;
+
+public interface TimerClock {
+    // bootCount() 无法获取时的返回值
+    int UNKNOWN_BOOT_COUNT = -1;
+
+    // 单调时钟（纳秒），不受用户修改系统时间影响；重启后从 0 重新计数
+    long elapsedRealtimeNanos();
+
+    // 墙上时钟（epoch 毫秒），仅用于显示开始时间与跨重启恢复
+    long currentTimeMillis();
+
+    // 【2026-10-19 09:30】新增：本次开机的序号（设备开机次数），用于判断保存的状态是否来自上一次开机；
+    //                      无法获取时返回 UNKNOWN_BOOT_COUNT
+    int bootCount();
+}
@@ -0,0 +1,177 @@
+// 【2026-10-18 15:25】新增：TimerEngine - 与界面无关的计时引擎
+// 功能作用：集中管理开始 / 暂停 / 分段 / 重置状态。运行中只记录“开始时的单调时间 + 之前累计的时长”，
+//          总计时与分段用时在读取时按需计算，不需要任何轮询；修改系统时间不会影响计时。
+//          时钟通过 TimerClock 注入，纯 Java 实现，可在 JVM 单元测试中用假时钟验证。
+// 新增时间：2026年10月18日 15:25
+package com.example.timemanager.timer;
+
+import androidx.annotation.NonNull;
+
+public final class TimerEngine {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    // 无法取得开机序号时，按“墙上时间 - 单调时间”估算的开机时刻判断是否重启；两次估算允许的误差
+    static final long BOOT_WALL_TOLERANCE_MILLIS = 60_000L;
+
+    private final TimerClock clock;
+
+    private boolean running = false;
+    // 最近一次开始之前累计的时长（毫秒）
+    private long accumulatedMillis = 0;
+    // 最近一次开始时的单调时间（纳秒）与墙上时间（毫秒）
+    private long runStartNanos = 0;
+    private long runStartWallMillis = 0;
+    // 上一次分段结束时的总计时（毫秒）
+    private long lapBoundaryMillis = 0;
+    // 本次分段开始的墙上时间（epoch 毫秒）
+    private long lapStartWallMillis = 0;
+
+    public TimerEngine(@NonNull TimerClock clock) {
+        this.clock = clock;
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    // 【2026-10-18 15:27】新增：开始（或继续）计时
+    // 新增时间：2026年10月18日 15:27
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        runStartNanos = clock.elapsedRealtimeNanos();
+        runStartWallMillis = clock.currentTimeMillis();
+        // 与原实现一致：分段开始时间记为最近一次开始计时的时刻
+        lapStartWallMillis = runStartWallMillis;
+    }
+
+    // 【2026-10-18 15:28】新增：暂停计时，把本轮运行时长并入累计值
+    // 新增时间：2026年10月18日 15:28
+    public synchronized void pause() {
+        if (!running) return;
+        accumulatedMillis = elapsedMillisLocked();
+        running = false;
+    }
+
+    // 【2026-10-18 15:29】新增：清零全部状态
+    // 新增时间：2026年10月18日 15:29
+    public synchronized void reset() {
+        resetTo(0);
+        lapStartWallMillis = 0;
+    }
+
+    // 【2026-10-18 15:30】新增：停止并把总计时设为指定值（导入数据后使用），下一次分段从该值开始
+    // 新增时间：2026年10月18日 15:30
+    public synchronized void resetTo(long elapsedMillis) {
+        running = false;
+        accumulatedMillis = elapsedMillis;
+        runStartNanos = 0;
+        runStartWallMillis = 0;
+        lapBoundaryMillis = elapsedMillis;
+    }
+
+    // 【2026-10-18 15:31】新增：记一次分段
+    // 功能作用：返回分段前的快照（其 lapMillis 即本次分段用时），并把分段边界移到当前总计时
+    // 新增时间：2026年10月18日 15:31
+    public synchronized TimerSnapshot markLap() {
+        TimerSnapshot snapshot = snapshotLocked();
+        lapBoundaryMillis = snapshot.elapsedMillis;
+        return snapshot;
+    }
+
+    public synchronized long elapsedMillis() {
+        return elapsedMillisLocked();
+    }
+
+    public synchronized TimerSnapshot snapshot() {
+        return snapshotLocked();
+    }
+
+    // 【2026-10-18 15:33】新增：导出可持久化的状态
+    // 功能作用：同时保存单调时间与墙上时间，进程被杀后用单调时间恢复，设备重启后退回墙上时间
+    // 新增时间：2026年10月18日 15:33
+    // 【2026-10-19 09:32】修改：同时保存开机标识（开机序号 + 估算的开机时刻）
+    public synchronized State saveState() {
+        return new State(running, accumulatedMillis, runStartNanos / NANOS_PER_MILLI, runStartWallMillis,
+                lapBoundaryMillis, lapStartWallMillis, clock.bootCount(), bootWallMillis());
+    }
+
+    // 【2026-10-18 15:35】新增：从持久化状态恢复
+    // 功能作用：单调时钟在重启后归零；若当前单调时间小于保存时的开始时间，说明设备已重启，
+    //          此时用墙上时间估算重启前后经过的时长，并以当前时刻为新的运行起点
+    // 新增时间：2026年10月18日 15:35
+    // 【2026-10-19 09:32】修改：重启后开机时长可能已超过保存时的值，仅比较单调时间会把上一次开机的起点当作本次的；
+    //                      改为比较保存的开机标识（见 isSameBoot）
+    public synchronized void restoreState(@NonNull State state) {
+        running = state.running;
+        accumulatedMillis = state.accumulatedMillis;
+        lapBoundaryMillis = state.lapBoundaryMillis;
+        lapStartWallMillis = state.lapStartWallMillis;
+        runStartWallMillis = state.runStartWallMillis;
+        if (!running) {
+            runStartNanos = 0;
+            return;
+        }
+        long nowNanos = clock.elapsedRealtimeNanos();
+        long savedStartNanos = state.runStartRealtimeMillis * NANOS_PER_MILLI;
+        if (nowNanos >= savedStartNanos && isSameBoot(state)) {
+            runStartNanos = savedStartNanos;
+        } else {
+            long nowWall = clock.currentTimeMillis();
+            accumulatedMillis += Math.max(0, nowWall - state.runStartWallMillis);
+            runStartNanos = nowNanos;
+            runStartWallMillis = nowWall;
+        }
+    }
+
+    // 保存的状态是否来自本次开机：两边都有开机序号时直接比较；否则比较估算的开机时刻（修改系统时间也会使其变化，
+    // 超出容差时按重启处理，以墙上时间恢复）。旧版本保存的状态没有开机标识，视为同一次开机。
+    private boolean isSameBoot(State state) {
+        int bootCount = clock.bootCount();
+        if (state.bootCount != TimerClock.UNKNOWN_BOOT_COUNT && bootCount != TimerClock.UNKNOWN_BOOT_COUNT) {
+            return state.bootCount == bootCount;
+        }
+        if (state.bootWallMillis == 0) {
+            return true;
+        }
+        return Math.abs(bootWallMillis() - state.bootWallMillis) <= BOOT_WALL_TOLERANCE_MILLIS;
+    }
+
+    // 估算的开机时刻（epoch 毫秒）
+    private long bootWallMillis() {
+        return clock.currentTimeMillis() - clock.elapsedRealtimeNanos() / NANOS_PER_MILLI;
+    }
+
+    private long elapsedMillisLocked() {
+        if (!running) return accumulatedMillis;
+        return accumulatedMillis + (clock.elapsedRealtimeNanos() - runStartNanos) / NANOS_PER_MILLI;
+    }
+
+    private TimerSnapshot snapshotLocked() {
+        return new TimerSnapshot(running, elapsedMillisLocked(), lapBoundaryMillis, lapStartWallMillis);
+    }
+
+    // 可持久化状态（毫秒精度）
+    public static final class State {
+        public final boolean running;
+        public final long accumulatedMillis;
+        public final long runStartRealtimeMillis;
+        public final long runStartWallMillis;
+        public final long lapBoundaryMillis;
+        public final long lapStartWallMillis;
+        // 保存时的开机序号与估算的开机时刻（旧版本保存的状态分别为 UNKNOWN_BOOT_COUNT 与 0）
+        public final int bootCount;
+        public final long bootWallMillis;
+
+        public State(boolean running, long accumulatedMillis, long runStartRealtimeMillis, long runStartWallMillis,
+                     long lapBoundaryMillis, long lapStartWallMillis, int bootCount, long bootWallMillis) {
+            this.running = running;
+            this.accumulatedMillis = accumulatedMillis;
+            this.runStartRealtimeMillis = runStartRealtimeMillis;
+            this.runStartWallMillis = runStartWallMillis;
+            this.lapBoundaryMillis = lapBoundaryMillis;
+            this.lapStartWallMillis = lapStartWallMillis;
+            this.bootCount = bootCount;
+            this.bootWallMillis = bootWallMillis;
+        }
+    }
+}
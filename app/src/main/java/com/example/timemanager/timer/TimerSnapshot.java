@@ -0,0 +1,26 @@
+// 【2026-10-18 15:22】新增：TimerSnapshot - 计时状态的不可变快照
+// 功能作用：由 TimerEngine 按需计算生成，界面、ViewModel 只读取快照，不再各自维护计时字段
+// 新增时间：2026年10月18日 15:22
+package com.example.timemanager.timer;
+
+public final class TimerSnapshot {
+    public final boolean running;
+    // 总计时（毫秒）
+    public final long elapsedMillis;
+    // 上一次分段结束时的总计时（毫秒）
+    public final long lapBoundaryMillis;
+    // 本次分段开始的墙上时间（epoch 毫秒），0 表示尚未开始
+    public final long lapStartWallMillis;
+
+    TimerSnapshot(boolean running, long elapsedMillis, long lapBoundaryMillis, long lapStartWallMillis) {
+        this.running = running;
+        this.elapsedMillis = elapsedMillis;
+        this.lapBoundaryMillis = lapBoundaryMillis;
+        this.lapStartWallMillis = lapStartWallMillis;
+    }
+
+    // 当前分段已用时间（毫秒）
+    public long lapMillis() {
+        return elapsedMillis - lapBoundaryMillis;
+    }
+}
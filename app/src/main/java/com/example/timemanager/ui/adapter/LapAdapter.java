@@ -11,18 +11,20 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.timemanager.R;
 import com.example.timemanager.data.model.LapRecord;
 import com.example.timemanager.util.ColorUtils;
-
-import java.util.List;
+import com.example.timemanager.viewmodel.LapListChange;
 
 public class LapAdapter extends RecyclerView.Adapter<LapAdapter.LapViewHolder> {
 
-    private final List<LapRecord> lapRecords;
+    // 【2026-10-18 11:20】修改：数据改为分页窗口，不再持有全部记录的副本
+    private final PagedLapList lapRecords;
     private final Context context;
     private boolean isNightMode = false;
 
-    public LapAdapter(Context context, List<LapRecord> lapRecords) {
+    public LapAdapter(Context context, PagedLapList lapRecords) {
         this.context = context;
         this.lapRecords = lapRecords;
+        // 页加载完成后只刷新该页中对应的行
+        this.lapRecords.setListener(this::notifyItemRangeChanged);
     }
 
     public void setNightMode(boolean isNightMode) {
@@ -42,13 +44,24 @@ public class LapAdapter extends RecyclerView.Adapter<LapAdapter.LapViewHolder> {
     public void onBindViewHolder(@NonNull LapViewHolder holder, int position) {
         LapRecord record = lapRecords.get(position);
 
-        holder.lblIndex.setText(String.valueOf(record.getIndex()));
-        holder.lblLapTime.setText(record.getInterval());
-        holder.lblTotalTime.setText(record.getLapTime());
-        holder.lblStartTime.setText(record.getStartTime());
-        holder.lblRecordTime.setText(record.getRecordTime());
-        holder.lblCategory.setText(record.getCategory());
-        holder.lblDetail.setText(record.getDetail());
+        if (record != null) {
+            holder.lblIndex.setText(String.valueOf(record.getIndex()));
+            holder.lblLapTime.setText(record.getInterval());
+            holder.lblTotalTime.setText(record.getLapTime());
+            holder.lblStartTime.setText(record.getStartTime());
+            holder.lblRecordTime.setText(record.getRecordTime());
+            holder.lblCategory.setText(record.getCategory());
+            holder.lblDetail.setText(record.getDetail());
+        } else {
+            // 【2026-10-18 11:22】新增：所在页尚未加载时显示占位行，加载完成后会再次绑定
+            holder.lblIndex.setText(String.valueOf(position + 1));
+            holder.lblLapTime.setText("");
+            holder.lblTotalTime.setText("");
+            holder.lblStartTime.setText("");
+            holder.lblRecordTime.setText("");
+            holder.lblCategory.setText("");
+            holder.lblDetail.setText("");
+        }
 
         // 使用 ColorUtils 获取颜色
         int textColor = ColorUtils.getThemeColor(context, "colorOnSurface", isNightMode);
@@ -95,9 +108,46 @@ public class LapAdapter extends RecyclerView.Adapter<LapAdapter.LapViewHolder> {
     // 【2025-11-22 12:59】新增：更新记录列表方法
     // 功能作用：供 MainActivity 的 observe 回调使用，避免重建 Adapter
     // 新增时间：2025年11月22日 12:59
-    public void updateRecords(List<LapRecord> newRecords) {
-        this.lapRecords.clear();
-        this.lapRecords.addAll(newRecords);
+    // 【2026-10-18 11:24】修改：只接收记录总数，清空分页缓存后按可见位置重新加载
+    public void updateRecordCount(int count) {
+        this.lapRecords.reset(count);
         notifyDataSetChanged();
     }
+
+    // 【2026-10-18 11:55】新增：应用 ViewModel 发布的细粒度变更
+    // 功能作用：插入只通知新增行，区间变化只通知对应行；已有行不重新绑定，保留默认的条目动画。
+    //          若因界面不可见漏掉了中间事件（总数对不上），退回整体刷新。
+    // 新增时间：2026年10月18日 11:55
+    public void applyChange(@NonNull LapListChange change) {
+        switch (change.type) {
+            case INSERTED:
+                if (lapRecords.size() + change.itemCount == change.newSize) {
+                    lapRecords.insert(change.positionStart, change.items);
+                    notifyItemRangeInserted(change.positionStart, change.itemCount);
+                    return;
+                }
+                break;
+            case RANGE_CHANGED:
+                if (lapRecords.size() == change.newSize) {
+                    lapRecords.invalidateRange(change.positionStart, change.itemCount);
+                    notifyItemRangeChanged(change.positionStart, change.itemCount);
+                    return;
+                }
+                break;
+            case REMOVED:
+                // 【2026-10-18 15:00】新增：删除后其后各行的间隔累计也变了，一并刷新
+                if (lapRecords.size() - change.itemCount == change.newSize) {
+                    lapRecords.remove(change.positionStart, change.itemCount);
+                    notifyItemRangeRemoved(change.positionStart, change.itemCount);
+                    if (change.positionStart < change.newSize) {
+                        notifyItemRangeChanged(change.positionStart, change.newSize - change.positionStart);
+                    }
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+        updateRecordCount(change.newSize);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+// 【2026-10-18 11:10】新增：PagedLapList - 分段记录的分页窗口
+// 功能作用：按固定页大小从仓库按需加载记录，只在内存中保留当前可见位置附近的几页，
+//          远离可见区域的页会被淘汰。无论历史记录有多少，列表占用的内存基本恒定，首屏也只需加载一页。
+// 新增时间：2026年10月18日 11:10
+package com.example.timemanager.ui.adapter;
+
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.example.timemanager.data.model.LapRecord;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class PagedLapList {
+    static final int PAGE_SIZE = 50;
+    // 以当前页为中心，前后各保留的页数；超出范围的页被淘汰
+    static final int RESIDENT_PAGE_RADIUS = 2;
+    // 距离页边界小于该值时预取相邻页，滚动时尽量不出现占位行
+    static final int PREFETCH_DISTANCE = 10;
+
+    // 页加载器：在后台读取 [offset, offset + limit) 的记录，并在主线程回调
+    public interface PageLoader {
+        void loadPage(int offset, int limit, @NonNull Consumer<List<LapRecord>> callback);
+    }
+
+    // 页加载完成回调：通知 Adapter 刷新对应区间
+    public interface Listener {
+        void onRangeLoaded(int positionStart, int itemCount);
+    }
+
+    private final PageLoader loader;
+    private final SparseArray<List<LapRecord>> pages = new SparseArray<>();
+    private final SparseBooleanArray loadingPages = new SparseBooleanArray();
+    @Nullable
+    private Listener listener;
+    private int size = 0;
+    // 每次 reset 递增，用于丢弃过期的加载结果
+    private int generation = 0;
+
+    public PagedLapList(@NonNull PageLoader loader) {
+        this.loader = loader;
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 【2026-10-18 11:14】新增：获取指定位置的记录
+    // 功能作用：所在页已加载则直接返回；否则发起加载并返回 null（由 Adapter 显示占位行）。
+    //          同时按需预取相邻页，并淘汰远离当前位置的页。
+    // 新增时间：2026年10月18日 11:14
+    @Nullable
+    public LapRecord get(int position) {
+        if (position < 0 || position >= size) return null;
+        int page = position / PAGE_SIZE;
+        int offsetInPage = position % PAGE_SIZE;
+
+        evictDistantPages(page);
+        if (offsetInPage < PREFETCH_DISTANCE && page > 0) {
+            ensurePage(page - 1);
+        } else if (offsetInPage >= PAGE_SIZE - PREFETCH_DISTANCE && (page + 1) * PAGE_SIZE < size) {
+            ensurePage(page + 1);
+        }
+
+        List<LapRecord> records = pages.get(page);
+        if (records != null && offsetInPage >= records.size()) {
+            // 页加载时该位置的记录尚未写入（例如刚追加的末页），丢弃后重新加载
+            pages.remove(page);
+            records = null;
+        }
+        if (records == null) {
+            ensurePage(page);
+            return null;
+        }
+        return records.get(offsetInPage);
+    }
+
+    // 【2026-10-18 11:16】新增：整体重置
+    // 功能作用：记录总数变化（重置、导入、新增）后清空已缓存页，后续按需重新加载
+    // 新增时间：2026年10月18日 11:16
+    public void reset(int newSize) {
+        size = Math.max(0, newSize);
+        generation++;
+        pages.clear();
+        loadingPages.clear();
+    }
+
+    // 【2026-10-18 11:50】新增：插入记录
+    // 功能作用：末尾追加时若末页已在内存中，直接把新记录放入该页，无需再查询数据库；
+    //          中间插入则淘汰插入点及之后的页，由后续绑定重新加载
+    // 新增时间：2026年10月18日 11:50
+    public void insert(int position, @NonNull List<LapRecord> items) {
+        int count = items.size();
+        if (count == 0) return;
+        if (position == size) {
+            size += count;
+            for (int i = 0; i < count; i++) {
+                int target = position + i;
+                List<LapRecord> records = pages.get(target / PAGE_SIZE);
+                if (records != null && records.size() == target % PAGE_SIZE) {
+                    records.add(items.get(i));
+                }
+            }
+        } else {
+            size += count;
+            invalidateFrom(position);
+        }
+    }
+
+    // 【2026-10-18 14:58】新增：删除记录
+    // 功能作用：删除点之后的位置整体前移，淘汰删除点及之后的页，由后续绑定重新加载
+    // 新增时间：2026年10月18日 14:58
+    public void remove(int position, int count) {
+        if (count <= 0) return;
+        size = Math.max(0, size - count);
+        invalidateFrom(position);
+    }
+
+    // 【2026-10-18 11:52】新增：区间内容变化
+    // 功能作用：淘汰覆盖该区间的页，绑定时重新加载
+    // 新增时间：2026年10月18日 11:52
+    public void invalidateRange(int positionStart, int itemCount) {
+        if (itemCount <= 0) return;
+        int firstPage = positionStart / PAGE_SIZE;
+        int lastPage = (positionStart + itemCount - 1) / PAGE_SIZE;
+        for (int page = firstPage; page <= lastPage; page++) {
+            dropPage(page);
+        }
+    }
+
+    private void invalidateFrom(int position) {
+        int firstPage = position / PAGE_SIZE;
+        for (int i = pages.size() - 1; i >= 0; i--) {
+            if (pages.keyAt(i) >= firstPage) pages.removeAt(i);
+        }
+        generation++;
+        loadingPages.clear();
+    }
+
+    private void dropPage(int page) {
+        pages.remove(page);
+        if (loadingPages.get(page)) {
+            // 正在加载的旧结果可能已过期，整体作废后重新请求
+            generation++;
+            loadingPages.clear();
+        }
+    }
+
+    private void ensurePage(int page) {
+        if (pages.get(page) != null || loadingPages.get(page)) return;
+        loadingPages.put(page, true);
+        final int requestGeneration = generation;
+        final int offset = page * PAGE_SIZE;
+        loader.loadPage(offset, PAGE_SIZE, records -> {
+            if (requestGeneration != generation) return; // 加载期间列表已被重置
+            loadingPages.delete(page);
+            // 保存为可变副本，末页可直接追加新记录
+            pages.put(page, new ArrayList<>(records));
+            if (listener != null) {
+                int count = Math.min(records.size(), size - offset);
+                if (count > 0) listener.onRangeLoaded(offset, count);
+            }
+        });
+    }
+
+    private void evictDistantPages(int currentPage) {
+        for (int i = pages.size() - 1; i >= 0; i--) {
+            if (Math.abs(pages.keyAt(i) - currentPage) > RESIDENT_PAGE_RADIUS) {
+                pages.removeAt(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+// 【2026-10-18 17:20】新增：ClockHeaderRenderer - 顶部系统时钟（星期 / 日期 / 时间）渲染器
+// 功能作用：取代每 100ms 新建 Date、Calendar、星期数组和两个 SimpleDateFormat 的 updateSystemTime。
+//          星期与日期字符串缓存到下一个本地零点，只在跨天、用户修改时间或切换时区（ACTION_TIME_CHANGED /
+//          ACTION_TIMEZONE_CHANGED）时重新计算；H:mm:ss.SS 部分由“当天已过毫秒数”直接写入 TimerDisplayView 的复用缓冲，
+//          与秒表共用 FrameTicker 的按帧调度（省电模式、失去焦点时同样降为每秒一次）。
+// 新增时间：2026年10月18日 17:20
+package com.example.timemanager.ui.main;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import com.example.timemanager.timer.FrameTicker;
+import com.example.timemanager.ui.widget.TimerDisplayView;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+public class ClockHeaderRenderer {
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final String[] WEEKDAYS = {"", "星期日", "星期一", "星期二", "星期三", "星期四", "星期五", "星期六"};
+
+    private final Context context;
+    private final TextView lblWeekday;
+    private final TextView lblSystemDate;
+    private final TimerDisplayView lblSystemTime;
+    private final FrameTicker ticker;
+    private final BroadcastReceiver timeChangeReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction())) {
+                timeZone = TimeZone.getDefault();
+            }
+            // 时间或时区变化后强制重新计算日期、星期
+            cachedDay = Long.MIN_VALUE;
+            render();
+        }
+    };
+
+    // TimeZone.getDefault() 每次返回副本，缓存一份，时区变化时再取
+    private TimeZone timeZone = TimeZone.getDefault();
+    // 当前缓存的本地日序号（自 1970-01-01 起的天数）
+    private long cachedDay = Long.MIN_VALUE;
+    private long lastCentis = -1;
+    private boolean started = false;
+
+    public ClockHeaderRenderer(@NonNull Context context, @NonNull TextView lblWeekday, @NonNull TextView lblSystemDate,
+                               @NonNull TimerDisplayView lblSystemTime) {
+        this.context = context;
+        this.lblWeekday = lblWeekday;
+        this.lblSystemDate = lblSystemDate;
+        this.lblSystemTime = lblSystemTime;
+        this.ticker = new FrameTicker(context, frameTimeNanos -> render());
+    }
+
+    // 【2026-10-18 17:22】新增：开始渲染（界面可见时调用）
+    // 新增时间：2026年10月18日 17:22
+    public void start() {
+        if (started) return;
+        started = true;
+        IntentFilter filter = new IntentFilter(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        context.registerReceiver(timeChangeReceiver, filter);
+        // 界面不可见期间可能已切换时区
+        timeZone = TimeZone.getDefault();
+        cachedDay = Long.MIN_VALUE;
+        lastCentis = -1;
+        render();
+        ticker.start();
+    }
+
+    // 【2026-10-18 17:23】新增：停止渲染（界面不可见时调用）
+    // 新增时间：2026年10月18日 17:23
+    public void stop() {
+        if (!started) return;
+        started = false;
+        ticker.stop();
+        context.unregisterReceiver(timeChangeReceiver);
+    }
+
+    public void setWindowFocused(boolean focused) {
+        ticker.setWindowFocused(focused);
+    }
+
+    // 【2026-10-18 17:25】私有方法：渲染一帧
+    // 功能作用：本地时间 = UTC + 当前偏移（含夏令时）；按天序号判断是否跨天，跨天才重算日期字符串
+    // 新增时间：2026年10月18日 17:25
+    private void render() {
+        long now = System.currentTimeMillis();
+        long local = now + timeZone.getOffset(now);
+        long day = Math.floorDiv(local, MILLIS_PER_DAY);
+        if (day != cachedDay) {
+            cachedDay = day;
+            updateDate(now);
+        }
+        long millisOfDay = Math.floorMod(local, MILLIS_PER_DAY);
+        long centis = millisOfDay / 10;
+        if (centis != lastCentis) {
+            lastCentis = centis;
+            lblSystemTime.setTime(millisOfDay);
+        }
+    }
+
+    // 每天（或时间、时区变化时）执行一次
+    private void updateDate(long now) {
+        Calendar cal = Calendar.getInstance(timeZone);
+        cal.setTimeInMillis(now);
+        int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
+        lblWeekday.setText(dayOfWeek >= 1 && dayOfWeek <= 7 ? WEEKDAYS[dayOfWeek] : "");
+        StringBuilder date = new StringBuilder(11);
+        date.append(cal.get(Calendar.YEAR)).append('年');
+        appendTwoDigits(date, cal.get(Calendar.MONTH) + 1).append('月');
+        appendTwoDigits(date, cal.get(Calendar.DAY_OF_MONTH)).append('日');
+        lblSystemDate.setText(date);
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        if (value < 10) sb.append('0');
+        return sb.append(value);
+    }
+}
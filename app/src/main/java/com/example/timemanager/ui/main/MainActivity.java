@@ -5,10 +5,11 @@ package com.example.timemanager.ui.main;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.database.Cursor;
 import androidx.fragment.app.Fragment;
 import android.net.Uri;
 import android.os.Bundle;
-import android.os.Handler;
+import android.provider.OpenableColumns;
 import android.view.View;
 import android.widget.Button;
 import android.widget.LinearLayout;
@@ -16,66 +17,81 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.view.ViewCompat;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.timemanager.R;
+import com.example.timemanager.data.export.ExportProgress;
+import com.example.timemanager.data.export.LapExportFilter;
+import com.example.timemanager.data.export.LapExporter;
+import com.example.timemanager.data.export.LapExporters;
+import com.example.timemanager.data.importer.ImportProgress;
+import com.example.timemanager.timer.TickChannel;
+import com.example.timemanager.timer.TimerSnapshot;
 import com.example.timemanager.data.model.LapRecord;
 import com.example.timemanager.ui.adapter.LapAdapter;
+import com.example.timemanager.ui.adapter.PagedLapList;
 import com.example.timemanager.ui.dialog.InputDialogFragment;
+import com.example.timemanager.ui.widget.TimerDisplayView;
 import com.example.timemanager.util.ColorUtils;
 import com.example.timemanager.util.DaemonManager;
 import com.example.timemanager.util.LogUtils;
+import com.example.timemanager.util.TimeFormatService;
+import com.example.timemanager.viewmodel.LapListChange;
 import com.example.timemanager.viewmodel.TimerViewModel;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
-import java.util.Locale;
 import android.content.Intent; // 确保有 Intent 导入
-import com.example.timemanager.util.ExcelImportUtil; // 【2025-11-22 18:50】新增：导入工具类
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 public class MainActivity extends AppCompatActivity implements InputDialogFragment.InputDialogListener {
 
     // 【2025-11-22 15:02】保留你原有的所有 UI 控件引用（严格使用 XML ID）
     private LinearLayout mainLayout;
-    private TextView lblWeekday, lblSystemDate, lblSystemTime, lblTime;
+    private TextView lblWeekday, lblSystemDate;
+    // 【2026-10-18 17:30】修改：系统时间改为 TimerDisplayView，由 ClockHeaderRenderer 渲染
+    private TimerDisplayView lblSystemTime;
+    private ClockHeaderRenderer clockHeader;
+    // 【2026-10-18 16:42】修改：秒表显示改为 TimerDisplayView
+    private TimerDisplayView lblTime;
     private Button btnStartPause, btnLap, btnReset, btnExport, btnMode;
     private LinearLayout lapHeaderRow;
+    // 【2026-10-19 15:30】新增：分段记录加载中提示
+    private TextView lblLapsLoading;
     private RecyclerView recyclerViewLaps;
     private LapAdapter lapAdapter;
 
-    // 【2025-11-22 15:03】保留你原有的 Handler 和 Runnable（计时器由 Activity 管理）
-    private Handler handler = new Handler();
     private TimerViewModel viewModel;
     private boolean isNight = false; // 主题状态仍由 Activity 管理
 
-    // 【2025-11-22 15:04】完全复用你原有的 updateTimerRunnable（关键！）
-    private final Runnable updateTimerRunnable = new Runnable() {
-        @Override
-        public void run() {
-            if (Boolean.TRUE.equals(viewModel.getIsRunning().getValue())) {
-                long currentElapsed = System.currentTimeMillis() - viewModel.getStartTimeMillis();
-                viewModel.updateElapsed(currentElapsed);
-                lblTime.setText(LapRecord.formatTime(currentElapsed));
-                handler.postDelayed(this, 10);
-            }
-        }
-    };
-
-    private final Runnable updateSystemTimeRunnable = new Runnable() {
-        @Override
-        public void run() {
-            updateSystemTime();
-            handler.postDelayed(this, 100);
-        }
-    };
+    // 【2026-10-18 16:12】修改：计时显示改由 FrameTicker 按屏幕刷新驱动（取代每 10ms 自我重投的 updateTimerRunnable），
+    //                      仅在显示的厘秒值变化时刷新；省电模式或失去焦点时降为每秒一次
+    // 【2026-10-18 17:12】修改：帧驱动移入 TimerViewModel，界面在前台时订阅其高频计时通道
+    private final TickChannel.Listener timerTickListener = elapsed -> lblTime.setTime(elapsed);
 
     private ActivityResultLauncher<String> fileSaverLauncher;
 
+    // 【2026-10-18 18:52】新增：本次导出选择的格式，决定文件 MIME 与写出方式
+    // 新增时间：2026年10月18日 18:52
+    // 【2026-10-18 19:34】修改：改为保存 LapExporters 中的格式 id
+    private static final String STATE_EXPORT_FORMAT = "exportFormat";
+    private String exportFormatId;
+    // 【2026-10-18 21:06】新增：本次导出的日期范围与种类筛选
+    private static final String STATE_EXPORT_FROM = "exportFromMillis";
+    private static final String STATE_EXPORT_TO = "exportToMillis";
+    private static final String STATE_EXPORT_CATEGORY = "exportCategory";
+    private LapExportFilter exportFilter = LapExportFilter.all();
+    // 【2026-10-18 21:38】新增：增量导出（自上次导出以来）与追加写入已有文件
+    private static final String STATE_EXPORT_SINCE_LAST = "exportSinceLast";
+    private final ActivityResultLauncher<String[]> appendTargetLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(),
+            this::appendToUri
+    );
+
     // 【2025-11-22 15:05】新增：供 InputDialogFragment 查询当前主题状态
     // 功能作用：确保弹窗样式与主界面一致
     // 新增时间：2025年11月22日 15:05
@@ -97,6 +113,14 @@ public class MainActivity extends AppCompatActivity implements InputDialogFragme
 
         // 【2025-11-22 15:06】初始化 ViewModel
         viewModel = new ViewModelProvider(this).get(TimerViewModel.class);
+        if (savedInstanceState != null) {
+            exportFormatId = savedInstanceState.getString(STATE_EXPORT_FORMAT);
+            LapExportFilter range = savedInstanceState.getBoolean(STATE_EXPORT_SINCE_LAST)
+                    ? LapExportFilter.sinceLastExport()
+                    : LapExportFilter.between(savedInstanceState.getLong(STATE_EXPORT_FROM, Long.MIN_VALUE),
+                            savedInstanceState.getLong(STATE_EXPORT_TO, Long.MAX_VALUE));
+            exportFilter = range.withCategory(savedInstanceState.getString(STATE_EXPORT_CATEGORY));
+        }
 
         setContentView(R.layout.activity_main);
 
@@ -105,6 +129,7 @@ public class MainActivity extends AppCompatActivity implements InputDialogFragme
         lblWeekday = findViewById(R.id.lblWeekday);
         lblSystemDate = findViewById(R.id.lblSystemDate);
         lblSystemTime = findViewById(R.id.lblSystemTime);
+        clockHeader = new ClockHeaderRenderer(this, lblWeekday, lblSystemDate, lblSystemTime);
         lblTime = findViewById(R.id.lblTime);
         btnStartPause = findViewById(R.id.btnStartPause);
         btnLap = findViewById(R.id.btnLap);
@@ -113,26 +138,45 @@ public class MainActivity extends AppCompatActivity implements InputDialogFragme
         btnMode = findViewById(R.id.btnMode);
         lapHeaderRow = findViewById(R.id.lap_header_row);
         recyclerViewLaps = findViewById(R.id.recyclerViewLaps);
+        lblLapsLoading = findViewById(R.id.lblLapsLoading);
 
         // 【2025-11-22 15:08】初始化 RecyclerView
-        lapAdapter = new LapAdapter(this, new ArrayList<>());
+        // 【2026-10-18 11:32】修改：列表数据改为分页窗口，按可见位置从仓库分页加载
+        lapAdapter = new LapAdapter(this, new PagedLapList(viewModel::loadLapPage));
         recyclerViewLaps.setLayoutManager(new LinearLayoutManager(this));
         recyclerViewLaps.setAdapter(lapAdapter);
 
         // 【2025-11-22 15:09】注册文件保存器
+        // 【2026-10-18 18:54】修改：MIME 按所选导出格式在启动时设置
         fileSaverLauncher = registerForActivityResult(
-                new ActivityResultContracts.CreateDocument("application/vnd.ms-excel"),
+                new ActivityResultContracts.CreateDocument("application/vnd.ms-excel") {
+                    @Override
+                    public Intent createIntent(Context context, String input) {
+                        return super.createIntent(context, input)
+                                .setType(LapExporters.getOrDefault(exportFormatId).getMimeType());
+                    }
+                },
                 this::writeFileToUri
         );
 
         // 【2025-11-22 15:10】设置点击监听器
         btnStartPause.setOnClickListener(v -> viewModel.toggleStartPause());
         btnLap.setOnClickListener(v -> recordLap());
-        btnReset.setOnClickListener(v -> viewModel.resetTimer());
+        // 【2026-10-18 23:40】修改：导入进行中点击“重置”改为询问是否取消导入（导入完成会整体替换记录）
+        // 【2026-10-19 15:30】修改：分段记录加载完成前不能重置（加载结果会覆盖清空后的列表）
+        btnReset.setOnClickListener(v -> {
+            if (confirmCancelImport()) return;
+            if (!viewModel.isLapsLoaded()) {
+                Toast.makeText(this, R.string.toast_laps_loading, Toast.LENGTH_SHORT).show();
+                return;
+            }
+            viewModel.resetTimer();
+        });
         btnExport.setOnClickListener(v -> exportData());
         btnMode.setOnClickListener(v -> toggleMode());
 
         btnReset.setOnLongClickListener(v -> {
+            if (confirmCancelImport()) return true;
             LogUtils.log("用户长按“重置”按钮，触发数据导入流程。");
             android.util.Log.d("MainActivity", "Long click on Reset, initiating import.");
             Toast.makeText(this, R.string.toast_import_start, Toast.LENGTH_SHORT).show();
@@ -159,29 +203,50 @@ public class MainActivity extends AppCompatActivity implements InputDialogFragme
             if (running != null) {
                 if (running) {
                     btnStartPause.setText(R.string.btn_pause);
-                    handler.post(updateTimerRunnable);
                 } else {
                     btnStartPause.setText(R.string.btn_start);
-                    handler.removeCallbacks(updateTimerRunnable);
                 }
-                btnLap.setEnabled(running);
+                // 【2026-10-19 12:30】修改：导入期间不能分段
+                updateLapButton();
             }
         });
 
         viewModel.getElapsedMillis().observe(this, elapsed -> {
             if (elapsed != null) {
-                lblTime.setText(LapRecord.formatTime(elapsed));
+                lblTime.setTime(elapsed);
             }
         });
 
-        viewModel.getLapRecords().observe(this, records -> {
-            if (records != null) {
-                lapAdapter.updateRecords(records);
-                recyclerViewLaps.scrollToPosition(records.size() - 1);
+        // 【2026-10-18 20:37】新增：观察后台导出进度
+        viewModel.getExportProgress().observe(this, this::onExportProgress);
+        // 【2026-10-18 23:40】新增：观察后台导入进度
+        viewModel.getImportProgress().observe(this, this::onImportProgress);
+
+        // 【2026-10-19 15:30】新增：分段记录在后台加载，完成前显示加载中并禁用“分段”按钮
+        viewModel.getLapsLoaded().observe(this, loaded -> {
+            lblLapsLoading.setVisibility(Boolean.TRUE.equals(loaded) ? View.GONE : View.VISIBLE);
+            updateLapButton();
+        });
+
+        // 【2026-10-18 12:05】修改：观察细粒度变更事件，新增分段只插入一行，不再整体重绑
+        viewModel.getLapChanges().observe(this, change -> {
+            if (change != null) {
+                lapAdapter.applyChange(change);
+                if ((change.type == LapListChange.Type.INSERTED || change.type == LapListChange.Type.RESET)
+                        && change.newSize > 0) {
+                    recyclerViewLaps.scrollToPosition(change.newSize - 1);
+                }
             }
         });
     }
 
+    @Override
+    public void onWindowFocusChanged(boolean hasFocus) {
+        super.onWindowFocusChanged(hasFocus);
+        viewModel.setTickWindowFocused(hasFocus);
+        clockHeader.setWindowFocused(hasFocus);
+    }
+
     // 【2025-11-22 15:14】完全复用你原有的 toggleMode / applyThemeColors
     private void toggleMode() {
         isNight = !isNight;
@@ -216,6 +281,7 @@ public class MainActivity extends AppCompatActivity implements InputDialogFragme
         lblSystemDate.setTextColor(colorOnSurface);
         lblSystemTime.setTextColor(colorOnSurface);
         lblTime.setTextColor(colorOnSurface);
+        lblLapsLoading.setTextColor(colorOnSurface);
         for (Button button : new Button[]{btnStartPause, btnLap, btnReset, btnExport, btnMode}) {
             ViewCompat.setBackgroundTintList(button, android.content.res.ColorStateList.valueOf(colorPrimary));
             button.setTextColor(colorOnPrimary);
@@ -242,62 +308,141 @@ public class MainActivity extends AppCompatActivity implements InputDialogFragme
         }
     }
 
-    // 【2025-11-22 15:15】完全复用你原有的系统时间更新逻辑
-    private void updateSystemTime() {
-        long nowMillis = System.currentTimeMillis();
-        Date now = new Date(nowMillis);
-        Locale chineseLocale = Locale.CHINA;
-        String[] weekdays = {"", "星期日", "星期一", "星期二", "星期三", "星期四", "星期五", "星期六"};
-        java.util.Calendar cal = java.util.Calendar.getInstance();
-        cal.setTime(now);
-        int dayOfWeek = cal.get(java.util.Calendar.DAY_OF_WEEK);
-        lblWeekday.setText(dayOfWeek >= 1 && dayOfWeek <= 7 ? weekdays[dayOfWeek] : "");
-        SimpleDateFormat dateFormatter = new SimpleDateFormat("yyyy年MM月dd日", chineseLocale);
-        lblSystemDate.setText(dateFormatter.format(now));
-        SimpleDateFormat clockFormatter = new SimpleDateFormat("H:mm:ss", chineseLocale);
-        String formattedTime = clockFormatter.format(now);
-        long centiseconds = (nowMillis % 1000) / 10;
-        lblSystemTime.setText(String.format(Locale.getDefault(), "%s.%02d", formattedTime, centiseconds));
-    }
-
     // 【2025-11-22 15:16】完全复用你原有的 recordLap 逻辑
     private void recordLap() {
         if (!Boolean.TRUE.equals(viewModel.getIsRunning().getValue())) {
             Toast.makeText(this, R.string.toast_start_first, Toast.LENGTH_SHORT).show();
             return;
         }
+        // 【2026-10-19 12:30】新增：导入期间记录的分段会在导入完成时被替换，不允许分段
+        if (viewModel.isImporting()) {
+            Toast.makeText(this, R.string.toast_lap_while_importing, Toast.LENGTH_SHORT).show();
+            return;
+        }
 
         viewModel.toggleStartPause(); // 暂停计时
 
-        long currentElapsed = viewModel.getElapsedMillis().getValue() != null ? viewModel.getElapsedMillis().getValue() : 0L;
-        long currentLapTime = currentElapsed - viewModel.getLastLapEndElapsedMillis();
+        // 【2026-10-18 15:54】修改：分段用时取自计时引擎快照
+        TimerSnapshot snapshot = viewModel.getTimerSnapshot();
+        long currentLapTime = snapshot.lapMillis();
         long totalAccumulated = viewModel.getTotalLapAccumulatedMillis() + currentLapTime;
 
-        SimpleDateFormat timeFormatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-        String startTimeStr = timeFormatter.format(new Date(viewModel.getStartTimeForLap()));
-        String recordTimeStr = timeFormatter.format(new Date(System.currentTimeMillis()));
-        String dateStr = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date(System.currentTimeMillis()));
-
+        // 【2026-10-18 13:02】修改：只传递原始时间戳，格式化推迟到显示 / 导出时
         InputDialogFragment dialog = new InputDialogFragment();
         Bundle bundle = new Bundle();
-        bundle.putString("dateStr", dateStr);
         bundle.putLong("currentLapTime", currentLapTime);
         bundle.putLong("totalLapAccumulatedMillis", totalAccumulated);
-        bundle.putString("startTimeStr", startTimeStr);
-        bundle.putString("recordTimeStr", recordTimeStr);
+        bundle.putLong("startTimeMillis", snapshot.lapStartWallMillis);
+        bundle.putLong("recordTimeMillis", System.currentTimeMillis());
         dialog.setArguments(bundle);
         dialog.show(getSupportFragmentManager(), "InputDialogFragment");
     }
 
     // 【2025-11-22 15:17】完全复用你原有的导出逻辑
     private void exportData() {
-        if (viewModel.getLapRecords().getValue() == null || viewModel.getLapRecords().getValue().isEmpty()) {
+        // 【2026-10-18 20:32】新增：导出进行中再次点击时询问是否取消
+        ExportProgress progress = viewModel.getExportProgress().getValue();
+        if (progress != null && !progress.isFinished()) {
+            new AlertDialog.Builder(this)
+                    .setTitle(R.string.export_cancel_title)
+                    .setMessage(getString(R.string.export_cancel_message, progress.rowsWritten, progress.totalRows))
+                    .setPositiveButton(R.string.btn_cancel_export, (dialog, which) -> viewModel.cancelExport())
+                    .setNegativeButton(R.string.btn_continue_export, null)
+                    .show();
+            return;
+        }
+        // 【2026-10-19 15:30】新增：加载完成前条数为 0，不代表没有记录
+        if (!viewModel.isLapsLoaded()) {
+            Toast.makeText(this, R.string.toast_laps_loading, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (viewModel.getLapCount() == 0) {
             LogUtils.log("没有可导出的记录。");
             Toast.makeText(this, R.string.toast_no_records, Toast.LENGTH_SHORT).show();
             return;
         }
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault());
-        String filename = "TimeManager_" + sdf.format(new Date()) + ".xls";
+        // 【2026-10-18 18:56】修改：先选择导出格式，再启动文件保存器
+        // 【2026-10-18 19:35】修改：格式列表来自 LapExporters 注册表
+        // 【2026-10-18 21:40】修改：末尾增加“追加到已有的 CSV / TSV 文件”
+        List<LapExporter> exporters = LapExporters.all();
+        CharSequence[] formats = new CharSequence[exporters.size() + 1];
+        for (int i = 0; i < exporters.size(); i++) {
+            formats[i] = getString(exporters.get(i).getDisplayNameRes());
+        }
+        formats[exporters.size()] = getString(R.string.export_format_append);
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.export_format_title)
+                .setItems(formats, (dialog, which) -> {
+                    if (which < exporters.size()) {
+                        chooseExportRange(exporters.get(which));
+                    } else {
+                        launchAppendTarget();
+                    }
+                })
+                .show();
+    }
+
+    // 【2026-10-18 21:08】新增：选择导出的日期范围，再选择分段种类
+    // 功能作用：常用“今天 / 最近 7 天 / 本月 / 上月”，按记录时间二分定位后只导出该段
+    // 新增时间：2026年10月18日 21:08
+    private void chooseExportRange(LapExporter exporter) {
+        CharSequence[] ranges = {
+                getString(R.string.export_range_all),
+                getString(R.string.export_range_today),
+                getString(R.string.export_range_last7),
+                getString(R.string.export_range_this_month),
+                getString(R.string.export_range_last_month),
+                getString(R.string.export_range_since_last)
+        };
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.export_range_title)
+                .setItems(ranges, (dialog, which) -> {
+                    long now = System.currentTimeMillis();
+                    LapExportFilter range;
+                    switch (which) {
+                        case 1: range = LapExportFilter.today(now); break;
+                        case 2: range = LapExportFilter.lastDays(7, now); break;
+                        case 3: range = LapExportFilter.month(0, now); break;
+                        case 4: range = LapExportFilter.month(1, now); break;
+                        case 5: range = LapExportFilter.sinceLastExport(); break;
+                        default: range = LapExportFilter.all(); break;
+                    }
+                    chooseExportCategory(exporter, range);
+                })
+                .show();
+    }
+
+    // 【2026-10-19 15:10】修改：种类列表在 IO 线程从存储查询（SELECT DISTINCT），不再取进程内的种类驻留表
+    private void chooseExportCategory(LapExporter exporter, LapExportFilter range) {
+        viewModel.loadExportCategories(categories -> showExportCategories(exporter, range, categories));
+    }
+
+    private void showExportCategories(LapExporter exporter, LapExportFilter range, List<String> categories) {
+        if (isFinishing() || isDestroyed()) return;
+        if (categories.isEmpty()) {
+            launchFileSaver(exporter, range);
+            return;
+        }
+        CharSequence[] items = new CharSequence[categories.size() + 1];
+        items[0] = getString(R.string.export_category_all);
+        for (int i = 0; i < categories.size(); i++) {
+            items[i + 1] = categories.get(i);
+        }
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.export_category_title)
+                .setItems(items, (dialog, which) ->
+                        launchFileSaver(exporter, range.withCategory(which == 0 ? null : categories.get(which - 1))))
+                .show();
+    }
+
+    // 【2026-10-18 18:57】新增：按所选格式生成文件名并启动文件保存器
+    // 新增时间：2026年10月18日 18:57
+    private void launchFileSaver(LapExporter exporter, LapExportFilter filter) {
+        exportFormatId = exporter.getFormatId();
+        exportFilter = filter;
+        // 【2026-10-18 17:54】修改：文件名时间戳改用 TimeFormatService
+        String filename = "TimeManager_" + TimeFormatService.formatFileStamp(System.currentTimeMillis())
+                + "." + exporter.getFileExtension();
         try {
             fileSaverLauncher.launch(filename);
         } catch (Exception e) {
@@ -306,6 +451,45 @@ public class MainActivity extends AppCompatActivity implements InputDialogFragme
         }
     }
 
+    // 【2026-10-18 21:42】新增：选择要追加写入的已有 CSV / TSV 文件
+    // 功能作用：只追加该文件上次导出之后新增的记录（首次追加时为全部记录），已有内容保持不变
+    // 新增时间：2026年10月18日 21:42
+    private void launchAppendTarget() {
+        try {
+            appendTargetLauncher.launch(new String[]{"text/csv", "text/comma-separated-values",
+                    "text/tab-separated-values", "text/plain"});
+        } catch (Exception e) {
+            LogUtils.log("系统发生“文件选择器启动失败”事件：" + e.getMessage());
+            Toast.makeText(this, R.string.toast_file_saver_fail, Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    private void appendToUri(Uri uri) {
+        if (uri == null) return;
+        // 以 .tsv 结尾的文件按 TSV 追加，其余按 CSV
+        String name = queryDisplayName(uri);
+        LapExporter exporter = name != null && name.toLowerCase(Locale.ROOT).endsWith(".tsv")
+                ? LapExporters.getOrDefault("tsv") : LapExporters.getOrDefault("csv");
+        boolean started = viewModel.exportData(uri, exporter, LapExportFilter.sinceLastExport(), true);
+        if (started) {
+            LogUtils.log("开始后台追加导出（" + exporter.getFormatId() + "）: " + uri);
+            Toast.makeText(this, R.string.toast_export_wait, Toast.LENGTH_SHORT).show();
+        } else {
+            Toast.makeText(this, R.string.toast_export_fail, Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    private String queryDisplayName(Uri uri) {
+        try (Cursor cursor = getContentResolver().query(uri, new String[]{OpenableColumns.DISPLAY_NAME}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                return cursor.getString(0);
+            }
+        } catch (Exception e) {
+            android.util.Log.w("MainActivity", "查询文件名失败", e);
+        }
+        return uri.getLastPathSegment();
+    }
+
     // 【2025-11-22 15:18】完全复用你原有的 onFinishInputDialog
     @Override
     public void onFinishInputDialog(String category, String detail) {
@@ -315,39 +499,72 @@ public class MainActivity extends AppCompatActivity implements InputDialogFragme
         Bundle bundle = fragment.getArguments();
         if (bundle == null) return;
 
-        String dateStr = bundle.getString("dateStr");
         long currentLapTime = bundle.getLong("currentLapTime");
         long totalLapAccumulated = bundle.getLong("totalLapAccumulatedMillis");
-        String startTimeStr = bundle.getString("startTimeStr");
-        String recordTimeStr = bundle.getString("recordTimeStr");
+        long startTimeMillis = bundle.getLong("startTimeMillis");
+        long recordTimeMillis = bundle.getLong("recordTimeMillis");
 
         LapRecord newRecord = new LapRecord(
                 viewModel.getLapIndex() + 1,
-                dateStr,
                 currentLapTime,
                 totalLapAccumulated,
-                startTimeStr,
-                recordTimeStr,
+                startTimeMillis,
+                recordTimeMillis,
                 System.currentTimeMillis(),
                 category,
                 detail
         );
-        viewModel.addLapRecord(newRecord);
+        // 【2026-10-19 12:30】修改：输入框打开期间开始了导入时，该分段不会被记录
+        if (!viewModel.addLapRecord(newRecord)) {
+            Toast.makeText(this, viewModel.isImporting() ? R.string.toast_lap_while_importing
+                    : R.string.toast_laps_loading, Toast.LENGTH_SHORT).show();
+        }
     }
 
     // 【2025-11-22 15:19】完全复用你原有的 writeFileToUri
     private void writeFileToUri(Uri uri) {
         if (uri == null) return;
-        boolean success = com.example.timemanager.util.ExcelExportUtil.exportLapRecordsToExcel(this, uri, viewModel.getLapRecords().getValue());
-        if (success) {
-            LogUtils.log("数据已成功导出: " + uri.toString());
-            Toast.makeText(this, R.string.toast_export_success, Toast.LENGTH_SHORT).show();
+        // 【2026-10-18 18:58】修改：按所选格式写出
+        // 【2026-10-18 19:36】修改：经 ViewModel -> LapRepository.export 统一写出，不再直接调用导出工具类
+        // 【2026-10-18 20:34】修改：导出改在后台进行，结果由 onExportProgress 提示
+        boolean started = viewModel.exportData(uri, LapExporters.getOrDefault(exportFormatId), exportFilter, false);
+        if (started) {
+            LogUtils.log("开始后台导出: " + uri.toString());
+            Toast.makeText(this, R.string.toast_export_wait, Toast.LENGTH_SHORT).show();
         } else {
-            LogUtils.log("系统发生“导出失败”事件：Excel 文件写入异常");
+            LogUtils.log("系统发生“导出失败”事件：没有可导出的记录");
             Toast.makeText(this, R.string.toast_export_fail, Toast.LENGTH_SHORT).show();
         }
     }
 
+    // 【2026-10-18 20:36】新增：后台导出进度与结果
+    // 功能作用：导出中在按钮上显示百分比（再次点击可取消），结束后恢复按钮文字并对每个任务提示一次结果
+    // 新增时间：2026年10月18日 20:36
+    private void onExportProgress(ExportProgress progress) {
+        if (progress == null) return;
+        if (!progress.isFinished()) {
+            btnExport.setText(getString(R.string.export_progress, progress.percent()));
+            return;
+        }
+        btnExport.setText(R.string.btn_export);
+        if (!viewModel.markExportAnnounced(progress.jobId)) return;
+        switch (progress.state) {
+            case SUCCEEDED:
+                LogUtils.log("数据已成功导出：" + progress.rowsWritten + " 条");
+                Toast.makeText(this, getString(R.string.toast_export_done,
+                        progress.rowsWritten, (int) progress.rowsPerSecond()), Toast.LENGTH_SHORT).show();
+                break;
+            case CANCELLED:
+                LogUtils.log("用户取消导出，已写出 " + progress.rowsWritten + " 条");
+                Toast.makeText(this, R.string.toast_export_cancelled, Toast.LENGTH_SHORT).show();
+                break;
+            default:
+                LogUtils.log("系统发生“导出失败”事件：文件写入异常");
+                Toast.makeText(this, R.string.toast_export_fail, Toast.LENGTH_SHORT).show();
+                break;
+        }
+    }
+
     // 【2025-11-22 18:55】新增：处理文件选择器返回的 URI
     // 功能作用：将选中的文件交给 ExcelImportUtil 解析，并更新 ViewModel
     // 新增时间：2025年11月22日 18:55
@@ -362,58 +579,116 @@ public class MainActivity extends AppCompatActivity implements InputDialogFragme
             // 授予临时读权限，确保在不同 Android 版本下都能读取文件
             final int takeFlags = Intent.FLAG_GRANT_READ_URI_PERMISSION;
             getContentResolver().takePersistableUriPermission(uri, takeFlags);
+        } catch (SecurityException e) {
+            // 部分文档提供方不支持持久授权，本次读取仍可进行；确实无法读取时由导入结果提示
+            android.util.Log.w("MainActivity", "Persistable permission not granted for URI: " + uri, e);
+        }
+        LogUtils.log("【MainActivity】已选择导入文件 URI：" + uri.toString());
 
-            LogUtils.log("【MainActivity】已选择导入文件 URI：" + uri.toString());
-            Toast.makeText(this, R.string.toast_import_start, Toast.LENGTH_SHORT).show();
+        // 【2026-10-18 23:42】修改：在后台线程读取、解析并分批写入，主线程不再等待；
+        //                      进度与结果由 onImportProgress 显示，成功后 ViewModel 一次性切换为导入的数据
+        Toast.makeText(this, R.string.toast_import_start, Toast.LENGTH_SHORT).show();
+        viewModel.importRecords(uri);
+    }
 
-            List<LapRecord> importedRecords = new ArrayList<>();
-            // 调用导入工具进行解析
-            long maxElapsedMillis = ExcelImportUtil.importLapRecordsFromUri(this, uri, importedRecords);
-
-            if (!importedRecords.isEmpty() && maxElapsedMillis > 0) {
-                // 导入成功，更新 ViewModel
-                viewModel.importRecords(importedRecords, maxElapsedMillis);
-                Toast.makeText(this, R.string.toast_import_success, Toast.LENGTH_LONG).show();
-                LogUtils.log("【MainActivity】数据导入流程成功，共导入 " + importedRecords.size() + " 条记录。");
-            } else {
-                // 导入失败或文件为空/无效
-                // 具体的失败信息已在 ExcelImportUtil 中通过 Toast 提示
-                LogUtils.log("【MainActivity】数据导入流程失败或文件内容无效。");
-            }
+    // 【2026-10-18 23:44】新增：导入进行中时询问是否取消；返回是否正在导入（此时不再执行按钮原有操作）
+    // 新增时间：2026年10月18日 23:44
+    private boolean confirmCancelImport() {
+        ImportProgress progress = viewModel.getImportProgress().getValue();
+        if (progress == null || progress.isFinished()) {
+            return false;
+        }
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.import_cancel_title)
+                .setMessage(getString(R.string.import_cancel_message, progress.rowsParsed))
+                .setPositiveButton(R.string.btn_cancel_import, (dialog, which) -> viewModel.cancelImport())
+                .setNegativeButton(R.string.btn_continue_import, null)
+                .show();
+        return true;
+    }
 
-        } catch (SecurityException e) {
-            Toast.makeText(this, "文件权限不足，无法导入", Toast.LENGTH_LONG).show();
-            LogUtils.log("【MainActivity】系统发生“文件权限不足”错误：" + e.getMessage());
-            android.util.Log.e("MainActivity", "Permission denied for URI: " + uri, e);
-        } catch (Exception e) {
-            Toast.makeText(this, R.string.toast_import_fail, Toast.LENGTH_LONG).show();
-            LogUtils.log("【MainActivity】导入数据发生未知异常：" + e.getMessage());
-            android.util.Log.e("MainActivity", "Import error: ", e);
+    // 【2026-10-18 23:45】新增：后台导入进度与结果
+    // 功能作用：导入中在“重置”按钮上显示进度（文件大小未知时显示已解析条数），结束后恢复按钮文字，
+    //          并对每个任务提示一次结果；失败提示原 ExcelImportUtil 中的对应文字
+    // 新增时间：2026年10月18日 23:45
+    // 【2026-10-19 12:30】修改：导入期间禁用“分段”按钮，结束后按计时状态恢复
+    private void onImportProgress(ImportProgress progress) {
+        if (progress == null) return;
+        updateLapButton();
+        if (!progress.isFinished()) {
+            int percent = progress.percent();
+            btnReset.setText(percent >= 0
+                    ? getString(R.string.import_progress, percent)
+                    : getString(R.string.import_progress_rows, progress.rowsParsed));
+            return;
+        }
+        btnReset.setText(R.string.btn_reset);
+        if (!viewModel.markImportAnnounced(progress.jobId)) return;
+        switch (progress.state) {
+            case SUCCEEDED:
+                LogUtils.log("【MainActivity】数据导入流程成功，共导入 " + progress.rowsParsed + " 条记录，跳过 "
+                        + progress.skippedRows + " 行。");
+                Toast.makeText(this, getString(R.string.toast_import_done, progress.rowsParsed, progress.skippedRows),
+                        Toast.LENGTH_LONG).show();
+                break;
+            case CANCELLED:
+                LogUtils.log("【MainActivity】用户取消导入，已解析 " + progress.rowsParsed + " 条，原数据保持不变。");
+                Toast.makeText(this, R.string.toast_import_cancelled, Toast.LENGTH_SHORT).show();
+                break;
+            default:
+                LogUtils.log("【MainActivity】数据导入流程失败：" + progress.failure);
+                Toast.makeText(this, importFailureMessage(progress.failure), Toast.LENGTH_LONG).show();
+                break;
         }
     }
 
+    // 【2026-10-19 12:30】新增：“分段”按钮只在计时运行且没有进行中的导入时可用
+    // 新增时间：2026年10月19日 12:30
+    // 【2026-10-19 15:30】修改：分段记录加载完成前同样不可用
+    private void updateLapButton() {
+        btnLap.setEnabled(Boolean.TRUE.equals(viewModel.getIsRunning().getValue()) && !viewModel.isImporting()
+                && viewModel.isLapsLoaded());
+    }
+
+    private static int importFailureMessage(ImportProgress.Failure failure) {
+        if (failure == ImportProgress.Failure.EMPTY) return R.string.toast_import_fail_empty;
+        if (failure == ImportProgress.Failure.HEADER) return R.string.toast_import_fail_header;
+        if (failure == ImportProgress.Failure.PERMISSION) return R.string.toast_import_fail_permission;
+        return R.string.toast_import_fail;
+    }
+
+    // 【2026-10-18 18:59】新增：保存所选导出格式，文件保存器返回前 Activity 被重建时仍按该格式写出
+    // 新增时间：2026年10月18日 18:59
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(STATE_EXPORT_FORMAT, exportFormatId);
+        outState.putLong(STATE_EXPORT_FROM, exportFilter.fromMillis);
+        outState.putLong(STATE_EXPORT_TO, exportFilter.toMillis);
+        outState.putString(STATE_EXPORT_CATEGORY, exportFilter.category);
+        outState.putBoolean(STATE_EXPORT_SINCE_LAST, exportFilter.sinceLastExport);
+    }
+
     // 【2025-11-22 15:20】关键修复：正确管理 Runnable 生命周期
     @Override
     protected void onResume() {
         super.onResume();
-        handler.post(updateSystemTimeRunnable);
-        // 如果正在运行，恢复计时器
-        if (Boolean.TRUE.equals(viewModel.getIsRunning().getValue())) {
-            handler.post(updateTimerRunnable);
-        }
+        // 【2026-10-18 17:32】修改：系统时钟改由 ClockHeaderRenderer 按帧渲染
+        clockHeader.start();
+        // 如果正在运行，恢复计时器（订阅后由 ViewModel 按需驱动）
+        viewModel.subscribeElapsedTicks(timerTickListener);
     }
 
     @Override
     protected void onPause() {
         super.onPause();
-        handler.removeCallbacks(updateSystemTimeRunnable);
-        handler.removeCallbacks(updateTimerRunnable);
+        clockHeader.stop();
+        viewModel.unsubscribeElapsedTicks(timerTickListener);
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        handler.removeCallbacksAndMessages(null);
         DaemonManager.stopDaemonService(this);
         LogUtils.log("应用程序正常退出（非系统强杀）");
         getSharedPreferences("TimeManagerPrefs", Context.MODE_PRIVATE)
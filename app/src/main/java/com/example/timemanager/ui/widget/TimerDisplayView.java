@@ -0,0 +1,283 @@
+// 【2026-10-18 16:30】新增：TimerDisplayView - 秒表专用显示控件
+// 功能作用：取代每次刷新都 setText 的 TextView。数字与分隔符按当前字号 / 颜色预先渲染到一张字形图集（每种主题、字号只渲染一次），
+//          每个字符占固定宽度的格子；刷新时只把变化了的格子从图集复制到离屏帧缓冲，再整体贴到画布上。
+//          计时过程中字符宽度不变，不会调用 requestLayout，也就不会让 main_layout 重新测量、布局；
+//          只有小时位数超出预留宽度（超过 99 小时）时才重新布局一次。
+// 新增时间：2026年10月18日 16:30
+// 【2026-10-19 13:10】修改：无障碍描述不再在刷新路径上每秒 setContentDescription（每次都分配 String，
+//                      且负数按秒截断时零点两侧的值会被当成同一秒），改为在辅助服务读取节点信息时生成
+package com.example.timemanager.ui.widget;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+import android.view.accessibility.AccessibilityNodeInfo;
+import androidx.annotation.Nullable;
+import com.example.timemanager.util.DurationFormatter;
+
+public class TimerDisplayView extends View {
+    private static final int[] ATTRS = {android.R.attr.textSize, android.R.attr.textColor};
+    private static final float DEFAULT_TEXT_SIZE_SP = 48f;
+    // 图集中的非数字字形（负数时会出现 '-'）
+    private static final char[] SEPARATORS = {':', '.', '-'};
+    // 预留宽度按两位小时计算，计时不超过 99 小时就不需要重新布局
+    private static final String RESERVED_TEMPLATE = "00:00:00.00";
+    private static final int MAX_CHARS = 32;
+
+    private final Paint glyphPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Rect srcRect = new Rect();
+    private final Rect dstRect = new Rect();
+
+    private float textSizePx;
+    private int textColor = Color.BLACK;
+
+    // 字形图集：10 个数字 + 分隔符，每个字形占一个格子
+    @Nullable
+    private Bitmap atlas;
+    private char atlasZero = '0';
+    private int digitWidth;
+    private final int[] separatorWidths = new int[SEPARATORS.length];
+    private final int[] separatorOffsets = new int[SEPARATORS.length];
+    private int cellHeight;
+
+    // 离屏帧缓冲：保存当前显示内容，只重画变化的格子
+    @Nullable
+    private Bitmap frame;
+    @Nullable
+    private Canvas frameCanvas;
+
+    private final char[] text = new char[MAX_CHARS];
+    private int textLength;
+    private final char[] shown = new char[MAX_CHARS];
+    private int shownLength = -1;
+    private final int[] cellLeft = new int[MAX_CHARS + 1];
+
+    public TimerDisplayView(Context context) {
+        this(context, null);
+    }
+
+    public TimerDisplayView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        textSizePx = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, DEFAULT_TEXT_SIZE_SP,
+                context.getResources().getDisplayMetrics());
+        if (attrs != null) {
+            TypedArray a = context.obtainStyledAttributes(attrs, ATTRS);
+            textSizePx = a.getDimension(0, textSizePx);
+            textColor = a.getColor(1, textColor);
+            a.recycle();
+        }
+        buildAtlas(atlasZero);
+        setTime(0);
+    }
+
+    // 【2026-10-18 16:32】新增：显示指定时长（毫秒）
+    // 功能作用：格式化到复用的字符数组，只重画与上次不同的格子；字符数不变时不触发重新布局
+    // 新增时间：2026年10月18日 16:32
+    public void setTime(long millis) {
+        textLength = DurationFormatter.formatTo(millis, text, 0);
+        if (!ensureGlyphs()) {
+            buildAtlas(detectZero());
+            shownLength = -1;
+        }
+        if (textLength != shownLength) {
+            if (contentWidth(text, textLength) > reservedWidth()) {
+                requestLayout();
+            }
+            redrawAll();
+            return;
+        }
+        boolean changed = false;
+        for (int i = 0; i < textLength; i++) {
+            if (text[i] != shown[i]) {
+                drawCell(i);
+                changed = true;
+            }
+        }
+        if (changed) {
+            invalidate();
+        }
+    }
+
+    public CharSequence getText() {
+        return new String(text, 0, textLength);
+    }
+
+    // 【2026-10-19 13:10】新增：辅助服务读取节点时才生成朗读内容（未在布局中另行指定描述时为当前时长）
+    // 新增时间：2026年10月19日 13:10
+    @Override
+    public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        if (getContentDescription() == null) {
+            info.setContentDescription(getText());
+        }
+    }
+
+    // 【2026-10-18 16:34】新增：设置文字颜色（日夜模式切换时调用），重新渲染图集
+    // 新增时间：2026年10月18日 16:34
+    public void setTextColor(int color) {
+        if (color == textColor) return;
+        textColor = color;
+        buildAtlas(atlasZero);
+        redrawAll();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = Math.max(reservedWidth(), contentWidth(text, textLength)) + getPaddingLeft() + getPaddingRight();
+        int height = cellHeight + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (frame != null) {
+            frame.recycle();
+            frame = null;
+            frameCanvas = null;
+        }
+        if (w > 0 && h > 0) {
+            frame = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+            frameCanvas = new Canvas(frame);
+        }
+        redrawAll();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (frame != null) {
+            canvas.drawBitmap(frame, 0, 0, null);
+        }
+    }
+
+    // 重新计算格子位置并重画全部格子（字符数变化、尺寸变化、换色时）
+    private void redrawAll() {
+        int content = contentWidth(text, textLength);
+        int available = getWidth() - getPaddingLeft() - getPaddingRight();
+        int x = getPaddingLeft() + Math.max(0, (available - content) / 2);
+        for (int i = 0; i < textLength; i++) {
+            cellLeft[i] = x;
+            x += glyphWidth(text[i]);
+        }
+        cellLeft[textLength] = x;
+        if (frameCanvas != null) {
+            frameCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            for (int i = 0; i < textLength; i++) {
+                drawCell(i);
+            }
+        }
+        shownLength = textLength;
+        System.arraycopy(text, 0, shown, 0, textLength);
+        invalidate();
+    }
+
+    // 把第 i 个格子从图集复制到帧缓冲
+    private void drawCell(int i) {
+        shown[i] = text[i];
+        if (frameCanvas == null || atlas == null) return;
+        int top = getPaddingTop() + Math.max(0, (getHeight() - getPaddingTop() - getPaddingBottom() - cellHeight) / 2);
+        dstRect.set(cellLeft[i], top, cellLeft[i + 1], top + cellHeight);
+        frameCanvas.save();
+        frameCanvas.clipRect(dstRect.left, dstRect.top, dstRect.right, dstRect.bottom);
+        frameCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        frameCanvas.restore();
+        int srcLeft = glyphOffset(text[i]);
+        srcRect.set(srcLeft, 0, srcLeft + glyphWidth(text[i]), cellHeight);
+        frameCanvas.drawBitmap(atlas, srcRect, dstRect, null);
+    }
+
+    // 【2026-10-18 16:36】私有方法：渲染字形图集
+    // 功能作用：数字统一按最宽数字的宽度居中绘制，保证等宽；zero 为当前语言环境的零字符
+    // 新增时间：2026年10月18日 16:36
+    private void buildAtlas(char zero) {
+        atlasZero = zero;
+        glyphPaint.setTextSize(textSizePx);
+        glyphPaint.setColor(textColor);
+        glyphPaint.setTextAlign(Paint.Align.CENTER);
+        Paint.FontMetrics metrics = glyphPaint.getFontMetrics();
+        cellHeight = (int) Math.ceil(metrics.descent - metrics.ascent);
+        float widest = 0;
+        for (int d = 0; d < 10; d++) {
+            widest = Math.max(widest, glyphPaint.measureText(String.valueOf((char) (zero + d))));
+        }
+        digitWidth = (int) Math.ceil(widest);
+        int x = digitWidth * 10;
+        for (int s = 0; s < SEPARATORS.length; s++) {
+            separatorOffsets[s] = x;
+            separatorWidths[s] = (int) Math.ceil(glyphPaint.measureText(String.valueOf(SEPARATORS[s])));
+            x += separatorWidths[s];
+        }
+        if (atlas != null) {
+            atlas.recycle();
+        }
+        atlas = Bitmap.createBitmap(Math.max(1, x), Math.max(1, cellHeight), Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(atlas);
+        float baseline = -metrics.ascent;
+        for (int d = 0; d < 10; d++) {
+            canvas.drawText(String.valueOf((char) (zero + d)), d * digitWidth + digitWidth / 2f, baseline, glyphPaint);
+        }
+        for (int s = 0; s < SEPARATORS.length; s++) {
+            canvas.drawText(String.valueOf(SEPARATORS[s]), separatorOffsets[s] + separatorWidths[s] / 2f, baseline, glyphPaint);
+        }
+    }
+
+    private boolean ensureGlyphs() {
+        for (int i = 0; i < textLength; i++) {
+            if (glyphOffset(text[i]) < 0) return false;
+        }
+        return true;
+    }
+
+    // 语言环境切换后数字字符会变（如阿拉伯数字），按当前文本推算零字符
+    private char detectZero() {
+        for (int i = 0; i < textLength; i++) {
+            int digit = Character.digit(text[i], 10);
+            if (digit >= 0) return (char) (text[i] - digit);
+        }
+        return atlasZero;
+    }
+
+    private int glyphOffset(char c) {
+        int digit = c - atlasZero;
+        if (digit >= 0 && digit <= 9) return digit * digitWidth;
+        for (int s = 0; s < SEPARATORS.length; s++) {
+            if (SEPARATORS[s] == c) return separatorOffsets[s];
+        }
+        return -1;
+    }
+
+    private int glyphWidth(char c) {
+        int digit = c - atlasZero;
+        if (digit >= 0 && digit <= 9) return digitWidth;
+        for (int s = 0; s < SEPARATORS.length; s++) {
+            if (SEPARATORS[s] == c) return separatorWidths[s];
+        }
+        return 0;
+    }
+
+    private int contentWidth(char[] chars, int length) {
+        int width = 0;
+        for (int i = 0; i < length; i++) {
+            width += glyphWidth(chars[i]);
+        }
+        return width;
+    }
+
+    private int reservedWidth() {
+        int width = 0;
+        for (int i = 0; i < RESERVED_TEMPLATE.length(); i++) {
+            char c = RESERVED_TEMPLATE.charAt(i);
+            width += c == '0' ? digitWidth : glyphWidth(c);
+        }
+        return width;
+    }
+}
@@ -10,12 +10,23 @@ import android.content.Intent;
 import android.os.Build;
 import android.os.IBinder;
 import androidx.core.app.NotificationCompat;
+import androidx.lifecycle.Observer;
 
 import com.example.timemanager.R;
+import com.example.timemanager.data.export.ExportProgress;
+import com.example.timemanager.data.repository.LapRepository;
 
 public class DaemonService extends Service {
     private static final String CHANNEL_ID = "time_manager_daemon";
     private static final int NOTIFICATION_ID = 1001;
+    // 【2026-10-19 09:10】修改：导出进度使用单独的通知，不再覆盖前台保活通知
+    private static final int EXPORT_NOTIFICATION_ID = 1002;
+
+    // 【2026-10-18 20:40】新增：后台导出进度显示在保活通知中（应用退到后台时仍可看到）
+    private final Observer<ExportProgress> exportObserver = this::updateExportNotification;
+    // 订阅时已结束的导出任务编号：LiveData 会重放最后一个值，服务每次启动都不再重复显示旧结果
+    private long staleExportJob;
+    private boolean exportNotificationActive;
 
     @Override
     public IBinder onBind(Intent intent) {
@@ -30,6 +41,25 @@ public class DaemonService extends Service {
 
         // 【2025-11-22 01:00】新增：记录保活服务启动（间接表示应用进入后台）
         LogUtils.log("保活服务已启动，应用可能进入后台运行");
+
+        ExportProgress last = LapRepository.getExportProgress().getValue();
+        if (last != null && last.isFinished()) {
+            staleExportJob = last.jobId;
+        }
+        LapRepository.getExportProgress().observeForever(exportObserver);
+    }
+
+    @Override
+    public void onDestroy() {
+        LapRepository.getExportProgress().removeObserver(exportObserver);
+        // 服务停止后不再有人更新进度，移除停在中途的进度通知
+        if (exportNotificationActive) {
+            NotificationManager manager = getSystemService(NotificationManager.class);
+            if (manager != null) {
+                manager.cancel(EXPORT_NOTIFICATION_ID);
+            }
+        }
+        super.onDestroy();
     }
 
     private void createNotificationChannel() {
@@ -57,6 +87,35 @@ public class DaemonService extends Service {
                 .build();
     }
 
+    // 【2026-10-18 20:42】新增：按导出进度刷新通知
+    // 功能作用：导出中显示进度条与“已写出 / 总条数”，结束后显示最终条数与吞吐量（条/秒）
+    // 新增时间：2026年10月18日 20:42
+    // 【2026-10-19 09:10】修改：改用单独的通知 id（前台保活通知保持不变），结束后的通知可划掉；跳过订阅前已结束的任务
+    private void updateExportNotification(ExportProgress progress) {
+        if (progress == null || progress.jobId <= staleExportJob) return;
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(this, CHANNEL_ID)
+                .setContentTitle("Time Manager")
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setPriority(NotificationCompat.PRIORITY_LOW)
+                .setOnlyAlertOnce(true)
+                .setOngoing(!progress.isFinished())
+                .setAutoCancel(progress.isFinished());
+        exportNotificationActive = !progress.isFinished();
+        if (!progress.isFinished()) {
+            builder.setContentText(getString(R.string.notification_export_progress, progress.rowsWritten, progress.totalRows))
+                    .setProgress(Math.max(progress.totalRows, 1), progress.rowsWritten, false);
+        } else if (progress.state == ExportProgress.State.SUCCEEDED) {
+            builder.setContentText(getString(R.string.notification_export_done,
+                    progress.rowsWritten, (int) progress.rowsPerSecond()));
+        } else {
+            builder.setContentText(getString(R.string.notification_export_failed));
+        }
+        NotificationManager manager = getSystemService(NotificationManager.class);
+        if (manager != null) {
+            manager.notify(EXPORT_NOTIFICATION_ID, builder.build());
+        }
+    }
+
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         return START_STICKY;
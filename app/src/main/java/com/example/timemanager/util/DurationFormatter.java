@@ -0,0 +1,200 @@
+// 【2026-10-18 13:20】新增：DurationFormatter - 无分配的时长格式化 / 解析工具
+// 功能作用：按 H:mm:ss.SS 把毫秒数写入可复用的 char[] / StringBuilder，取代 String.format（不再创建 Formatter、
+//          不再装箱可变参数）；实例在数值（按厘秒）未变化时直接返回上次的 String，供 10ms 计时刷新使用。
+//          parse 逐字符解析，不做 split，成功路径零分配。输出与原 String.format 实现逐字一致（含本地化数字与负数）。
+// 新增时间：2026年10月18日 13:20
+// 【2026-10-19 13:05】修改：语言环境与零字符放在同一个不可变对象中，经一个 volatile 引用发布，
+//                      导出线程与主线程同时格式化时不会读到新语言环境配旧零字符
+package com.example.timemanager.util;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+public final class DurationFormatter {
+    // 最长输出：负号 + 13 位小时 + ":mm:ss.SS"（各段在负数时可能带负号），32 足够
+    private static final int MAX_LENGTH = 32;
+
+    // 本地化零字符缓存（与 String.format(Locale.getDefault(), "%d") 使用的数字一致）
+    private static volatile ZeroDigit cachedZeroDigit;
+
+    private final char[] buffer = new char[MAX_LENGTH];
+    private long lastKey = Long.MIN_VALUE;
+    private char lastZeroDigit;
+    private String lastText;
+
+    // 【2026-10-18 13:22】新增：格式化为 String（带缓存）
+    // 功能作用：与上次调用处于同一厘秒（且语言环境未变）时直接返回缓存的 String，不产生任何分配
+    // 新增时间：2026年10月18日 13:22
+    public String format(long millis) {
+        char zero = zeroDigit();
+        long key = millis >= 0 ? millis / 10 : millis;
+        if (lastText != null && key == lastKey && zero == lastZeroDigit) {
+            return lastText;
+        }
+        int length = write(buffer, 0, millis, zero);
+        lastKey = key;
+        lastZeroDigit = zero;
+        lastText = new String(buffer, 0, length);
+        return lastText;
+    }
+
+    // 【2026-10-18 13:24】新增：写入调用方提供的 char[]
+    // 功能作用：返回写入的字符数；dest 从 offset 起至少需要 32 个字符的空间
+    // 新增时间：2026年10月18日 13:24
+    public static int formatTo(long millis, char[] dest, int offset) {
+        return write(dest, offset, millis, zeroDigit()) - offset;
+    }
+
+    // 【2026-10-18 13:25】新增：追加到 StringBuilder
+    // 新增时间：2026年10月18日 13:25
+    public static void appendTo(StringBuilder sb, long millis) {
+        char[] tmp = new char[MAX_LENGTH];
+        int length = formatTo(millis, tmp, 0);
+        sb.append(tmp, 0, length);
+    }
+
+    // 【2026-10-18 13:26】新增：一次性格式化（仅分配结果 String 本身）
+    // 新增时间：2026年10月18日 13:26
+    public static String toString(long millis) {
+        char[] tmp = new char[MAX_LENGTH];
+        int length = formatTo(millis, tmp, 0);
+        return new String(tmp, 0, length);
+    }
+
+    // 【2026-10-18 13:28】新增：解析 H:mm:ss.SS 为毫秒数
+    // 功能作用：语义与原 split("[:.]") 实现一致：以 ':' 或 '.' 分成 4 段（忽略末尾空段），每段 trim 后按 Long.parseLong 规则解析。
+    //          段数不为 4 时抛出 IllegalArgumentException，数字非法时抛出 NumberFormatException。
+    // 新增时间：2026年10月18日 13:28
+    public static long parse(CharSequence text) {
+        int length = text.length();
+        // 去掉末尾的空段（与 String.split 丢弃尾部空字符串一致）
+        while (length > 0 && isSeparator(text.charAt(length - 1))) {
+            length--;
+        }
+        if (length == 0) {
+            throw new IllegalArgumentException("Invalid time string format: " + text);
+        }
+
+        // 先数段数，再逐段解析（与原实现先校验段数、后解析数字的顺序一致）
+        int fields = 1;
+        for (int i = 0; i < length; i++) {
+            if (isSeparator(text.charAt(i))) fields++;
+        }
+        if (fields != 4) {
+            throw new IllegalArgumentException("Invalid time string format: " + text);
+        }
+
+        long hours = 0, minutes = 0, seconds = 0, centiseconds = 0;
+        int field = 0;
+        int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || isSeparator(text.charAt(i))) {
+                long value = parseField(text, start, i);
+                switch (field) {
+                    case 0: hours = value; break;
+                    case 1: minutes = value; break;
+                    case 2: seconds = value; break;
+                    default: centiseconds = value; break;
+                }
+                field++;
+                start = i + 1;
+            }
+        }
+        // parts[3] 是两位厘秒，乘以 10 得到毫秒
+        return hours * 3600000L + minutes * 60000L + seconds * 1000L + centiseconds * 10L;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ':' || c == '.';
+    }
+
+    // 与 Long.parseLong(s.trim()) 等价，但不创建子串
+    private static long parseField(CharSequence text, int from, int to) {
+        while (from < to && text.charAt(from) <= ' ') from++;
+        while (to > from && text.charAt(to - 1) <= ' ') to--;
+        if (from >= to) {
+            throw new NumberFormatException("Empty field in: " + text);
+        }
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        char first = text.charAt(from);
+        if (first == '-' || first == '+') {
+            if (first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            }
+            from++;
+            if (from == to) {
+                throw new NumberFormatException("Invalid number in: " + text);
+            }
+        }
+        long multmin = limit / 10;
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(text.charAt(i), 10);
+            if (digit < 0 || result < multmin) {
+                throw new NumberFormatException("Invalid number in: " + text);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new NumberFormatException("Number out of range in: " + text);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    // 写出 "%d:%02d:%02d.%02d"，返回写入结束位置
+    private static int write(char[] buf, int pos, long millis, char zero) {
+        long hours = millis / 3600000L;
+        long minutes = (millis / 60000L) % 60;
+        long seconds = (millis / 1000L) % 60;
+        long centiseconds = (millis % 1000) / 10;
+        pos = writeNumber(buf, pos, hours, 1, zero);
+        buf[pos++] = ':';
+        pos = writeNumber(buf, pos, minutes, 2, zero);
+        buf[pos++] = ':';
+        pos = writeNumber(buf, pos, seconds, 2, zero);
+        buf[pos++] = '.';
+        return writeNumber(buf, pos, centiseconds, 2, zero);
+    }
+
+    // 按 %0<width>d 规则写出整数：负号计入宽度，不足部分以零填充
+    private static int writeNumber(char[] buf, int pos, long value, int width, char zero) {
+        boolean negative = value < 0;
+        long abs = negative ? -value : value; // 各分量远离 Long.MIN_VALUE，取反不会溢出
+        int digits = 1;
+        for (long v = abs; v >= 10; v /= 10) digits++;
+        if (negative) buf[pos++] = '-';
+        for (int pad = width - digits - (negative ? 1 : 0); pad > 0; pad--) {
+            buf[pos++] = zero;
+        }
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            buf[i] = (char) (zero + (int) (abs % 10));
+            abs /= 10;
+        }
+        return end;
+    }
+
+    private static char zeroDigit() {
+        Locale locale = Locale.getDefault();
+        ZeroDigit cached = cachedZeroDigit;
+        if (cached == null || cached.locale != locale) {
+            cached = new ZeroDigit(locale, DecimalFormatSymbols.getInstance(locale).getZeroDigit());
+            cachedZeroDigit = cached;
+        }
+        return cached.zero;
+    }
+
+    // 语言环境与其零字符（不可变，成对发布）
+    private static final class ZeroDigit {
+        final Locale locale;
+        final char zero;
+
+        ZeroDigit(Locale locale, char zero) {
+            this.locale = locale;
+            this.zero = zero;
+        }
+    }
+}
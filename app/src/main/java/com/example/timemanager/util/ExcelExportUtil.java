@@ -1,160 +1,101 @@
 package com.example.timemanager.util;
 
-import android.content.Context;
-import android.net.Uri;
-import android.util.Log;
-import android.widget.Toast;
-
 import com.example.timemanager.data.model.LapRecord;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.List;
 
 /**
  * Excel导出工具类 - 使用轻量级实现避免兼容性问题
  * 修改时间：20251117 22:05 - 替换POI库为轻量级实现
+ * 修改时间：2026-10-19 09:05 - 删除已无调用方的 exportLapRecordsToExcel（弹 Toast、按名称查找字符串资源），
+ *                              导出统一经 LapExporter 在后台执行，这里只保留写出内容的方法
  */
 public class ExcelExportUtil {
-    private static final String TAG = "ExcelExportUtil";
-
-    /**
-     * 导出分段记录数据到XLSX文件
-     * 修改时间：20251117 22:05 - 使用轻量级实现生成Excel文件
-     */
-    public static boolean exportLapRecordsToExcel(Context context, Uri uri,
-                                                  List<LapRecord> lapRecords,
-                                                  int successMsg, int failMsg) {
-        if (uri == null || lapRecords == null || lapRecords.isEmpty()) {
-            return false;
-        }
-
-        try (OutputStream outputStream = context.getContentResolver().openOutputStream(uri)) {
-            // 生成Excel XML内容
-            String excelContent = generateExcelContent(lapRecords);
-
-            // 写入到输出流
-            outputStream.write(excelContent.getBytes("UTF-8"));
-            outputStream.flush();
-
-            if (successMsg != 0) {
-                Toast.makeText(context, successMsg, Toast.LENGTH_LONG).show();
-            }
-            return true;
-
-        } catch (IOException e) {
-            // 【2025-11-20 17:12】修改：保留 Log.e 错误级别，并增加中文日志到文件
-            Log.e(TAG, "写入 Excel 文件时发生错误", e); // Logcat 保持 Error
-            LogUtils.log("系统发生“Excel 写入异常”事件：" + e.getMessage());
-            if (failMsg != 0) {
-                String errorMsg = context.getString(failMsg) + e.getMessage();
-                Toast.makeText(context, errorMsg, Toast.LENGTH_LONG).show();
-            }
-            return false;
-        } catch (Exception e) {
-            // 【2025-11-20 18:04】修改：英文错误日志转中文，并同步到 LogUtils 文件日志
-            Log.e(TAG, "发生未预期的错误", e); // 保留 Log.e
-            LogUtils.log("系统发生“未预期错误”事件：" + e.getMessage());
-            if (failMsg != 0) {
-                String errorMsg = context.getString(failMsg) + e.getMessage();
-                Toast.makeText(context, errorMsg, Toast.LENGTH_LONG).show();
-            }
-            return false;
-        }
-    }
+    private static final String[] HEADERS = {"序号", "日期", "间隔", "间隔累计", "开始时间", "记录时间", "分段种类", "具体事件"};
+    private static final String CELL_OPEN = "    <Cell ss:StyleID=\"Data\"><Data ss:Type=\"String\">";
+    private static final String CELL_CLOSE = "</Data></Cell>\n";
 
     /**
      * 生成Excel XML格式内容
      * 修改时间：20251117 22:05 - 手动生成Excel XML格式
+     * 修改时间：2026-10-18 18:20 - 改为流式写出：经 XmlStreamWriter 按行编码进固定大小的缓冲，
+     *                              内存占用与记录条数无关；输出内容与原 StringBuilder 实现逐字节一致
      */
-    private static String generateExcelContent(List<LapRecord> lapRecords) {
-        StringBuilder sb = new StringBuilder();
+    public static void writeExcelContent(Iterable<LapRecord> lapRecords, OutputStream outputStream) throws IOException {
+        XmlStreamWriter xml = new XmlStreamWriter(outputStream);
 
         // Excel XML头部
-        sb.append("<?xml version=\"1.0\"?>\n");
-        sb.append("<?mso-application progid=\"Excel.Sheet\"?>\n");
-        sb.append("<Workbook xmlns=\"urn:schemas-microsoft-com:office:spreadsheet\"\n");
-        sb.append(" xmlns:o=\"urn:schemas-microsoft-com:office:office\"\n");
-        sb.append(" xmlns:x=\"urn:schemas-microsoft-com:office:excel\"\n");
-        sb.append(" xmlns:ss=\"urn:schemas-microsoft-com:office:spreadsheet\"\n");
-        sb.append(" xmlns:html=\"http://www.w3.org/TR/REC-html40\">\n");
+        xml.raw("<?xml version=\"1.0\"?>\n");
+        xml.raw("<?mso-application progid=\"Excel.Sheet\"?>\n");
+        xml.raw("<Workbook xmlns=\"urn:schemas-microsoft-com:office:spreadsheet\"\n");
+        xml.raw(" xmlns:o=\"urn:schemas-microsoft-com:office:office\"\n");
+        xml.raw(" xmlns:x=\"urn:schemas-microsoft-com:office:excel\"\n");
+        xml.raw(" xmlns:ss=\"urn:schemas-microsoft-com:office:spreadsheet\"\n");
+        xml.raw(" xmlns:html=\"http://www.w3.org/TR/REC-html40\">\n");
 
         // 样式定义
-        sb.append(" <Styles>\n");
-        sb.append("  <Style ss:ID=\"Default\" ss:Name=\"Normal\">\n");
-        sb.append("   <Alignment ss:Vertical=\"Center\"/>\n");
-        sb.append("  </Style>\n");
-        sb.append("  <Style ss:ID=\"Header\">\n");
-        sb.append("   <Font ss:Bold=\"1\" ss:Color=\"#FFFFFF\"/>\n");
-        sb.append("   <Interior ss:Color=\"#366092\" ss:Pattern=\"Solid\"/>\n");
-        sb.append("   <Alignment ss:Horizontal=\"Center\" ss:Vertical=\"Center\"/>\n");
-        sb.append("  </Style>\n");
-        sb.append("  <Style ss:ID=\"Data\">\n");
-        sb.append("   <Alignment ss:Vertical=\"Center\"/>\n");
-        sb.append("  </Style>\n");
-        sb.append(" </Styles>\n");
+        xml.raw(" <Styles>\n");
+        xml.raw("  <Style ss:ID=\"Default\" ss:Name=\"Normal\">\n");
+        xml.raw("   <Alignment ss:Vertical=\"Center\"/>\n");
+        xml.raw("  </Style>\n");
+        xml.raw("  <Style ss:ID=\"Header\">\n");
+        xml.raw("   <Font ss:Bold=\"1\" ss:Color=\"#FFFFFF\"/>\n");
+        xml.raw("   <Interior ss:Color=\"#366092\" ss:Pattern=\"Solid\"/>\n");
+        xml.raw("   <Alignment ss:Horizontal=\"Center\" ss:Vertical=\"Center\"/>\n");
+        xml.raw("  </Style>\n");
+        xml.raw("  <Style ss:ID=\"Data\">\n");
+        xml.raw("   <Alignment ss:Vertical=\"Center\"/>\n");
+        xml.raw("  </Style>\n");
+        xml.raw(" </Styles>\n");
 
         // 工作表
-        sb.append(" <Worksheet ss:Name=\"分段记录\">\n");
-        sb.append("  <Table>\n");
+        xml.raw(" <Worksheet ss:Name=\"分段记录\">\n");
+        xml.raw("  <Table>\n");
 
         // 表头
-        sb.append("   <Row>\n");
-        String[] headers = {"序号", "日期", "间隔", "间隔累计", "开始时间", "记录时间", "分段种类", "具体事件"};
-        for (String header : headers) {
-            sb.append("    <Cell ss:StyleID=\"Header\"><Data ss:Type=\"String\">").append(escapeXml(header)).append("</Data></Cell>\n");
+        xml.raw("   <Row>\n");
+        for (String header : HEADERS) {
+            xml.raw("    <Cell ss:StyleID=\"Header\"><Data ss:Type=\"String\">").text(header).raw("</Data></Cell>\n");
         }
-        sb.append("   </Row>\n");
+        xml.raw("   </Row>\n");
 
-        // 数据行
+        // 数据行：序号与时长直接写入缓冲，不经过中间 String
         for (LapRecord record : lapRecords) {
-            sb.append("   <Row>\n");
-            addCell(sb, String.valueOf(record.getIndex()));
-            addCell(sb, record.getDate());
-            addCell(sb, record.getInterval());
-            addCell(sb, record.getLapTime());
-            addCell(sb, record.getStartTime());
-            addCell(sb, record.getRecordTime());
-            addCell(sb, record.getCategory());
-            addCell(sb, record.getDetail());
-            sb.append("   </Row>\n");
+            xml.raw("   <Row>\n");
+            xml.raw(CELL_OPEN).number(record.getIndex()).raw(CELL_CLOSE);
+            addCell(xml, record.getDate());
+            xml.raw(CELL_OPEN).duration(record.getIntervalMillis()).raw(CELL_CLOSE);
+            xml.raw(CELL_OPEN).duration(record.getLapTimeMillis()).raw(CELL_CLOSE);
+            dateTimeCell(xml, record.getStartTimeMillis(), record.getStartTimeText());
+            dateTimeCell(xml, record.getRecordTimeMillis(), record.getRecordTimeText());
+            addCell(xml, record.getCategory());
+            addCell(xml, record.getDetail());
+            xml.raw("   </Row>\n");
         }
 
-        sb.append("  </Table>\n");
-        sb.append(" </Worksheet>\n");
-        sb.append("</Workbook>");
-
-        return sb.toString();
-    }
-
-    /**
-     * 添加单元格
-     */
-    private static void addCell(StringBuilder sb, String value) {
-        sb.append("    <Cell ss:StyleID=\"Data\"><Data ss:Type=\"String\">")
-                .append(escapeXml(value))
-                .append("</Data></Cell>\n");
+        xml.raw("  </Table>\n");
+        xml.raw(" </Worksheet>\n");
+        xml.raw("</Workbook>");
+        xml.flush();
     }
 
     /**
-     * XML转义
+     * 添加单元格（单遍转义直接写入缓冲）
      */
-    private static String escapeXml(String text) {
-        if (text == null) return "";
-        return text.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&apos;");
+    private static void addCell(XmlStreamWriter xml, String value) throws IOException {
+        xml.raw(CELL_OPEN).text(value).raw(CELL_CLOSE);
     }
 
     /**
-     * 重载方法，使用默认的成功失败消息
-     * 修改时间：20251117 22:05 - 使用轻量级实现生成Excel文件
+     * 时间戳单元格：有时间戳时直接格式化进缓冲，否则写导入时保留的原始文本
+     * 新增时间：2026-10-18 19:44
      */
-    public static boolean exportLapRecordsToExcel(Context context, Uri uri, List<LapRecord> lapRecords) {
-        int successMsg = context.getResources().getIdentifier("toast_export_success", "string", context.getPackageName());
-        int failMsg = context.getResources().getIdentifier("toast_export_fail", "string", context.getPackageName());
-        return exportLapRecordsToExcel(context, uri, lapRecords, successMsg, failMsg);
+    private static void dateTimeCell(XmlStreamWriter xml, long epochMillis, String fallbackText) throws IOException {
+        if (epochMillis != 0) {
+            xml.raw(CELL_OPEN).dateTime(epochMillis).raw(CELL_CLOSE);
+        } else {
+            addCell(xml, fallbackText);
+        }
     }
-}
\ No newline at end of file
+}
@@ -8,9 +8,6 @@ import android.util.Log;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 
 public class LogUtils {
     private static final String TAG = "TimeManagerLog";
@@ -26,7 +23,8 @@ public class LogUtils {
             if (!logDir.exists()) {
                 logDir.mkdirs(); // 自动创建 TimeManager 文件夹
             }
-            String dateStr = new SimpleDateFormat("yyyyMMdd", Locale.getDefault()).format(new Date());
+            // 【2026-10-18 17:52】修改：改用 TimeFormatService，不再临时创建 SimpleDateFormat
+            String dateStr = TimeFormatService.formatDateCompact(System.currentTimeMillis());
             logFile = new File(logDir, "log_" + dateStr + ".txt");
         }
         return logFile;
@@ -38,8 +36,8 @@ public class LogUtils {
         try {
             File file = getLogFile();
             FileWriter writer = new FileWriter(file, true); // true = 追加模式
-            String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.getDefault())
-                    .format(new Date());
+            // 【2026-10-18 17:52】修改：同一秒内的日志共用已格式化的“秒”部分
+            String timestamp = TimeFormatService.formatDateTimeMillis(System.currentTimeMillis());
             String logEntry = "[" + timestamp + "] " + message + "\n";
             writer.write(logEntry);
             writer.close();
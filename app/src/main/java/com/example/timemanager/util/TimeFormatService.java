@@ -0,0 +1,302 @@
+// 【2026-10-18 17:40】新增：TimeFormatService - 全局共享、线程安全的时间戳格式化服务
+// 功能作用：取代各处临时 new SimpleDateFormat（记录分段、导出文件名、每条日志各两次）。
+//          每个线程每种格式只持有一个格式化器（ThreadLocal，语言环境 / 时区变化时才重建），
+//          并按“秒”记忆上一次结果：同一秒内的记录、日志行直接复用已格式化的字符串。
+// 新增时间：2026年10月18日 17:40
+// 修改时间：2026年10月19日 09:40 - 默认时区缓存一份（TimeZone.getDefault() 每次返回副本），
+//          由 ACTION_TIMEZONE_CHANGED 广播刷新；格式化时先校验语言环境 / 时区再查记忆，切换时区后同一秒内不再返回旧结果
+package com.example.timemanager.util;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import androidx.annotation.NonNull;
+import java.text.DecimalFormatSymbols;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+public final class TimeFormatService {
+    public static final String PATTERN_DATE_TIME = "yyyy-MM-dd HH:mm:ss";
+    public static final String PATTERN_DATE_COMPACT = "yyyyMMdd";
+    public static final String PATTERN_FILE_STAMP = "yyyyMMdd_HHmmss";
+
+    private static final int SLOT_DATE_TIME = 0;
+    private static final int SLOT_DATE_COMPACT = 1;
+    private static final int SLOT_FILE_STAMP = 2;
+    private static final String[] PATTERNS = {PATTERN_DATE_TIME, PATTERN_DATE_COMPACT, PATTERN_FILE_STAMP};
+
+    private static final ThreadLocal<PerThread> STATE = ThreadLocal.withInitial(PerThread::new);
+
+    // 缓存的默认时区；为 null 时下次使用重新读取。未注册广播（watchTimeZone）前不缓存，每次读取当前默认时区
+    private static volatile TimeZone cachedZone;
+    private static volatile boolean watchingZone;
+
+    private TimeFormatService() {
+    }
+
+    // 【2026-10-19 09:42】新增：监听时区变化（进程内只注册一次，使用 Application Context）
+    // 新增时间：2026年10月19日 09:42
+    public static synchronized void watchTimeZone(@NonNull Context context) {
+        if (watchingZone) return;
+        context.getApplicationContext().registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                refreshTimeZone();
+            }
+        }, new IntentFilter(Intent.ACTION_TIMEZONE_CHANGED));
+        cachedZone = null;
+        watchingZone = true;
+    }
+
+    // 默认时区已变化：丢弃缓存，各线程的格式化器与日期缓存在下次使用时按新时区重建
+    public static void refreshTimeZone() {
+        cachedZone = null;
+    }
+
+    private static TimeZone currentZone() {
+        TimeZone zone = cachedZone;
+        if (zone == null) {
+            zone = TimeZone.getDefault();
+            if (watchingZone) {
+                cachedZone = zone;
+            }
+        }
+        return zone;
+    }
+
+    // 【2026-10-18 17:42】新增："yyyy-MM-dd HH:mm:ss"（分段开始 / 完成时间、导出）
+    // 新增时间：2026年10月18日 17:42
+    public static String formatDateTime(long epochMillis) {
+        return STATE.get().slots[SLOT_DATE_TIME].format(epochMillis);
+    }
+
+    // 【2026-10-18 17:43】新增："yyyy-MM-dd HH:mm:ss.SSS"（日志时间戳）：秒以上部分走记忆，毫秒直接追加
+    // 新增时间：2026年10月18日 17:43
+    public static String formatDateTimeMillis(long epochMillis) {
+        String seconds = formatDateTime(epochMillis);
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+        StringBuilder sb = new StringBuilder(seconds.length() + 4).append(seconds).append('.');
+        if (millis < 100) sb.append('0');
+        if (millis < 10) sb.append('0');
+        return sb.append(millis).toString();
+    }
+
+    // "yyyyMMdd"（日志文件名）
+    public static String formatDateCompact(long epochMillis) {
+        return STATE.get().slots[SLOT_DATE_COMPACT].format(epochMillis);
+    }
+
+    // "yyyyMMdd_HHmmss"（导出文件名）
+    public static String formatFileStamp(long epochMillis) {
+        return STATE.get().slots[SLOT_FILE_STAMP].format(epochMillis);
+    }
+
+    // 【2026-10-18 17:45】新增：解析 "yyyy-MM-dd HH:mm:ss"，无法解析返回 0
+    // 新增时间：2026年10月18日 17:45
+    // 【2026-10-18 22:20】修改：导入时逐行解析，增加与 formatDateTimeTo 对称的快速路径：
+    //                      日期与上一次解析（或格式化）所在的本地日相同且当天无夏令时切换时，直接由当日零点加时分秒得出；
+    //                      其余情况（含宽松格式、越界的时分秒）仍由格式化器解析，结果不变
+    public static long parseDateTime(String text) {
+        if (text == null) return 0L;
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) return 0L;
+        PerThread state = STATE.get();
+        TimeZone zone = currentZone();
+        long fast = parseOnCachedDay(state, trimmed, zone);
+        if (fast != Long.MIN_VALUE) return fast;
+        ParsePosition position = new ParsePosition(0);
+        Date parsed = state.slots[SLOT_DATE_TIME].formatter().parse(trimmed, position);
+        if (parsed == null || position.getIndex() != trimmed.length()) return 0L;
+        long millis = parsed.getTime();
+        if (millis > 0) {
+            // 记住这一天，同一天的后续记录走快速路径
+            ensureDay(state, millis, zone);
+        }
+        return millis;
+    }
+
+    // 严格的 19 位 ASCII 格式且日期等于缓存的本地日时返回结果，否则返回 Long.MIN_VALUE
+    private static long parseOnCachedDay(PerThread state, String text, TimeZone zone) {
+        if (!state.dayUniform || text.length() != 19 || !zone.getID().equals(state.dayZone)) return Long.MIN_VALUE;
+        if (text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != ' '
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        int hour = digits(text, 11, 13);
+        int minute = digits(text, 14, 16);
+        int second = digits(text, 17, 19);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        if (year * 10000 + month * 100 + day != state.dayKey) return Long.MIN_VALUE;
+        return state.dayStart + (hour * 3600L + minute * 60L + second) * 1000L;
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // 【2026-10-18 17:46】新增：epoch 毫秒 -> 本地日期 yyyyMMdd 整数
+    // 功能作用：记住当前所在本地日的起止时间，同一天内直接返回，跨天时才用 Calendar 计算
+    // 新增时间：2026年10月18日 17:46
+    public static int toDateKey(long epochMillis) {
+        if (epochMillis <= 0) return 0;
+        PerThread state = STATE.get();
+        ensureDay(state, epochMillis, currentZone());
+        return state.dayKey;
+    }
+
+    // 【2026-10-18 20:54】新增：yyyyMMdd 整数 -> 当天本地零点的 epoch 毫秒（日期范围导出使用）
+    // 新增时间：2026年10月18日 20:54
+    public static long startOfDayMillis(int dateKey) {
+        Calendar cal = Calendar.getInstance(currentZone());
+        cal.clear();
+        cal.set(dateKey / 10000, (dateKey / 100) % 100 - 1, dateKey % 100);
+        return cal.getTimeInMillis();
+    }
+
+    // 【2026-10-18 19:40】新增：把 "yyyy-MM-dd HH:mm:ss" 直接写入调用方的 char[]，返回写入的字符数（固定 19）
+    // 功能作用：批量导出时每条记录的开始 / 记录时间各不相同，按秒记忆无法命中；这里复用 toDateKey 的“当日起止”缓存，
+    //          由当日零点起的偏移直接算出时分秒，不经过 SimpleDateFormat、不分配对象。
+    //          当天有夏令时切换、年份不是 4 位或语言环境的数字不是 ASCII 时，回退到格式化器，结果与 formatDateTime 一致。
+    // 新增时间：2026年10月18日 19:40
+    public static int formatDateTimeTo(long epochMillis, char[] dest, int offset) {
+        PerThread state = STATE.get();
+        if (epochMillis > 0 && asciiDigits(state)) {
+            ensureDay(state, epochMillis, currentZone());
+            int year = state.dayKey / 10000;
+            if (state.dayUniform && year >= 1000 && year <= 9999) {
+                int secondOfDay = (int) ((epochMillis - state.dayStart) / 1000L);
+                int key = state.dayKey;
+                dest[offset] = (char) ('0' + year / 1000);
+                dest[offset + 1] = (char) ('0' + year / 100 % 10);
+                dest[offset + 2] = (char) ('0' + year / 10 % 10);
+                dest[offset + 3] = (char) ('0' + year % 10);
+                dest[offset + 4] = '-';
+                twoDigits(dest, offset + 5, key / 100 % 100);
+                dest[offset + 7] = '-';
+                twoDigits(dest, offset + 8, key % 100);
+                dest[offset + 10] = ' ';
+                twoDigits(dest, offset + 11, secondOfDay / 3600);
+                dest[offset + 13] = ':';
+                twoDigits(dest, offset + 14, secondOfDay / 60 % 60);
+                dest[offset + 16] = ':';
+                twoDigits(dest, offset + 17, secondOfDay % 60);
+                return 19;
+            }
+        }
+        String text = formatDateTime(epochMillis);
+        text.getChars(0, text.length(), dest, offset);
+        return text.length();
+    }
+
+    private static void twoDigits(char[] dest, int offset, int value) {
+        dest[offset] = (char) ('0' + value / 10);
+        dest[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    // 当前语言环境的数字是否为 ASCII（与 SimpleDateFormat 输出一致的前提）
+    private static boolean asciiDigits(PerThread state) {
+        Locale locale = Locale.getDefault();
+        if (!locale.equals(state.digitsLocale)) {
+            state.digitsAscii = DecimalFormatSymbols.getInstance(locale).getZeroDigit() == '0';
+            state.digitsLocale = locale;
+        }
+        return state.digitsAscii;
+    }
+
+    // 记住 epochMillis 所在本地日的起止时间，同一天内直接返回，跨天或时区变化时才用 Calendar 计算
+    private static void ensureDay(PerThread state, long epochMillis, TimeZone zone) {
+        if (epochMillis >= state.dayStart && epochMillis < state.dayEnd && zone.getID().equals(state.dayZone)) {
+            return;
+        }
+        Calendar cal = Calendar.getInstance(zone);
+        cal.setTimeInMillis(epochMillis);
+        int key = cal.get(Calendar.YEAR) * 10000 + (cal.get(Calendar.MONTH) + 1) * 100 + cal.get(Calendar.DAY_OF_MONTH);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        state.dayStart = cal.getTimeInMillis();
+        cal.add(Calendar.DAY_OF_MONTH, 1);
+        state.dayEnd = cal.getTimeInMillis();
+        state.dayKey = key;
+        state.dayZone = zone.getID();
+        // 当天长度恰为 24 小时且首尾偏移相同（无夏令时切换）时，时分秒可由零点偏移直接算出
+        state.dayUniform = state.dayEnd - state.dayStart == 86_400_000L
+                && zone.getOffset(state.dayStart) == zone.getOffset(state.dayEnd - 1);
+    }
+
+    // 每个线程的格式化器与记忆
+    private static final class PerThread {
+        final Slot[] slots = new Slot[PATTERNS.length];
+        long dayStart = Long.MAX_VALUE;
+        long dayEnd = Long.MIN_VALUE;
+        int dayKey;
+        String dayZone;
+        boolean dayUniform;
+        Locale digitsLocale;
+        boolean digitsAscii;
+
+        PerThread() {
+            for (int i = 0; i < PATTERNS.length; i++) {
+                slots[i] = new Slot(PATTERNS[i]);
+            }
+        }
+    }
+
+    private static final class Slot {
+        final String pattern;
+        SimpleDateFormat format;
+        Locale locale;
+        TimeZone zone;
+        long second = Long.MIN_VALUE;
+        String text;
+
+        Slot(String pattern) {
+            this.pattern = pattern;
+        }
+
+        // 【2026-10-19 09:44】修改：先经 formatter() 校验语言环境 / 时区（变化时清空记忆），再查按秒的记忆
+        String format(long epochMillis) {
+            SimpleDateFormat formatter = formatter();
+            long second = Math.floorDiv(epochMillis, 1000L);
+            if (second == this.second && text != null) {
+                return text;
+            }
+            text = formatter.format(new Date(epochMillis));
+            this.second = second;
+            return text;
+        }
+
+        // 语言环境或默认时区变化时重建格式化器，并清空记忆；缓存的时区未变时按引用比较即可
+        SimpleDateFormat formatter() {
+            Locale currentLocale = Locale.getDefault();
+            TimeZone currentZone = currentZone();
+            if (format == null || !currentLocale.equals(locale)
+                    || (currentZone != zone && !currentZone.getID().equals(zone.getID()))) {
+                format = new SimpleDateFormat(pattern, currentLocale);
+                format.setTimeZone(currentZone);
+                locale = currentLocale;
+                text = null;
+            }
+            zone = currentZone;
+            return format;
+        }
+    }
+}
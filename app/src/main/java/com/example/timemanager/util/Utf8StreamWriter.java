@@ -0,0 +1,161 @@
+// 【2026-10-18 19:10】新增：Utf8StreamWriter - 直接写字节缓冲的流式 UTF-8 文本输出（由 XmlStreamWriter 抽出）
+// 功能作用：逐字符编码为 UTF-8 写入固定大小的字节缓冲，满了就刷到底层 OutputStream，内存与写出量无关；
+//          数字 / 时长直接格式化进临时字符区，不分配 String。XML 导出（XmlStreamWriter）与 CSV / TSV 导出共用。
+//          不关闭底层流，由调用方（try-with-resources）负责。
+// 新增时间：2026年10月18日 19:10
+package com.example.timemanager.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class Utf8StreamWriter implements Flushable {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    // 单个字符编码后最多 4 字节（代理对），子类写出的转义序列不超过 6 字节（如 &quot;）
+    protected static final int MAX_CHAR_BYTES = 6;
+
+    private final OutputStream out;
+    protected final byte[] buffer;
+    protected int count;
+    // 数字 / 时长格式化的临时字符区，避免每个字段分配 String
+    private final char[] scratch = new char[32];
+
+    public Utf8StreamWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public Utf8StreamWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, 256)];
+    }
+
+    // 原样写出（不做任何转义），按 UTF-8 编码
+    public Utf8StreamWriter raw(CharSequence text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (count == buffer.length) flushBuffer();
+                buffer[count++] = (byte) c;
+            } else {
+                i = encode(text, i, length);
+            }
+        }
+        return this;
+    }
+
+    // 写出 char[] 片段（已知无需转义，如格式化好的时长）
+    public Utf8StreamWriter chars(char[] chars, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                if (count == buffer.length) flushBuffer();
+                buffer[count++] = (byte) c;
+            } else {
+                ensureCapacity(MAX_CHAR_BYTES);
+                encodeBmp(c);
+            }
+        }
+        return this;
+    }
+
+    // 单个 ASCII 字符（分隔符、换行等）
+    public Utf8StreamWriter ascii(char c) throws IOException {
+        if (count == buffer.length) flushBuffer();
+        buffer[count++] = (byte) c;
+        return this;
+    }
+
+    // 写出十进制整数，不分配 String
+    public Utf8StreamWriter number(long value) throws IOException {
+        if (value == Long.MIN_VALUE) return raw(Long.toString(value));
+        int end = scratch.length;
+        int pos = end;
+        boolean negative = value < 0;
+        long abs = negative ? -value : value;
+        do {
+            scratch[--pos] = (char) ('0' + (int) (abs % 10));
+            abs /= 10;
+        } while (abs != 0);
+        if (negative) scratch[--pos] = '-';
+        return chars(scratch, pos, end - pos);
+    }
+
+    // 按 H:mm:ss.SS 写出时长（DurationFormatter 直接写入临时字符区）
+    public Utf8StreamWriter duration(long millis) throws IOException {
+        int length = DurationFormatter.formatTo(millis, scratch, 0);
+        return chars(scratch, 0, length);
+    }
+
+    // 【2026-10-18 19:42】新增：写出 "yyyy-MM-dd HH:mm:ss"（TimeFormatService.formatDateTimeTo 直接写入临时字符区）
+    // 新增时间：2026年10月18日 19:42
+    public Utf8StreamWriter dateTime(long epochMillis) throws IOException {
+        int length = TimeFormatService.formatDateTimeTo(epochMillis, scratch, 0);
+        return chars(scratch, 0, length);
+    }
+
+    // 【2026-10-18 19:12】新增：以 quote 包裹写出，文本中的 quote 字符双写（RFC 4180 的转义规则）
+    // 新增时间：2026年10月18日 19:12
+    public Utf8StreamWriter quoted(CharSequence text, char quote) throws IOException {
+        ascii(quote);
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (count > buffer.length - 2) flushBuffer();
+                buffer[count++] = (byte) c;
+                if (c == quote) buffer[count++] = (byte) c;
+            } else {
+                i = encode(text, i, length);
+            }
+        }
+        return ascii(quote);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    protected final void ensureCapacity(int bytes) throws IOException {
+        if (count > buffer.length - bytes) flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    // 编码 text[i] 处的非 ASCII 字符，返回最后消耗的下标（代理对占两个 char）
+    protected final int encode(CharSequence text, int i, int length) throws IOException {
+        ensureCapacity(MAX_CHAR_BYTES);
+        char c = text.charAt(i);
+        if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, text.charAt(i + 1));
+            buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+            return i + 1;
+        }
+        encodeBmp(c);
+        return i;
+    }
+
+    private void encodeBmp(char c) {
+        if (Character.isSurrogate(c)) {
+            // 孤立代理字符无法编码，与 String.getBytes("UTF-8") 一样替换为 '?'
+            buffer[count++] = (byte) '?';
+        } else if (c < 0x800) {
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        } else {
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+}
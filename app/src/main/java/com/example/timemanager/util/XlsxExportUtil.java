@@ -0,0 +1,201 @@
+// 【2026-10-18 18:40】新增：XlsxExportUtil - 原生 .xlsx（Office Open XML）流式导出
+// 功能作用：原“Excel”导出是 SpreadsheetML 2003 XML 存为 .xls，新版 Excel 打开会弹格式警告，文件也偏大。
+//          这里直接生成 .xlsx：ZipOutputStream 中逐行写出 xl/worksheets/sheet1.xml（经 XmlStreamWriter，
+//          缓冲大小固定），分段种类 / 日期等重复值进入共享字符串表，间隔 / 间隔累计写成数值单元格
+//          （以天为单位 + [h]:mm:ss.00 格式），在 Excel 中可直接求和。
+//          共享字符串只收集重复度高的列（种类、日期），其规模与天数 / 种类数相关，与分段条数无关；
+//          其余文本列使用内联字符串。zip 中各部件的先后顺序不影响解析，因此共享字符串表在工作表之后写出。
+// 新增时间：2026年10月18日 18:40
+// 修改时间：2026年10月19日 09:05 - 删除已无调用方的 exportLapRecordsToXlsx（两个重载），只保留 writeXlsx
+package com.example.timemanager.util;
+
+import com.example.timemanager.data.model.LapRecord;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class XlsxExportUtil {
+    public static final String MIME_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    public static final String SHEET_NAME = "分段记录";
+    private static final String[] HEADERS = {"序号", "日期", "间隔", "间隔累计", "开始时间", "记录时间", "分段种类", "具体事件"};
+    private static final double MILLIS_PER_DAY = 86_400_000d;
+
+    // 单元格样式下标（对应 styles.xml 中 cellXfs 的顺序）
+    private static final int STYLE_HEADER = 1;
+    private static final int STYLE_DURATION = 2;
+
+    /**
+     * 把记录写成完整的 .xlsx 包；不关闭 outputStream
+     * 新增时间：2026-10-18 18:44
+     */
+    public static void writeXlsx(Iterable<LapRecord> lapRecords, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        XmlStreamWriter xml = new XmlStreamWriter(zip);
+
+        putEntry(zip, xml, "[Content_Types].xml", CONTENT_TYPES);
+        putEntry(zip, xml, "_rels/.rels", ROOT_RELS);
+        putEntry(zip, xml, "xl/workbook.xml", WORKBOOK);
+        putEntry(zip, xml, "xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+        putEntry(zip, xml, "xl/styles.xml", STYLES);
+
+        SharedStrings sharedStrings = new SharedStrings();
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        writeSheet(xml, lapRecords, sharedStrings);
+        xml.flush();
+        zip.closeEntry();
+
+        zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+        sharedStrings.write(xml);
+        xml.flush();
+        zip.closeEntry();
+
+        // finish 只写出 zip 目录，不关闭调用方的流
+        zip.finish();
+        outputStream.flush();
+    }
+
+    private static void writeSheet(XmlStreamWriter xml, Iterable<LapRecord> lapRecords, SharedStrings sharedStrings) throws IOException {
+        xml.raw("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+        xml.raw("<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">");
+        xml.raw("<sheetViews><sheetView workbookViewId=\"0\"><pane ySplit=\"1\" topLeftCell=\"A2\" activePane=\"bottomLeft\" state=\"frozen\"/></sheetView></sheetViews>");
+        xml.raw("<cols><col min=\"1\" max=\"1\" width=\"8\" customWidth=\"1\"/>");
+        xml.raw("<col min=\"2\" max=\"4\" width=\"13\" customWidth=\"1\"/>");
+        xml.raw("<col min=\"5\" max=\"6\" width=\"20\" customWidth=\"1\"/>");
+        xml.raw("<col min=\"7\" max=\"7\" width=\"12\" customWidth=\"1\"/>");
+        xml.raw("<col min=\"8\" max=\"8\" width=\"40\" customWidth=\"1\"/></cols>");
+        xml.raw("<sheetData>");
+
+        // 表头
+        xml.raw("<row r=\"1\">");
+        for (String header : HEADERS) {
+            sharedCell(xml, sharedStrings.indexOf(header), STYLE_HEADER);
+        }
+        xml.raw("</row>");
+
+        // 数据行：每行固定 8 个单元格（空值写空内联字符串），列位置无需 r 属性
+        long rowNumber = 1;
+        for (LapRecord record : lapRecords) {
+            rowNumber++;
+            xml.raw("<row r=\"").number(rowNumber).raw("\">");
+            xml.raw("<c><v>").number(record.getIndex()).raw("</v></c>");
+            sharedCell(xml, sharedStrings.indexOf(record.getDate()), 0);
+            durationCell(xml, record.getIntervalMillis());
+            durationCell(xml, record.getLapTimeMillis());
+            inlineCell(xml, record.getStartTime());
+            inlineCell(xml, record.getRecordTime());
+            sharedCell(xml, sharedStrings.indexOf(record.getCategory()), 0);
+            inlineCell(xml, record.getDetail());
+            xml.raw("</row>");
+        }
+
+        xml.raw("</sheetData></worksheet>");
+    }
+
+    private static void sharedCell(XmlStreamWriter xml, int index, int style) throws IOException {
+        xml.raw(style != 0 ? "<c t=\"s\" s=\"" + style + "\"><v>" : "<c t=\"s\"><v>").number(index).raw("</v></c>");
+    }
+
+    private static void inlineCell(XmlStreamWriter xml, String value) throws IOException {
+        xml.raw("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">").text(value).raw("</t></is></c>");
+    }
+
+    // 时长以“天”为单位的小数保存，Excel 按 [h]:mm:ss.00 显示，可直接参与 SUM
+    private static void durationCell(XmlStreamWriter xml, long millis) throws IOException {
+        xml.raw("<c s=\"" + STYLE_DURATION + "\"><v>").raw(Double.toString(millis / MILLIS_PER_DAY)).raw("</v></c>");
+    }
+
+    private static void putEntry(ZipOutputStream zip, XmlStreamWriter xml, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        xml.raw(content);
+        xml.flush();
+        zip.closeEntry();
+    }
+
+    // 共享字符串表：按首次出现顺序编号
+    private static final class SharedStrings {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private long references;
+
+        int indexOf(String value) {
+            String key = value != null ? value : "";
+            references++;
+            Integer index = indexes.get(key);
+            if (index == null) {
+                index = values.size();
+                indexes.put(key, index);
+                values.add(key);
+            }
+            return index;
+        }
+
+        void write(XmlStreamWriter xml) throws IOException {
+            xml.raw("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+            xml.raw("<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"")
+                    .number(references).raw("\" uniqueCount=\"").number(values.size()).raw("\">");
+            for (String value : values) {
+                xml.raw("<si><t xml:space=\"preserve\">").text(value).raw("</t></si>");
+            }
+            xml.raw("</sst>");
+        }
+    }
+
+    private static final String CONTENT_TYPES =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                    + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                    + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                    + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                    + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                    + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+                    + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+                    + "<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>"
+                    + "</Types>";
+
+    private static final String ROOT_RELS =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                    + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                    + "</Relationships>";
+
+    private static final String WORKBOOK =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                    + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+                    + " xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+                    + "<sheets><sheet name=\"" + SHEET_NAME + "\" sheetId=\"1\" r:id=\"rId1\"/></sheets>"
+                    + "</workbook>";
+
+    private static final String WORKBOOK_RELS =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                    + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                    + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+                    + "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>"
+                    + "<Relationship Id=\"rId3\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings\" Target=\"sharedStrings.xml\"/>"
+                    + "</Relationships>";
+
+    // cellXfs：0 默认，1 表头（白色粗体 + 蓝底，与 SpreadsheetML 导出一致），2 时长
+    private static final String STYLES =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                    + "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                    + "<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"[h]:mm:ss.00\"/></numFmts>"
+                    + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+                    + "<font><b/><sz val=\"11\"/><color rgb=\"FFFFFFFF\"/><name val=\"Calibri\"/></font></fonts>"
+                    + "<fills count=\"3\"><fill><patternFill patternType=\"none\"/></fill>"
+                    + "<fill><patternFill patternType=\"gray125\"/></fill>"
+                    + "<fill><patternFill patternType=\"solid\"><fgColor rgb=\"FF366092\"/><bgColor indexed=\"64\"/></patternFill></fill></fills>"
+                    + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+                    + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                    + "<cellXfs count=\"3\">"
+                    + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+                    + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"2\" borderId=\"0\" xfId=\"0\" applyFont=\"1\" applyFill=\"1\" applyAlignment=\"1\">"
+                    + "<alignment horizontal=\"center\" vertical=\"center\"/></xf>"
+                    + "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+                    + "</cellXfs>"
+                    + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+                    + "</styleSheet>";
+}
@@ -0,0 +1,96 @@
+// 【2026-10-18 18:10】新增：XmlStreamWriter - 直接写字节缓冲的流式 XML 文本输出
+// 功能作用：导出时不再把整个文档拼进 StringBuilder 再 toString / getBytes（峰值约为文件大小的 3 倍），
+//          而是逐字符编码为 UTF-8 写入固定大小的字节缓冲，满了就刷到底层 OutputStream，内存与行数无关。
+//          text() 在同一遍扫描中完成 XML 转义（& < > " '），不再对每个单元格做 5 次 String.replace。
+//          不关闭底层流，由调用方（try-with-resources）负责。
+// 修改时间：2026年10月18日 19:10 - 缓冲与 UTF-8 编码抽到 Utf8StreamWriter，供 CSV / TSV 导出共用
+// 新增时间：2026年10月18日 18:10
+package com.example.timemanager.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public final class XmlStreamWriter extends Utf8StreamWriter {
+
+    public XmlStreamWriter(OutputStream out) {
+        super(out);
+    }
+
+    public XmlStreamWriter(OutputStream out, int bufferSize) {
+        super(out, bufferSize);
+    }
+
+    // 【2026-10-18 18:14】新增：写出元素文本 / 属性值，单遍转义；null 视为空串（与原 escapeXml 一致）
+    // 新增时间：2026年10月18日 18:14
+    public XmlStreamWriter text(CharSequence text) throws IOException {
+        if (text == null) return this;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            ensureCapacity(MAX_CHAR_BYTES);
+            switch (c) {
+                case '&': put('&', 'a', 'm', 'p', ';'); break;
+                case '<': put('&', 'l', 't', ';'); break;
+                case '>': put('&', 'g', 't', ';'); break;
+                case '"': put('&', 'q', 'u', 'o', 't', ';'); break;
+                case '\'': put('&', 'a', 'p', 'o', 's', ';'); break;
+                default:
+                    if (c < 0x80) {
+                        buffer[count++] = (byte) c;
+                    } else {
+                        i = encode(text, i, length);
+                    }
+                    break;
+            }
+        }
+        return this;
+    }
+
+    // 以下为返回类型收窄的重写，便于与 text() 链式调用
+    @Override
+    public XmlStreamWriter raw(CharSequence text) throws IOException {
+        super.raw(text);
+        return this;
+    }
+
+    @Override
+    public XmlStreamWriter chars(char[] chars, int offset, int length) throws IOException {
+        super.chars(chars, offset, length);
+        return this;
+    }
+
+    @Override
+    public XmlStreamWriter number(long value) throws IOException {
+        super.number(value);
+        return this;
+    }
+
+    @Override
+    public XmlStreamWriter duration(long millis) throws IOException {
+        super.duration(millis);
+        return this;
+    }
+
+    @Override
+    public XmlStreamWriter dateTime(long epochMillis) throws IOException {
+        super.dateTime(epochMillis);
+        return this;
+    }
+
+    private void put(char a, char b, char c, char d) {
+        buffer[count++] = (byte) a;
+        buffer[count++] = (byte) b;
+        buffer[count++] = (byte) c;
+        buffer[count++] = (byte) d;
+    }
+
+    private void put(char a, char b, char c, char d, char e) {
+        put(a, b, c, d);
+        buffer[count++] = (byte) e;
+    }
+
+    private void put(char a, char b, char c, char d, char e, char f) {
+        put(a, b, c, d, e);
+        buffer[count++] = (byte) f;
+    }
+}
@@ -0,0 +1,53 @@
+// 【2026-10-18 11:45】新增：LapListChange - 分段记录列表的细粒度变更事件
+// 功能作用：由 TimerViewModel 发布“在 N 处插入 / 区间变化 / 整体重置”事件，
+//          LapAdapter 据此调用 notifyItemInserted / notifyItemRangeChanged，新增分段时不再重新绑定已有行。
+// 新增时间：2026年10月18日 11:45
+package com.example.timemanager.viewmodel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.example.timemanager.data.model.LapRecord;
+import java.util.Collections;
+import java.util.List;
+
+public final class LapListChange {
+
+    public enum Type {
+        INSERTED,      // 在 positionStart 处插入 itemCount 条（items 为插入的记录）
+        RANGE_CHANGED, // [positionStart, positionStart + itemCount) 内容变化
+        REMOVED,       // 从 positionStart 起删除 itemCount 条（其后各条的间隔累计随之变化）
+        RESET          // 整体替换（重置、导入、首次加载）
+    }
+
+    public final Type type;
+    public final int positionStart;
+    public final int itemCount;
+    // 变更完成后的列表总数；LiveData 只投递最新值，接收方可据此判断是否漏掉了中间事件
+    public final int newSize;
+    @NonNull
+    public final List<LapRecord> items;
+
+    private LapListChange(Type type, int positionStart, int itemCount, int newSize, @Nullable List<LapRecord> items) {
+        this.type = type;
+        this.positionStart = positionStart;
+        this.itemCount = itemCount;
+        this.newSize = newSize;
+        this.items = items != null ? items : Collections.emptyList();
+    }
+
+    public static LapListChange inserted(int position, @NonNull List<LapRecord> items, int newSize) {
+        return new LapListChange(Type.INSERTED, position, items.size(), newSize, items);
+    }
+
+    public static LapListChange rangeChanged(int positionStart, int itemCount, int newSize) {
+        return new LapListChange(Type.RANGE_CHANGED, positionStart, itemCount, newSize, null);
+    }
+
+    public static LapListChange removed(int positionStart, int itemCount, int newSize) {
+        return new LapListChange(Type.REMOVED, positionStart, itemCount, newSize, null);
+    }
+
+    public static LapListChange reset(int newSize) {
+        return new LapListChange(Type.RESET, 0, newSize, newSize, null);
+    }
+}
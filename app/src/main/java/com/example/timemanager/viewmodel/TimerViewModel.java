@@ -5,16 +5,31 @@ package com.example.timemanager.viewmodel;
 
 import android.app.Application;
 import android.content.SharedPreferences;
+import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import com.example.timemanager.data.collection.LapIntervalIndex;
+import com.example.timemanager.data.export.ExportProgress;
+import com.example.timemanager.data.export.LapExportFilter;
+import com.example.timemanager.data.export.LapExporter;
+import com.example.timemanager.data.importer.ImportMonitor;
+import com.example.timemanager.data.importer.ImportProgress;
 import com.example.timemanager.data.model.LapRecord;
 import com.example.timemanager.data.repository.LapRepository;
+import com.example.timemanager.timer.FrameTicker;
+import com.example.timemanager.timer.SystemTimerClock;
+import com.example.timemanager.timer.TickChannel;
+import com.example.timemanager.timer.TimerClock;
+import com.example.timemanager.timer.TimerEngine;
+import com.example.timemanager.timer.TimerSnapshot;
 import com.example.timemanager.util.LogUtils;
-import java.util.ArrayList;
+import com.example.timemanager.util.TimeFormatService;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Consumer;
 
 import androidx.annotation.NonNull; // 确保有这个导入，以支持 @NonNull
 import com.example.timemanager.data.model.LapRecord;
@@ -27,16 +42,33 @@ public class TimerViewModel extends AndroidViewModel {
     // UI State
     private final MutableLiveData<Boolean> isRunning = new MutableLiveData<>(false);
     private final MutableLiveData<Long> elapsedMillis = new MutableLiveData<>(0L);
-    private final MutableLiveData<List<LapRecord>> lapRecords = new MutableLiveData<>(new ArrayList<>());
+    // 【2026-10-18 14:20】修改：持有不可变的列表快照，追加不再整表复制；观察者拿到的列表可跨线程安全读取
+    // 【2026-10-18 15:02】修改：改为 LapTimeline，间隔累计由前缀和索引给出，修改 / 删除任一条为 O(log n)
+    // 【2026-10-19 11:52】修改：不再在内存中持有记录（原 lapRecords / laps）：列表按页从存储读取，
+    //                      这里只保留只含间隔的前缀和索引（条数、间隔累计、区间总时长），导出时由仓库从存储读取快照
+    private LapIntervalIndex intervals = new LapIntervalIndex();
     private final MutableLiveData<Boolean> isNightMode = new MutableLiveData<>(false);
+    // 【2026-10-19 15:30】新增：分段索引是否已从存储加载完成（启动时在 IO 线程加载，完成前列表显示加载中）
+    private final MutableLiveData<Boolean> lapsLoaded = new MutableLiveData<>(false);
+    // 【2026-10-18 12:00】新增：列表细粒度变更事件（插入 / 区间变化 / 重置）
+    private final MutableLiveData<LapListChange> lapChanges = new MutableLiveData<>();
 
     // Internal state
-    private long startTimeMillis = 0;
-    private long pauseOffsetMillis = 0;
-    private long startTimeForLap = 0;
-    private long lastLapEndElapsedMillis = 0;
+    // 【2026-10-18 15:40】修改：开始 / 暂停 / 分段计时状态统一交给 TimerEngine（单调时钟），此处只保留记录相关状态
+    // 【2026-10-19 09:34】修改：时钟需要 Context 读取开机序号，在构造函数中创建
+    private final SystemTimerClock clock;
+    private final TimerEngine timerEngine;
+    // 【2026-10-18 17:06】新增：高频计时值通道（按帧、按厘秒去重），只在有订阅者且计时运行时由 FrameTicker 驱动
+    private final TickChannel elapsedTicks = new TickChannel(Looper.getMainLooper(), active -> updateTickDriver());
+    private final FrameTicker frameTicker;
+    private long lastTickCentis = -1;
     private long totalLapAccumulatedMillis = 0;
     private int lapIndex = 0;
+    // 【2026-10-18 20:24】新增：已提示过结果的最后一个导出任务编号
+    private long lastAnnouncedExportJob;
+    // 【2026-10-18 23:32】新增：本界面发起、尚未结束的导入任务，以及已提示过结果的最后一个导入任务编号
+    private ImportMonitor activeImport;
+    private long lastAnnouncedImportJob;
 
     // 【2025-11-22 06:07】新增构造函数
     // 功能作用：初始化仓库、偏好设置，并加载上次状态
@@ -45,6 +77,20 @@ public class TimerViewModel extends AndroidViewModel {
         super(application);
         this.lapRepository = new LapRepository(application);
         this.prefs = application.getSharedPreferences("TimeManagerPrefs", Application.MODE_PRIVATE);
+        this.clock = new SystemTimerClock(application);
+        this.timerEngine = new TimerEngine(clock);
+        this.frameTicker = new FrameTicker(application, this::onTickFrame);
+        // 【2026-10-19 09:45】新增：时间格式化服务缓存默认时区，切换时区时由广播刷新
+        TimeFormatService.watchTimeZone(application);
+        // 进程内已结束的导出任务在新界面中不再重复提示
+        ExportProgress lastExport = LapRepository.getExportProgress().getValue();
+        if (lastExport != null && lastExport.isFinished()) {
+            lastAnnouncedExportJob = lastExport.jobId;
+        }
+        ImportProgress lastImport = LapRepository.getImportProgress().getValue();
+        if (lastImport != null && lastImport.isFinished()) {
+            lastAnnouncedImportJob = lastImport.jobId;
+        }
         loadState();
     }
 
@@ -56,12 +102,41 @@ public class TimerViewModel extends AndroidViewModel {
     // 【2025-11-22 06:09】新增：获取已过时间（供 View 观察）
     // 功能作用：暴露 LiveData 供 MainActivity 更新时间显示
     // 新增时间：2025年11月22日 06:09
+    // 【2026-10-18 15:42】修改：仅在开始 / 暂停 / 重置 / 导入时更新；运行中的实时值请读取 getTimerSnapshot()
     public LiveData<Long> getElapsedMillis() { return elapsedMillis; }
 
+    // 【2026-10-18 15:43】新增：获取计时快照（按需计算，无需轮询）
+    // 功能作用：界面刷新、记分段时读取当前总计时与分段用时
+    // 新增时间：2026年10月18日 15:43
+    public TimerSnapshot getTimerSnapshot() { return timerEngine.snapshot(); }
+
+    // 【2026-10-18 17:08】新增：订阅 / 取消订阅高频计时值（毫秒，基本类型回调，只投递最新值）
+    // 功能作用：界面可见时订阅即可逐帧刷新秒表；低频状态（运行中、记录、主题）仍通过 LiveData 观察
+    // 新增时间：2026年10月18日 17:08
+    public void subscribeElapsedTicks(@NonNull TickChannel.Listener listener) { elapsedTicks.subscribe(listener); }
+    public void unsubscribeElapsedTicks(@NonNull TickChannel.Listener listener) { elapsedTicks.unsubscribe(listener); }
+
+    // 【2026-10-18 17:09】新增：窗口焦点变化（失去焦点时计时刷新降为每秒一次）
+    // 新增时间：2026年10月18日 17:09
+    public void setTickWindowFocused(boolean focused) { frameTicker.setWindowFocused(focused); }
+
     // 【2025-11-22 06:10】新增：获取分段记录列表（供 View 观察）
     // 功能作用：供 RecyclerView Adapter 更新数据
     // 新增时间：2025年11月22日 06:10
-    public LiveData<List<LapRecord>> getLapRecords() { return lapRecords; }
+    // 【2026-10-19 11:52】修改：记录不再整体放在 LiveData 中，改为提供条数；内容经 loadLapPage 分页读取，变化经 getLapChanges 通知
+    public int getLapCount() { return intervals.size(); }
+
+    // 【2026-10-18 12:01】新增：获取列表变更事件（供 View 观察）
+    // 功能作用：Adapter 据此做增量刷新，而不是每次整体 notifyDataSetChanged
+    // 新增时间：2026年10月18日 12:01
+    public LiveData<LapListChange> getLapChanges() { return lapChanges; }
+
+    // 【2026-10-19 15:30】新增：分段索引加载状态（供 View 观察）
+    // 功能作用：加载完成前 intervals 是空的占位索引，其主键与总时长都不可信，不能追加、修改、删除或重置记录
+    // 新增时间：2026年10月19日 15:30
+    public LiveData<Boolean> getLapsLoaded() { return lapsLoaded; }
+
+    public boolean isLapsLoaded() { return Boolean.TRUE.equals(lapsLoaded.getValue()); }
 
     // 【2025-11-22 06:11】新增：获取日夜模式状态（供 View 观察）
     // 功能作用：触发主题切换
@@ -84,9 +159,9 @@ public class TimerViewModel extends AndroidViewModel {
     // 功能作用：设置起始时间戳
     // 新增时间：2025年11月22日 06:13
     private void startTimer() {
+        timerEngine.start();
         isRunning.setValue(true);
-        startTimeMillis = System.currentTimeMillis() - (elapsedMillis.getValue() != null ? elapsedMillis.getValue() : 0L);
-        startTimeForLap = System.currentTimeMillis();
+        updateTickDriver();
         LogUtils.log("【TimerViewModel】开始计时");
     }
 
@@ -94,11 +169,10 @@ public class TimerViewModel extends AndroidViewModel {
     // 功能作用：记录暂停偏移量
     // 新增时间：2025年11月22日 06:14
     private void pauseTimer() {
+        timerEngine.pause();
+        updateTickDriver();
+        elapsedMillis.setValue(timerEngine.elapsedMillis());
         isRunning.setValue(false);
-        Long current = elapsedMillis.getValue();
-        if (current != null) {
-            pauseOffsetMillis = current;
-        }
         LogUtils.log("【TimerViewModel】暂停计时");
     }
 
@@ -106,16 +180,21 @@ public class TimerViewModel extends AndroidViewModel {
     // 功能作用：清空所有状态和记录
     // 新增时间：2025年11月22日 06:15
     public void resetTimer() {
+        // 【2026-10-19 15:30】新增：加载完成前忽略（之后到达的加载结果会覆盖已清空的列表）
+        if (!isLapsLoaded()) {
+            LogUtils.log("【TimerViewModel】分段记录加载中，忽略重置");
+            return;
+        }
+        timerEngine.reset();
+        updateTickDriver();
         isRunning.setValue(false);
         elapsedMillis.setValue(0L);
-        pauseOffsetMillis = 0;
-        startTimeMillis = 0;
         lapIndex = 0;
-        startTimeForLap = 0;
-        lastLapEndElapsedMillis = 0;
         totalLapAccumulatedMillis = 0;
-        lapRecords.setValue(new ArrayList<>());
-        lapRepository.saveLapRecords(new ArrayList<>());
+        // 【2026-10-19 14:24】修改：清空而不是新建索引，新记录的主键不回退
+        intervals.clear();
+        lapRepository.saveLapRecords(Collections.emptyList());
+        lapChanges.setValue(LapListChange.reset(0));
         LogUtils.log("【TimerViewModel】重置计时器");
         saveState();
     }
@@ -123,48 +202,99 @@ public class TimerViewModel extends AndroidViewModel {
     // 【2025-11-22 16:10】修复：正确维护 totalLapAccumulatedMillis 累计值
 // 功能作用：确保“间隔累计”列显示各分段时间的真实累加结果
 // 修改时间：2025年11月22日 16:10
-    public void addLapRecord(LapRecord record) {
-        List<LapRecord> current = new ArrayList<>(lapRecords.getValue());
-        current.add(record);
-        lapRecords.setValue(current);
-        lapIndex = current.size();
-
-        // 【2025-11-22 16:11】关键修复：从 record 的 interval 字段反解析出毫秒值并累加
-        // 注意：此方法仅用于兼容现有架构，理想情况应传入原始 long 值
-        long intervalMillis = parseTimeToMillis(record.getInterval());
-        totalLapAccumulatedMillis += intervalMillis;
-
-        Long currentElapsed = elapsedMillis.getValue();
-        if (currentElapsed != null) {
-            lastLapEndElapsedMillis = currentElapsed;
+    // 【2026-10-19 12:30】修改：导入期间拒绝追加（返回 false），见 isImporting
+    public boolean addLapRecord(LapRecord record) {
+        if (isImporting()) {
+            LogUtils.log("【TimerViewModel】导入进行中，忽略分段记录：序号 " + record.getIndex());
+            return false;
         }
+        // 【2026-10-19 15:30】新增：加载完成前主键无法分配（占位索引从 1 开始）
+        if (!isLapsLoaded()) {
+            LogUtils.log("【TimerViewModel】分段记录加载中，忽略分段记录：序号 " + record.getIndex());
+            return false;
+        }
+        // 【2026-10-19 14:24】新增：写入存储前分配主键，之后的修改 / 删除 / 分页按主键访问存储
+        record = record.withId(intervals.nextId());
+        // 【2026-10-18 11:26】修改：先提交持久化再通知界面，分页列表读取末页时能看到新记录
+        lapRepository.appendLapRecord(record);
+        // 【2026-10-18 14:22】修改：结构共享追加（均摊 O(1)），旧快照保持不变，导出等读取方不受影响
+        // 【2026-10-19 11:52】修改：只把间隔追加到前缀和索引，记录本身只在存储中
+        intervals.append(record);
+        lapChanges.setValue(LapListChange.inserted(intervals.size() - 1, Collections.singletonList(record), intervals.size()));
+        // 【2026-10-18 15:04】修改：删除记录后总数会小于已用序号，序号取已用最大值，避免与现有记录冲突
+        lapIndex = Math.max(lapIndex, record.getIndex());
+
+        // 【2026-10-18 13:00】修改：v2 记录直接保存毫秒值，不再反解析 interval 字符串
+        totalLapAccumulatedMillis += record.getIntervalMillis();
+
+        // 【2026-10-18 15:44】修改：分段边界由计时引擎记录（取当前总计时）
+        timerEngine.markLap();
 
-        lapRepository.saveLapRecords(current);
         LogUtils.log("【TimerViewModel】新增分段记录：" + record.getCategory() +
                 " | 间隔=" + record.getInterval() +
                 " | 累计=" + record.getLapTime() +
                 " | 内部累计值更新为=" + totalLapAccumulatedMillis);
         saveState();
+        return true;
     }
 
-    // 【2025-11-22 16:12】新增：将格式化的时间字符串（如 "1:02:03.45"）解析为毫秒
-// 功能作用：支持从 LapRecord 的 interval 字段反推原始毫秒值，用于累计计算
-// 新增时间：2025年11月22日 16:12
-    private long parseTimeToMillis(String timeStr) {
-        try {
-            String[] parts = timeStr.split(":");
-            if (parts.length == 3) {
-                String[] secCenti = parts[2].split("\\.");
-                long hours = Long.parseLong(parts[0]);
-                long minutes = Long.parseLong(parts[1]);
-                long seconds = Long.parseLong(secCenti[0]);
-                long centiseconds = secCenti.length > 1 ? Long.parseLong(secCenti[1]) : 0;
-                return ((hours * 3600 + minutes * 60 + seconds) * 1000) + (centiseconds * 10);
-            }
-        } catch (Exception e) {
-            LogUtils.log("【TimerViewModel.parseTimeToMillis】解析时间字符串失败: " + timeStr + " | 错误: " + e.getMessage());
+    // 【2026-10-18 11:30】新增：分页读取记录（供列表分页窗口使用）
+    // 功能作用：在 IO 线程读取 [offset, offset + limit)，主线程回调
+    // 新增时间：2026年10月18日 11:30
+    public void loadLapPage(int offset, int limit, @NonNull Consumer<List<LapRecord>> callback) {
+        // 【2026-10-19 14:24】修改：由前缀和索引取上一条记录的主键，存储按主键续读，不再 OFFSET 跳过前面各行
+        if (offset > intervals.size()) {
+            callback.accept(Collections.emptyList());
+            return;
         }
-        return 0;
+        long afterId = offset == 0 ? 0L : intervals.idAt(offset - 1);
+        // 【2026-10-18 15:06】修改：存储中的间隔累计可能已因前面记录被修改而过期，按当前前缀和修正
+        lapRepository.loadLapRangeAsync(afterId, limit, page -> callback.accept(intervals.withCurrentTotals(offset, page)));
+    }
+
+    // 【2026-10-18 15:08】新增：修改第 position 条记录的间隔
+    // 功能作用：前缀和索引 O(log n) 更新，存储只重写这一行；其后各行的间隔累计随之变化并刷新显示
+    // 新增时间：2026年10月18日 15:08
+    // 【2026-10-19 11:52】修改：存储只改这一行的间隔与间隔累计
+    public void updateLapInterval(int position, long intervalMillis) {
+        if (isImporting() || !isLapsLoaded()) {
+            LogUtils.log("【TimerViewModel】导入或加载进行中，忽略修改第 " + (position + 1) + " 条分段记录");
+            return;
+        }
+        intervals.setIntervalMillis(position, intervalMillis);
+        lapRepository.updateLapInterval(intervals.idAt(position), intervalMillis, intervals.cumulativeMillis(position));
+        totalLapAccumulatedMillis = intervals.totalMillis();
+        lapChanges.setValue(LapListChange.rangeChanged(position, intervals.size() - position, intervals.size()));
+        LogUtils.log("【TimerViewModel】修改第 " + (position + 1) + " 条分段间隔为：" + LapRecord.formatTime(intervalMillis));
+        saveState();
+    }
+
+    // 【2026-10-18 15:10】新增：删除第 position 条记录
+    // 功能作用：前缀和索引 O(log n) 更新，存储只删除这一行
+    // 新增时间：2026年10月18日 15:10
+    public void deleteLap(int position) {
+        if (isImporting() || !isLapsLoaded()) {
+            LogUtils.log("【TimerViewModel】导入或加载进行中，忽略删除第 " + (position + 1) + " 条分段记录");
+            return;
+        }
+        // 【2026-10-19 14:24】修改：按主键删除
+        long id = intervals.idAt(position);
+        intervals.remove(position);
+        lapRepository.deleteLapRecord(id);
+        // 【2026-10-19 11:24】新增：加载时起点偏移由存储中第一条记录推算，删除第一条后按当前累计值重写新的第一条
+        if (position == 0 && !intervals.isEmpty()) {
+            lapRepository.updateLapInterval(intervals.idAt(0), intervals.intervalMillis(0), intervals.cumulativeMillis(0));
+        }
+        totalLapAccumulatedMillis = intervals.totalMillis();
+        lapChanges.setValue(LapListChange.removed(position, 1, intervals.size()));
+        LogUtils.log("【TimerViewModel】删除第 " + (position + 1) + " 条分段记录");
+        saveState();
+    }
+
+    // 【2026-10-18 15:12】新增：第 from 到第 to 条（[from, to)）记录的总时长，O(log n)
+    // 新增时间：2026年10月18日 15:12
+    public long getLapRangeMillis(int from, int to) {
+        return intervals.sumMillis(from, to);
     }
 
     // 【2025-11-22 06:17】新增：切换日夜模式
@@ -180,27 +310,66 @@ public class TimerViewModel extends AndroidViewModel {
     // 【2025-11-22 06:18】新增：导出数据
     // 功能作用：调用 Repository 执行导出
     // 新增时间：2025年11月22日 06:18
-    public boolean exportData(android.net.Uri uri) {
-        List<LapRecord> records = lapRecords.getValue();
-        if (records == null || records.isEmpty()) {
+    // 【2026-10-18 19:32】修改：由调用方指定导出格式
+    // 【2026-10-18 20:20】修改：改为后台导出；以当前不可变的分段列表为快照（导出期间继续记录不影响文件内容），
+    //                      返回是否已开始，结果经 getExportProgress() 通知
+    // 【2026-10-18 21:02】修改：增加日期范围 / 种类筛选
+    // 【2026-10-18 21:36】修改：增加追加写入（append 为 true 时追加到已有的 CSV / TSV 文档末尾）
+    // 【2026-10-19 11:52】修改：快照由仓库在 IO 线程按调用顺序从存储读取
+    // 【2026-10-19 14:50】修改：传入前缀和索引的只读快照，确定导出范围并给出各行的间隔累计
+    public boolean exportData(android.net.Uri uri, @NonNull LapExporter exporter, @NonNull LapExportFilter filter,
+                              boolean append) {
+        if (intervals.isEmpty()) {
             LogUtils.log("【TimerViewModel.exportData】无记录可导出");
             return false;
         }
-        return lapRepository.exportToExcel(uri, records);
+        lapRepository.exportAsync(uri, exporter, filter, append, intervals.snapshot());
+        return true;
+    }
+
+    // 【2026-10-19 15:10】新增：导出可选的分段种类（从存储查询，主线程回调）
+    // 新增时间：2026年10月19日 15:10
+    public void loadExportCategories(@NonNull Consumer<List<String>> callback) {
+        lapRepository.loadCategoriesAsync(callback);
+    }
+
+    // 【2026-10-18 20:22】新增：导出进度 / 结果与取消
+    // 新增时间：2026年10月18日 20:22
+    public LiveData<ExportProgress> getExportProgress() {
+        return LapRepository.getExportProgress();
+    }
+
+    public void cancelExport() {
+        LapRepository.cancelExport();
+    }
+
+    // 每个导出任务的结果只提示一次（界面重建后 LiveData 会重新分发最后一个值）；返回是否为首次
+    public boolean markExportAnnounced(long jobId) {
+        if (jobId <= lastAnnouncedExportJob) {
+            return false;
+        }
+        lastAnnouncedExportJob = jobId;
+        return true;
     }
 
     // 【2025-11-22 06:19】私有方法：保存状态到 SharedPreferences
     // 功能作用：恢复计时器状态
     // 新增时间：2025年11月22日 06:19
     private void saveState() {
+        // 【2026-10-18 15:48】修改：保存计时引擎状态（单调时间 + 墙上时间），旧键名沿用原含义
+        TimerEngine.State timer = timerEngine.saveState();
         prefs.edit()
-                .putBoolean("isRunning", isRunning.getValue())
-                .putLong("pauseOffsetMillis", pauseOffsetMillis)
-                .putLong("startTimeMillis", startTimeMillis)
+                .putBoolean("isRunning", timer.running)
+                .putLong("pauseOffsetMillis", timer.accumulatedMillis)
+                .putLong("runStartRealtimeMillis", timer.runStartRealtimeMillis)
+                .putLong("runStartWallMillis", timer.runStartWallMillis)
+                .remove("startTimeMillis")
                 .putInt("lapIndex", lapIndex)
-                .putLong("startTimeForLap", startTimeForLap)
-                .putLong("lastLapEndElapsedMillis", lastLapEndElapsedMillis)
+                .putLong("startTimeForLap", timer.lapStartWallMillis)
+                .putLong("lastLapEndElapsedMillis", timer.lapBoundaryMillis)
                 .putLong("totalLapAccumulatedMillis", totalLapAccumulatedMillis)
+                .putInt("bootCount", timer.bootCount)
+                .putLong("bootWallMillis", timer.bootWallMillis)
                 .apply();
     }
 
@@ -208,64 +377,148 @@ public class TimerViewModel extends AndroidViewModel {
     // 功能作用：应用启动时恢复上次状态
     // 新增时间：2025年11月22日 06:20
     private void loadState() {
-        isRunning.setValue(prefs.getBoolean("isRunning", false));
-        pauseOffsetMillis = prefs.getLong("pauseOffsetMillis", 0);
-        startTimeMillis = prefs.getLong("startTimeMillis", 0);
+        // 【2026-10-18 15:50】修改：恢复计时引擎状态；旧版本只保存了墙上开始时间，首次升级时按墙上时间换算
+        boolean running = prefs.getBoolean("isRunning", false);
+        long accumulated = prefs.getLong("pauseOffsetMillis", 0);
+        long runStartRealtime = prefs.getLong("runStartRealtimeMillis", 0);
+        long runStartWall = prefs.getLong("runStartWallMillis", 0);
+        if (running && !prefs.contains("runStartWallMillis")) {
+            long now = clock.currentTimeMillis();
+            accumulated = Math.max(0, now - prefs.getLong("startTimeMillis", now));
+            runStartRealtime = clock.elapsedRealtimeNanos() / 1_000_000L;
+            runStartWall = now;
+        }
+        timerEngine.restoreState(new TimerEngine.State(running, accumulated, runStartRealtime, runStartWall,
+                prefs.getLong("lastLapEndElapsedMillis", 0), prefs.getLong("startTimeForLap", 0),
+                prefs.getInt("bootCount", TimerClock.UNKNOWN_BOOT_COUNT), prefs.getLong("bootWallMillis", 0)));
+        isRunning.setValue(running);
+        elapsedMillis.setValue(timerEngine.elapsedMillis());
+        updateTickDriver();
         lapIndex = prefs.getInt("lapIndex", 0);
-        startTimeForLap = prefs.getLong("startTimeForLap", 0);
-        lastLapEndElapsedMillis = prefs.getLong("lastLapEndElapsedMillis", 0);
         totalLapAccumulatedMillis = prefs.getLong("totalLapAccumulatedMillis", 0);
         isNightMode.setValue(prefs.getBoolean("isNight", false));
-        lapRecords.setValue(lapRepository.loadLapRecords());
+        // 【2026-10-19 11:52】修改：只加载前缀和索引，列表内容按页读取
+        // 【2026-10-19 15:30】修改：在 IO 线程加载，主线程不等待；完成前保持空的占位索引（列表为空并显示加载中），
+        //                      完成后经 getLapsLoaded / getLapChanges 通知界面。计时状态只来自偏好设置，不受影响
+        lapRepository.loadLapIntervalsAsync(loaded -> {
+            intervals = loaded;
+            lapsLoaded.setValue(true);
+            lapChanges.setValue(LapListChange.reset(intervals.size()));
+        });
+    }
+
+    // 【2026-10-18 22:12】新增：从数据源流式导入
+    // 功能作用：由 LapRepository 边读边分批写入存储并切换，成功后把界面与计时器切到导入的数据；没有有效记录时保持原状
+    // 新增时间：2026年10月18日 22:12
+    // 【2026-10-18 23:32】修改：改为后台导入文件，立即返回；进度与结果经 getImportProgress() 通知。
+    //                      导入期间界面仍显示原数据，提交成功后在主线程一次性切换（applyImportedRecords），
+    //                      列表不会出现导入了一半的状态
+    public void importRecords(@NonNull android.net.Uri uri) {
+        activeImport = lapRepository.importAsync(uri, result -> {
+            activeImport = null;
+            // 【2026-10-19 11:24】修改：计时器设为导入数据的累计总时长（含起点偏移），而不是文件中最大的累计值
+            // 【2026-10-19 12:10】修改：使用提交后从存储加载的前缀和索引，不再在内存中持有导入的记录
+            applyImportedRecords(result.intervals, result.intervals.totalMillis());
+        });
+    }
+
+    // 【2026-10-18 23:33】新增：导入进度 / 结果与取消
+    // 新增时间：2026年10月18日 23:33
+    public LiveData<ImportProgress> getImportProgress() {
+        return LapRepository.getImportProgress();
+    }
+
+    // 【2026-10-19 12:30】新增：是否有导入任务尚未结束（主线程调用）
+    // 功能作用：导入在后台线程提交后、主线程切换前写入的分段会进入新数据且随后在切换时丢失，
+    //          导入前半段记录的分段也会被切换整体替换，因此导入期间不允许追加、修改或删除分段记录。
+    //          最终结果在主线程切换之后才发布，此处看到“已结束”时界面已是导入后的数据。
+    // 新增时间：2026年10月19日 12:30
+    public boolean isImporting() {
+        return activeImport != null && !activeImport.isFinished();
+    }
+
+    public void cancelImport() {
+        LapRepository.cancelImport();
+    }
+
+    // 每个导入任务的结果只提示一次（界面重建后 LiveData 会重新分发最后一个值）；返回是否为首次
+    public boolean markImportAnnounced(long jobId) {
+        if (jobId <= lastAnnouncedImportJob) {
+            return false;
+        }
+        lastAnnouncedImportJob = jobId;
+        return true;
     }
 
     // 【2025-11-22 18:45】新增：导入分段记录数据
     // 功能作用：将导入的数据设置为系统当前数据，并重置计时器状态到最大累计时间。
     // 新增时间：2025年11月22日 18:45
-    public void importRecords(@NonNull List<LapRecord> importedRecords, long maxElapsedMillis) {
+    // 【2026-10-18 22:12】修改：记录已由 LapRepository.importRecords 分批写入存储，这里只更新内存状态与界面
+    private void applyImportedRecords(@NonNull LapIntervalIndex importedRecords, long maxElapsedMillis) {
         // 1. 停止并重置当前计时状态
         if (Boolean.TRUE.equals(isRunning.getValue())) {
-            // 确保计时器是停止状态
+            // 确保计时器是停止状态（引擎在下方 resetTo 中停止）
             isRunning.setValue(false);
             LogUtils.log("【TimerViewModel】导入数据时：停止当前计时器运行状态。");
         }
 
-        // 2. 更新内部状态：将计时时间设为最大累计时间
-        pauseOffsetMillis = maxElapsedMillis;
-        startTimeMillis = 0; // 重置开始时间
+        // 2. 更新内部状态：将计时时间设为最大累计时间，下一次分段的起点是这个累计时间
+        timerEngine.resetTo(maxElapsedMillis);
+        updateTickDriver();
         lapIndex = importedRecords.size(); // 序号从下一条开始
 
         // maxElapsedMillis 就是导入数据的累计总时间
         totalLapAccumulatedMillis = maxElapsedMillis;
-        lastLapEndElapsedMillis = maxElapsedMillis; // 下一次分段的起点是这个累计时间
 
-        // 3. 更新 LiveData 和持久化
-        lapRecords.setValue(importedRecords);
-        elapsedMillis.setValue(maxElapsedMillis); // 更新 UI 上的计时器显示
+        // 3. 导入的数据已在存储中切换完成 (相当于重置按钮的操作)
+        // 【2026-10-18 11:28】调整顺序：先提交写入再通知界面，分页列表加载时读到的是导入后的数据
+        intervals = importedRecords;
 
-        // 4. 将导入的数据保存到 SharedPreferences (相当于重置按钮的操作)
-        lapRepository.saveAllLapRecords(importedRecords);
+        // 4. 更新 LiveData
+        lapChanges.setValue(LapListChange.reset(intervals.size()));
+        elapsedMillis.setValue(maxElapsedMillis); // 更新 UI 上的计时器显示
         saveState(); // 保存 TimerViewModel 内部状态
 
         LogUtils.log(String.format(Locale.getDefault(), "【TimerViewModel】数据导入完成。计时器已重置为累计时间：%s", LapRecord.formatTime(maxElapsedMillis)));
         android.util.Log.i("TimerViewModel", "Import finished. Timer reset to: " + LapRecord.formatTime(maxElapsedMillis));
     }
 
-    // 【2025-11-22 06:21】新增：更新已过时间（供 Handler 调用）
-    // 功能作用：刷新时间显示
-    // 新增时间：2025年11月22日 06:21
-    public void updateElapsed(long millis) {
-        elapsedMillis.setValue(millis);
+    // 【2026-10-18 17:10】私有方法：有订阅者且计时运行时才启动帧驱动，否则停止（无人观察时不产生任何开销）
+    // 新增时间：2026年10月18日 17:10
+    private void updateTickDriver() {
+        if (elapsedTicks.hasSubscribers() && timerEngine.isRunning()) {
+            lastTickCentis = -1;
+            frameTicker.start();
+        } else {
+            frameTicker.stop();
+        }
+    }
+
+    // 帧回调：显示的厘秒值变化时才发布
+    private void onTickFrame(long frameTimeNanos) {
+        long elapsed = timerEngine.elapsedMillis();
+        long centis = elapsed / 10;
+        if (centis != lastTickCentis) {
+            lastTickCentis = centis;
+            elapsedTicks.publish(elapsed);
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        frameTicker.stop();
+        // 【2026-10-18 23:34】新增：界面退出后无处切换导入结果，取消本界面发起的导入（原数据保持不变）
+        if (activeImport != null) {
+            activeImport.cancel();
+        }
     }
 
     // 【2025-11-22 06:22】新增：获取内部状态（供 MainActivity 计算 lap 时间）
     // 功能作用：暴露必要字段给 View 层计算使用
     // 新增时间：2025年11月22日 06:22
-    public long getStartTimeMillis() { return startTimeMillis; }
-    public long getPauseOffsetMillis() { return pauseOffsetMillis; }
-    public long getLastLapEndElapsedMillis() { return lastLapEndElapsedMillis; }
+    // 【2026-10-18 15:46】修改：计时相关字段改由 getTimerSnapshot() 提供
     public long getTotalLapAccumulatedMillis() { return totalLapAccumulatedMillis; }
-    public long getStartTimeForLap() { return startTimeForLap; }
     public int getLapIndex() { return lapIndex; }
 
 
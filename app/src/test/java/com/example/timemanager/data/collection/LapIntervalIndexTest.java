@@ -0,0 +1,243 @@
+package com.example.timemanager.data.collection;
+
+import com.example.timemanager.data.model.LapRecord;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * LapIntervalIndex 与逐条累加的朴素实现对比：追加、修改、删除（含墓碑压缩）后的累计值、区间和与按页修正
+ * 新增时间：2026-10-19 11:56
+ */
+public class LapIntervalIndexTest {
+
+    private static final long DAY = 1_760_745_600_000L;
+
+    private static LapRecord record(int index, long intervalMillis, long lapTimeMillis) {
+        long time = DAY + index * 60_000L;
+        return LapRecord.restore(index, 20251018, intervalMillis, lapTimeMillis, time - intervalMillis, time, time,
+                "工作", "事件" + index, null, null, null);
+    }
+
+    private static LapIntervalIndex index(long base, long... intervals) {
+        LapIntervalIndex index = new LapIntervalIndex();
+        long total = base;
+        for (int i = 0; i < intervals.length; i++) {
+            total += intervals[i];
+            index.append(record(i + 1, intervals[i], total).withId(index.nextId()));
+        }
+        return index;
+    }
+
+    // 朴素实现：逐条累加
+    private static void assertTotals(String message, long base, List<Long> intervals, LapIntervalIndex index) {
+        assertEquals(message, intervals.size(), index.size());
+        long total = base;
+        for (int i = 0; i < intervals.size(); i++) {
+            total += intervals.get(i);
+            assertEquals(message + " interval " + i, (long) intervals.get(i), index.intervalMillis(i));
+            assertEquals(message + " cumulative " + i, total, index.cumulativeMillis(i));
+        }
+        assertEquals(message + " total", total, index.totalMillis());
+    }
+
+    @Test
+    public void editAndDeleteRecomputeLaterTotals() {
+        LapIntervalIndex index = index(0, 1000, 2000, 3000, 4000);
+        index.setIntervalMillis(1, 500);
+        assertTotals("edited", 0, Arrays.asList(1000L, 500L, 3000L, 4000L), index);
+        index.remove(2);
+        assertTotals("middle deleted", 0, Arrays.asList(1000L, 500L, 4000L), index);
+        index.remove(0);
+        assertTotals("first deleted", 0, Arrays.asList(500L, 4000L), index);
+        index.remove(1);
+        index.remove(0);
+        assertTrue(index.isEmpty());
+        assertEquals(0L, index.totalMillis());
+    }
+
+    @Test
+    public void randomOperationsMatchNaiveSums() {
+        Random random = new Random(17);
+        List<Long> intervals = new ArrayList<>();
+        LapIntervalIndex index = new LapIntervalIndex();
+        // 足够多的删除以触发压缩（至少 64 个槽位且墓碑过半）
+        for (int step = 0; step < 3000; step++) {
+            int op = intervals.isEmpty() ? 0 : random.nextInt(4);
+            if (op == 0) {
+                long interval = random.nextInt(100_000);
+                index.append(record(step, interval, index.totalMillis() + interval));
+                intervals.add(interval);
+            } else if (op == 1) {
+                int position = random.nextInt(intervals.size());
+                long interval = random.nextInt(100_000);
+                index.setIntervalMillis(position, interval);
+                intervals.set(position, interval);
+            } else {
+                int position = random.nextInt(intervals.size());
+                index.remove(position);
+                intervals.remove(position);
+            }
+            if (step % 89 == 0) {
+                assertTotals("step " + step, 0, intervals, index);
+            }
+        }
+        assertTotals("final", 0, intervals, index);
+    }
+
+    @Test
+    public void rangeSumsMatchNaiveSums() {
+        LapIntervalIndex index = index(5_000, 1, 2, 4, 8, 16, 32, 64);
+        index.remove(2);
+        long[] intervals = {1, 2, 8, 16, 32, 64};
+        for (int from = 0; from <= intervals.length; from++) {
+            for (int to = from; to <= intervals.length; to++) {
+                long expected = 0;
+                for (int i = from; i < to; i++) {
+                    expected += intervals[i];
+                }
+                assertEquals("[" + from + ", " + to + ")", expected, index.sumMillis(from, to));
+            }
+        }
+        try {
+            index.sumMillis(2, 7);
+            fail("越界区间应抛出异常");
+        } catch (IndexOutOfBoundsException expected) {
+            // 预期
+        }
+        try {
+            index.intervalMillis(6);
+            fail("越界下标应抛出异常");
+        } catch (IndexOutOfBoundsException expected) {
+            // 预期
+        }
+    }
+
+    // 从存储一次性构建的索引与逐条追加的结果相同
+    @Test
+    public void bulkBuildMatchesAppends() {
+        long[] intervals = new long[100];
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < intervals.length; i++) {
+            intervals[i] = i * 7L + 1;
+            expected.add(intervals[i]);
+        }
+        long[] ids = new long[128];
+        for (int i = 0; i < intervals.length; i++) {
+            ids[i] = i + 1;
+        }
+        LapIntervalIndex built = LapIntervalIndex.of(3_000L, Arrays.copyOf(intervals, 128), ids, intervals.length, 1L);
+        assertTotals("built", 3_000L, expected, built);
+        assertEquals(101L, built.nextId());
+        assertTotals("appended", 3_000L, expected, index(3_000L, intervals));
+        built.append(record(101, 5L, 0L));
+        expected.add(5L);
+        assertTotals("built then appended", 3_000L, expected, built);
+    }
+
+    // 起点偏移在删除第一条与压缩之后保持不变；清空后由下一条追加的记录重新确定
+    @Test
+    public void baseSurvivesCompaction() {
+        long base = 42_000L;
+        long[] intervals = new long[200];
+        Arrays.fill(intervals, 100L);
+        LapIntervalIndex index = index(base, intervals);
+        assertEquals(base, index.baseMillis());
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            expected.add(100L);
+        }
+        for (int i = 0; i < 150; i++) {
+            index.remove(0);
+            expected.remove(0);
+        }
+        assertTotals("compacted", base, expected, index);
+        while (!index.isEmpty()) {
+            index.remove(index.size() - 1);
+        }
+        index.append(record(1, 250L, 1_000L));
+        assertEquals(750L, index.baseMillis());
+        assertEquals(1_000L, index.totalMillis());
+    }
+
+    // 删除（含压缩）后第 i 条的主键仍对应同一条记录；删除最后一条或清空后主键不回退
+    @Test
+    public void idsFollowRecordsAndNeverRegress() {
+        long[] intervals = new long[200];
+        Arrays.fill(intervals, 10L);
+        LapIntervalIndex index = index(0L, intervals);
+        List<Long> expected = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            expected.add(id);
+        }
+        Random random = new Random(5);
+        for (int i = 0; i < 150; i++) {
+            int position = random.nextInt(expected.size());
+            assertEquals(expected.get(position).longValue(), index.idAt(position));
+            index.remove(position);
+            expected.remove(position);
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals("compacted " + i, expected.get(i).longValue(), index.idAt(i));
+        }
+        index.remove(index.size() - 1);
+        assertEquals(201L, index.nextId());
+        index.clear();
+        assertTrue(index.isEmpty());
+        assertEquals(201L, index.nextId());
+
+        // 存储已分配过更大的主键（被删除的末尾记录）时以存储为准
+        LapIntervalIndex loaded = LapIntervalIndex.of(0L, new long[]{10L, 20L}, new long[]{3L, 7L}, 2, 12L);
+        assertEquals(7L, loaded.idAt(1));
+        assertEquals(12L, loaded.nextId());
+    }
+
+    // 快照之后的追加、修改、删除不影响快照；快照按主键给出当时的间隔累计
+    @Test
+    public void snapshotKeepsTotalsAtCreation() {
+        LapIntervalIndex index = index(100L, 10, 20, 30);
+        LapIntervalIndex snapshot = index.snapshot();
+        index.append(record(4, 40, 0L).withId(index.nextId()));
+        index.setIntervalMillis(0, 1_000);
+        index.remove(1);
+        assertEquals(3L, snapshot.lastId());
+        assertEquals(110L, snapshot.cumulativeMillisOf(1L, -1L));
+        assertEquals(130L, snapshot.cumulativeMillisOf(2L, -1L));
+        assertEquals(160L, snapshot.cumulativeMillisOf(3L, -1L));
+        assertEquals(-1L, snapshot.cumulativeMillisOf(4L, -1L));
+        assertEquals(1_100L, index.cumulativeMillisOf(1L, -1L));
+        assertEquals(-1L, index.cumulativeMillisOf(2L, -1L));
+        assertEquals(1_130L, index.cumulativeMillisOf(3L, -1L));
+        assertEquals(1_170L, index.cumulativeMillisOf(4L, -1L));
+        try {
+            snapshot.remove(0);
+            fail("只读快照不能修改");
+        } catch (UnsupportedOperationException expected) {
+            // 预期
+        }
+    }
+
+    // 存储中各行的间隔累计可能是旧值，按当前前缀和修正；累计值已正确的记录原样返回
+    @Test
+    public void withCurrentTotalsCorrectsStalePage() {
+        LapIntervalIndex index = index(1_000L, 10, 20, 30, 40);
+        index.setIntervalMillis(0, 15);
+        List<LapRecord> page = Arrays.asList(record(2, 20, 1_030L), record(3, 30, 1_060L), record(4, 40, 1_100L));
+        List<LapRecord> corrected = index.withCurrentTotals(1, page);
+        assertEquals(1_035L, corrected.get(0).getLapTimeMillis());
+        assertEquals(1_065L, corrected.get(1).getLapTimeMillis());
+        assertEquals(1_105L, corrected.get(2).getLapTimeMillis());
+
+        List<LapRecord> current = Arrays.asList(record(1, 15, 1_015L));
+        assertSame(current.get(0), index.withCurrentTotals(0, current).get(0));
+    }
+}
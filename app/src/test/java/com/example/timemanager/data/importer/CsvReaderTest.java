@@ -0,0 +1,83 @@
+package com.example.timemanager.data.importer;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * CsvReader 的物理行号：引号内的换行、空行、CRLF / LF / CR 行尾与缓冲区边界
+ * 新增时间：2026-10-19 10:52
+ */
+public class CsvReaderTest {
+
+    // 每一段都以记录边界结尾（最后一段除外），与 ParallelCsvLapRowSource 的分块方式相同
+    private static final String[] PIECES = {
+            "\uFEFF序号,日期\r\n",
+            "1,\"多行\r\n事件\"\n",
+            "\n",
+            "2,普通\r",
+            "3,\"CR\r换行\"\"引号\"\"\n再一行\"\r\n",
+            "4,末行无换行"
+    };
+    // 各条记录的起始行号与整个文件的行尾数
+    private static final long[] LINES = {1, 2, 4, 5, 6, 9};
+    private static final long LINES_READ = 8;
+
+    private static List<Long> lineNumbers(CsvReader reader) throws IOException {
+        List<Long> lines = new ArrayList<>();
+        while (reader.next()) {
+            lines.add(reader.getLineNumber());
+        }
+        return lines;
+    }
+
+    private static List<Long> expected(long[] lines, int from, int to) {
+        List<Long> result = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            result.add(lines[i]);
+        }
+        return result;
+    }
+
+    @Test
+    public void lineNumbersCountNewlinesInsideQuotes() throws IOException {
+        String csv = String.join("", PIECES);
+        for (int bufferSize : new int[]{1, 2, 3, 5, 16 * 1024}) {
+            CsvReader reader = new CsvReader(new StringReader(csv), ',', bufferSize);
+            assertEquals("buffer " + bufferSize, expected(LINES, 0, LINES.length), lineNumbers(reader));
+            assertEquals("buffer " + bufferSize, LINES_READ, reader.getLinesRead());
+            assertEquals("buffer " + bufferSize, LINES.length, reader.getRecordNumber());
+        }
+    }
+
+    @Test
+    public void trailingNewlineIsCountedOnce() throws IOException {
+        for (String ending : new String[]{"\n", "\r", "\r\n"}) {
+            CsvReader reader = new CsvReader(new StringReader("a" + ending + "b" + ending), ',', 1);
+            assertEquals(Arrays.asList(1L, 2L), lineNumbers(reader));
+            assertEquals(2L, reader.getLinesRead());
+        }
+    }
+
+    // 按记录边界分块读取时，块内行号加上前面各块的行数等于整个文件中的行号
+    @Test
+    public void chunkLinesAddUpToFileLines() throws IOException {
+        for (int split = 1; split < PIECES.length; split++) {
+            String head = String.join("", Arrays.copyOfRange(PIECES, 0, split));
+            String tail = String.join("", Arrays.copyOfRange(PIECES, split, PIECES.length));
+            CsvReader first = new CsvReader(new StringReader(head), ',', 4);
+            List<Long> lines = lineNumbers(first);
+            CsvReader second = new CsvReader(new StringReader(tail), ',', 4);
+            for (long line : lineNumbers(second)) {
+                lines.add(first.getLinesRead() + line);
+            }
+            assertEquals("split " + split, expected(LINES, 0, LINES.length), lines);
+        }
+    }
+}
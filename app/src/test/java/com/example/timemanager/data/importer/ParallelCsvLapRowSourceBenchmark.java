@@ -0,0 +1,43 @@
+package com.example.timemanager.data.importer;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 逐行解析与分块并行解析在生成文件上的耗时对比（手动运行，不属于常规测试）
+ * 结果取决于核心数与 JIT 预热，只作参考，不做断言。取三轮中的最短耗时。
+ * 记录（2026-10-19，单核 JVM，PARALLELISM = 1，两次运行）：逐行 540 ~ 800 ms，分块 298 ~ 498 ms，1.6 ~ 1.8x；
+ * 单核上的差距来自分块路径更大的读缓冲，而非并行。
+ * 新增时间：2026-10-19 10:50
+ */
+@Ignore("基准测试，需要时去掉 @Ignore 手动运行")
+public class ParallelCsvLapRowSourceBenchmark {
+
+    private static final int ROWS = 200_000;
+
+    @Test
+    public void compareWithSequential() throws IOException {
+        String csv = ParallelCsvLapRowSourceTest.generate(new Random(7), ROWS);
+        long sequential = Long.MAX_VALUE;
+        long parallel = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            int expected = ParallelCsvLapRowSourceTest.readAll(new CsvLapRowSource(new StringReader(csv))).size();
+            long middle = System.nanoTime();
+            int actual = ParallelCsvLapRowSourceTest.readAll(new ParallelCsvLapRowSource(new StringReader(csv))).size();
+            long end = System.nanoTime();
+            assertEquals(expected, actual);
+            sequential = Math.min(sequential, middle - start);
+            parallel = Math.min(parallel, end - middle);
+        }
+        System.out.printf("%d 行 CSV：逐行 %d ms，并行（%d 线程）%d ms，加速 %.2fx%n",
+                ROWS, sequential / 1_000_000, ParallelCsvLapRowSource.PARALLELISM,
+                parallel / 1_000_000, (double) sequential / parallel);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.timemanager.data.importer;
+
+import com.example.timemanager.data.model.LapRecord;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * 分块并行解析与逐行解析（CsvLapRowSource）的逐条对比
+ * 新增时间：2026-10-18 23:12
+ * 修改时间：2026-10-19 10:50 - 耗时对比移到 ParallelCsvLapRowSourceBenchmark（默认不运行）
+ */
+public class ParallelCsvLapRowSourceTest {
+
+    private static final String HEADER = "序号,日期,间隔,间隔累计,开始时间,记录时间,分段种类,具体事件";
+    private static final String[] LINE_ENDINGS = {"\n", "\r\n", "\r"};
+    // 引号内含逗号、转义引号与各种换行，块边界不能落在其中
+    private static final String[] DETAILS = {
+            "普通事件", "\"含,逗号\"", "\"多行\r\n\"\"引号\"\"\n\r结尾\"", "\"\"", "未加引号的\"引号", ""
+    };
+
+    static String generate(Random random, int rows) {
+        StringBuilder sb = new StringBuilder("\uFEFF").append(HEADER).append("\r\n");
+        for (int i = 1; i <= rows; i++) {
+            sb.append(i).append(",2025-10-09,0:00:0").append(i % 10).append(".50,1:")
+                    .append(i % 6).append("0:00.00,2025-10-09 08:54:19,2025-10-09 08:5")
+                    .append(i % 10).append(":2").append(i % 10).append(",工作,")
+                    .append(DETAILS[random.nextInt(DETAILS.length)]);
+            if (random.nextInt(10) == 0) {
+                // 空行应被忽略
+                sb.append(LINE_ENDINGS[random.nextInt(LINE_ENDINGS.length)]);
+            }
+            if (i < rows || random.nextBoolean()) {
+                sb.append(LINE_ENDINGS[random.nextInt(LINE_ENDINGS.length)]);
+            }
+        }
+        return sb.toString();
+    }
+
+    static List<String> readAll(LapRowSource source) throws IOException {
+        List<String> rows = new ArrayList<>();
+        try (LapRowSource s = source) {
+            LapRecord r;
+            while ((r = s.next()) != null) {
+                rows.add(r.getIndex() + "|" + r.getDate() + "|" + r.getIntervalMillis() + "|" + r.getLapTimeMillis()
+                        + "|" + r.getStartTimeMillis() + "|" + r.getRecordTimeMillis() + "|" + r.getCategory() + "|" + r.getDetail());
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    public void matchesSequentialParserForAnyChunkSize() throws IOException {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            String csv = generate(random, random.nextInt(80));
+            List<String> expected = readAll(new CsvLapRowSource(new StringReader(csv)));
+            for (int chunkChars : new int[]{1, 2, 7, 64, 1000, ParallelCsvLapRowSource.DEFAULT_CHUNK_CHARS}) {
+                assertEquals("round " + round + " chunk " + chunkChars,
+                        expected, readAll(new ParallelCsvLapRowSource(new StringReader(csv), chunkChars)));
+            }
+        }
+    }
+
+    @Test
+    public void rejectsEmptyFileAndWrongHeader() throws IOException {
+        try {
+            new ParallelCsvLapRowSource(new StringReader(""), 16);
+            fail("空文件应被拒绝");
+        } catch (LapImportException e) {
+            assertEquals(LapImportException.Reason.EMPTY, e.getReason());
+        }
+        try {
+            new ParallelCsvLapRowSource(new StringReader("a,b,c\n1,2,3\n"), 16);
+            fail("表头不符应被拒绝");
+        } catch (LapImportException e) {
+            assertEquals(LapImportException.Reason.HEADER, e.getReason());
+        }
+    }
+}
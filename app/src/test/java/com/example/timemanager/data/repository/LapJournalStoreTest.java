@@ -0,0 +1,170 @@
+package com.example.timemanager.data.repository;
+
+import com.example.timemanager.data.model.LapRecord;
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * LapJournalStore 写新快照后、删除旧日志前进程被杀：重新打开时不会把已并入快照的日志再回放一遍
+ * 新增时间：2026-10-19 13:45
+ */
+public class LapJournalStoreTest {
+
+    private static final long DAY = 1_760_745_600_000L;
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("lap-journal").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private static LapRecord record(int index) {
+        long time = DAY + index * 60_000L;
+        return LapRecord.restore(index, 20251018, 1000L, index * 1000L, time - 1000L, time, time,
+                "工作", "事件" + index, null, null, null);
+    }
+
+    private LapJournalStore open() {
+        return new LapJournalStore(dir, new Gson());
+    }
+
+    private static List<Integer> indexes(List<LapRecord> records) {
+        List<Integer> result = new ArrayList<>();
+        for (LapRecord record : records) {
+            result.add(record.getIndex());
+        }
+        return result;
+    }
+
+    // 当前目录中的日志文件内容，用来在快照改名后把它们放回去，模拟“删除旧日志”之前进程被杀
+    private Map<String, byte[]> journals() throws IOException {
+        Map<String, byte[]> result = new HashMap<>();
+        File[] files = dir.listFiles((d, name) -> name.startsWith("lap_journal."));
+        if (files != null) {
+            for (File file : files) {
+                result.put(file.getName(), Files.readAllBytes(file.toPath()));
+            }
+        }
+        return result;
+    }
+
+    private void restore(Map<String, byte[]> journals) throws IOException {
+        for (Map.Entry<String, byte[]> entry : journals.entrySet()) {
+            Files.write(new File(dir, entry.getKey()).toPath(), entry.getValue());
+        }
+    }
+
+    @Test
+    public void replaysSnapshotAndJournal() throws IOException {
+        LapJournalStore store = open();
+        store.replaceAll(Arrays.asList(record(1), record(2)));
+        store.append(record(3));
+        store.append(record(4));
+        assertEquals(Arrays.asList(1, 2, 3, 4), indexes(open().load()));
+    }
+
+    @Test
+    public void crashAfterSnapshotRenameDoesNotDuplicateJournal() throws IOException {
+        LapJournalStore store = open();
+        store.replaceAll(Arrays.asList(record(1), record(2)));
+        store.append(record(3));
+        store.append(record(4));
+        Map<String, byte[]> beforeSnapshot = journals();
+        assertFalse(beforeSnapshot.isEmpty());
+
+        // 与 compact 相同：把“快照 + 日志”写成新快照
+        store.replaceAll(store.load());
+        restore(beforeSnapshot);
+
+        LapJournalStore reopened = open();
+        assertEquals(Arrays.asList(1, 2, 3, 4), indexes(reopened.load()));
+        // 旧代日志已被清理，之后的追加写入新的一代
+        assertEquals(0, journals().size());
+        reopened.append(record(5));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), indexes(open().load()));
+    }
+
+    @Test
+    public void crashAfterImportRenameDoesNotReplayOldJournal() throws IOException {
+        LapJournalStore store = open();
+        store.replaceAll(Arrays.asList(record(1), record(2)));
+        store.append(record(3));
+        Map<String, byte[]> beforeImport = journals();
+
+        LapStore.ImportSession session = store.beginImport();
+        session.add(Arrays.asList(record(10), record(11)));
+        session.commit();
+        restore(beforeImport);
+
+        assertEquals(Arrays.asList(10, 11), indexes(open().load()));
+    }
+
+    // 没有主键的旧记录按顺序编号，每次加载相同；按主键修改 / 删除
+    @Test
+    public void assignsStableIdsAndUpdatesById() throws IOException {
+        LapJournalStore store = open();
+        store.replaceAll(Arrays.asList(record(1), record(2), record(3)));
+        store.append(record(4).withId(4L));
+        List<LapRecord> loaded = open().load();
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), ids(loaded));
+        assertEquals(ids(loaded), ids(open().load()));
+
+        store.delete(2L);
+        store.updateInterval(3L, 5000L, 6000L);
+        List<LapRecord> edited = open().load();
+        assertEquals(Arrays.asList(1L, 3L, 4L), ids(edited));
+        assertEquals(5000L, edited.get(1).getIntervalMillis());
+        assertEquals(Arrays.asList(4), indexes(store.loadRange(3L, 10)));
+    }
+
+    private static List<Long> ids(List<LapRecord> records) {
+        List<Long> result = new ArrayList<>();
+        for (LapRecord record : records) {
+            result.add(record.getId());
+        }
+        return result;
+    }
+
+    @Test
+    public void generationsKeepIncreasingAcrossReopen() throws IOException {
+        LapJournalStore store = open();
+        store.append(record(1));
+        store.replaceAll(store.load());
+        store.append(record(2));
+        Map<String, byte[]> current = journals();
+
+        LapJournalStore reopened = open();
+        reopened.replaceAll(reopened.load());
+        reopened.append(record(3));
+        // 之前那一代的日志被放回也不会与新的一代混淆
+        restore(current);
+        assertEquals(Arrays.asList(1, 2, 3), indexes(open().load()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.timemanager.data.repository;
+
+import com.example.timemanager.data.model.LapRecord;
+import com.example.timemanager.util.TimeFormatService;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * LapQuery 的时间取值顺序（记录时间戳 → 记录时间 → 日期零点）与只有日期的记录对应的日期范围
+ * 新增时间：2026-10-19 14:52
+ */
+public class LapQueryTest {
+
+    private static final int DAY_KEY = 20251018;
+    private static final long DAY = TimeFormatService.startOfDayMillis(DAY_KEY);
+    private static final long HOUR = 3600_000L;
+
+    private static LapRecord record(long id, int dateKey, long recordTimeMillis, long recordSystemTimeMillis) {
+        return LapRecord.restore(id, (int) id, dateKey, 1000L, 1000L * id, 0L, recordTimeMillis,
+                recordSystemTimeMillis, "工作", null, null, null, null);
+    }
+
+    @Test
+    public void timeFallsBackToRecordTimeThenDate() {
+        LapQuery query = new LapQuery(DAY + HOUR, DAY + 2 * HOUR, null, 0L, Long.MAX_VALUE);
+        assertTrue(query.matches(record(1, DAY_KEY, 0L, DAY + HOUR)));
+        assertFalse(query.matches(record(2, DAY_KEY, DAY + HOUR, DAY + 3 * HOUR)));
+        assertTrue(query.matches(record(3, DAY_KEY, DAY + HOUR, 0L)));
+        // 只有日期：按当天零点比较，零点不在范围内
+        assertFalse(query.matches(record(4, DAY_KEY, 0L, 0L)));
+        assertTrue(new LapQuery(DAY, DAY + HOUR, null, 0L, Long.MAX_VALUE).matches(record(5, DAY_KEY, 0L, 0L)));
+    }
+
+    @Test
+    public void dateKeysCoverDaysStartingInRange() {
+        assertEquals(DAY_KEY, new LapQuery(DAY, DAY + HOUR, null, 0L, Long.MAX_VALUE).fromDateKey());
+        assertEquals(DAY_KEY, new LapQuery(DAY, DAY + HOUR, null, 0L, Long.MAX_VALUE).toDateKey());
+        // 起点在当天零点之后：当天零点不在范围内，从下一天开始
+        assertEquals(TimeFormatService.toDateKey(DAY + 30 * HOUR),
+                new LapQuery(DAY + HOUR, Long.MAX_VALUE, null, 0L, Long.MAX_VALUE).fromDateKey());
+        // 终点恰为下一天零点：不含下一天
+        long nextDay = TimeFormatService.startOfDayMillis(TimeFormatService.toDateKey(DAY + 30 * HOUR));
+        assertEquals(DAY_KEY, new LapQuery(Long.MIN_VALUE, nextDay, null, 0L, Long.MAX_VALUE).toDateKey());
+        assertEquals(Integer.MIN_VALUE, new LapQuery(Long.MIN_VALUE, nextDay, null, 0L, Long.MAX_VALUE).fromDateKey());
+    }
+
+    @Test
+    public void idRangeAndCategory() {
+        LapQuery query = new LapQuery(Long.MIN_VALUE, Long.MAX_VALUE, "工作", 2L, 4L);
+        assertFalse(query.hasTimeRange());
+        assertFalse(query.matches(record(2, DAY_KEY, 0L, 0L)));
+        assertTrue(query.matches(record(3, DAY_KEY, 0L, 0L)));
+        assertTrue(query.matches(record(4, 0, 0L, 0L)));
+        assertFalse(query.matches(record(5, DAY_KEY, 0L, 0L)));
+        assertFalse(new LapQuery(Long.MIN_VALUE, Long.MAX_VALUE, "学习", 0L, 4L).matches(record(3, DAY_KEY, 0L, 0L)));
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.timemanager.timer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * TimerEngine 假时钟测试：开始 / 暂停 / 分段 / 墙上时间跳变 / 进程与设备重启恢复
+ * 新增时间：2026-10-18 15:56
+ * 修改时间：2026-10-19 09:36 - 增加重启后开机时长更长时的恢复（开机序号 / 估算开机时刻）
+ */
+public class TimerEngineTest {
+
+    // 可手动拨动的时钟，单调时间与墙上时间相互独立
+    private static final class FakeClock implements TimerClock {
+        long nanos = 5_000_000_000L;
+        long wall = 1_760_000_000_000L;
+        int boot = 7;
+
+        void advance(long millis) {
+            nanos += millis * 1_000_000L;
+            wall += millis;
+        }
+
+        @Override
+        public long elapsedRealtimeNanos() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return wall;
+        }
+
+        @Override
+        public int bootCount() {
+            return boot;
+        }
+    }
+
+    private FakeClock clock;
+    private TimerEngine engine;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock();
+        engine = new TimerEngine(clock);
+    }
+
+    @Test
+    public void elapsedIsComputedOnDemand() {
+        assertEquals(0, engine.elapsedMillis());
+        engine.start();
+        clock.advance(1234);
+        assertEquals(1234, engine.elapsedMillis());
+        clock.advance(766);
+        assertEquals(2000, engine.snapshot().elapsedMillis);
+        assertTrue(engine.isRunning());
+    }
+
+    @Test
+    public void pauseFreezesAndResumeAccumulates() {
+        engine.start();
+        clock.advance(1000);
+        engine.pause();
+        clock.advance(60_000);
+        assertEquals(1000, engine.elapsedMillis());
+        assertFalse(engine.isRunning());
+        engine.start();
+        clock.advance(500);
+        assertEquals(1500, engine.elapsedMillis());
+    }
+
+    @Test
+    public void wallClockJumpDoesNotAffectElapsed() {
+        engine.start();
+        clock.advance(1000);
+        clock.wall -= 3_600_000L; // 用户把系统时间调回一小时
+        clock.advance(1000);
+        assertEquals(2000, engine.elapsedMillis());
+        clock.wall += 86_400_000L; // 时区 / 自动校时跳到明天
+        assertEquals(2000, engine.elapsedMillis());
+    }
+
+    @Test
+    public void markLapMovesBoundary() {
+        engine.start();
+        long startWall = clock.wall;
+        clock.advance(3000);
+        TimerSnapshot first = engine.markLap();
+        assertEquals(3000, first.lapMillis());
+        assertEquals(startWall, first.lapStartWallMillis);
+        clock.advance(2500);
+        TimerSnapshot now = engine.snapshot();
+        assertEquals(5500, now.elapsedMillis);
+        assertEquals(3000, now.lapBoundaryMillis);
+        assertEquals(2500, now.lapMillis());
+    }
+
+    @Test
+    public void lapStartFollowsLatestStart() {
+        engine.start();
+        clock.advance(1000);
+        engine.pause();
+        clock.advance(5000);
+        long resumeWall = clock.wall;
+        engine.start();
+        assertEquals(resumeWall, engine.snapshot().lapStartWallMillis);
+    }
+
+    @Test
+    public void resetToSetsElapsedAndLapBoundary() {
+        engine.start();
+        clock.advance(1000);
+        engine.resetTo(90_000);
+        assertFalse(engine.isRunning());
+        assertEquals(90_000, engine.elapsedMillis());
+        assertEquals(0, engine.snapshot().lapMillis());
+        engine.reset();
+        assertEquals(0, engine.elapsedMillis());
+        assertEquals(0, engine.snapshot().lapStartWallMillis);
+    }
+
+    @Test
+    public void restoreAfterProcessDeathUsesMonotonicClock() {
+        engine.start();
+        clock.advance(2000);
+        engine.markLap();
+        TimerEngine.State state = engine.saveState();
+
+        clock.advance(3000);
+        clock.wall += 600_000L; // 墙上时间跳变不应影响恢复结果
+        TimerEngine restored = new TimerEngine(clock);
+        restored.restoreState(state);
+        assertTrue(restored.isRunning());
+        assertEquals(5000, restored.elapsedMillis());
+        assertEquals(3000, restored.snapshot().lapMillis());
+    }
+
+    @Test
+    public void restoreAfterRebootFallsBackToWallClock() {
+        engine.start();
+        clock.advance(10_000);
+        TimerEngine.State state = engine.saveState();
+
+        // 设备重启：单调时钟从头计数，墙上时间继续前进
+        clock.nanos = 1_000_000_000L;
+        clock.wall += 20_000;
+        TimerEngine restored = new TimerEngine(clock);
+        restored.restoreState(state);
+        assertEquals(30_000, restored.elapsedMillis());
+        clock.advance(1000);
+        assertEquals(31_000, restored.elapsedMillis());
+    }
+
+    @Test
+    public void restorePausedStateIgnoresClocks() {
+        engine.start();
+        clock.advance(4000);
+        engine.pause();
+        TimerEngine.State state = engine.saveState();
+        clock.nanos = 0;
+        TimerEngine restored = new TimerEngine(clock);
+        restored.restoreState(state);
+        assertFalse(restored.isRunning());
+        assertEquals(4000, restored.elapsedMillis());
+    }
+
+    @Test
+    public void restoreAfterRebootWithLongerUptimeUsesBootCount() {
+        engine.start();
+        clock.advance(10_000);
+        TimerEngine.State state = engine.saveState();
+
+        // 设备重启后又运行了很久：当前单调时间已大于保存时的开始时间，只能靠开机序号识别
+        clock.boot++;
+        clock.nanos += 3_600_000L * 1_000_000L;
+        clock.wall += 20_000;
+        TimerEngine restored = new TimerEngine(clock);
+        restored.restoreState(state);
+        assertEquals(30_000, restored.elapsedMillis());
+        clock.advance(1000);
+        assertEquals(31_000, restored.elapsedMillis());
+    }
+
+    @Test
+    public void restoreWithoutBootCountComparesBootTime() {
+        clock.boot = TimerClock.UNKNOWN_BOOT_COUNT;
+        clock.nanos = 3_600_000L * 1_000_000L; // 已开机一小时
+        engine.start();
+        clock.advance(10_000);
+        TimerEngine.State state = engine.saveState();
+
+        // 同一次开机：估算的开机时刻不变，按单调时钟恢复（墙上时间的小幅校准在容差内）
+        clock.advance(5000);
+        clock.wall += 2000;
+        TimerEngine sameBoot = new TimerEngine(clock);
+        sameBoot.restoreState(state);
+        assertEquals(15_000, sameBoot.elapsedMillis());
+
+        // 关机 20 秒后重启，又运行了两小时：单调时间大于保存时的值，但估算的开机时刻已后移，按墙上时间恢复
+        clock.nanos = 2 * 3_600_000L * 1_000_000L;
+        clock.wall += 20_000 + 2 * 3_600_000L;
+        TimerEngine rebooted = new TimerEngine(clock);
+        rebooted.restoreState(state);
+        assertEquals(17_000 + 20_000 + 2 * 3_600_000L, rebooted.elapsedMillis());
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.timemanager.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * DurationFormatter 与原 String.format / split 实现的逐字对比测试
+ * 新增时间：2026-10-18 13:45
+ */
+public class DurationFormatterTest {
+
+    private static final Locale[] LOCALES = {
+            Locale.CHINA, Locale.US, Locale.ROOT,
+            Locale.forLanguageTag("ar-EG"), Locale.forLanguageTag("fa-IR"), Locale.forLanguageTag("hi-IN-u-nu-deva")
+    };
+
+    private Locale originalLocale;
+
+    @Before
+    public void saveLocale() {
+        originalLocale = Locale.getDefault();
+    }
+
+    @After
+    public void restoreLocale() {
+        Locale.setDefault(originalLocale);
+    }
+
+    // 原 LapRecord.formatTime 实现
+    private static String legacyFormat(long millis) {
+        long hours = TimeUnit.MILLISECONDS.toHours(millis);
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(millis) % 60;
+        long seconds = TimeUnit.MILLISECONDS.toSeconds(millis) % 60;
+        long centiseconds = (millis % 1000) / 10;
+        return String.format(Locale.getDefault(), "%d:%02d:%02d.%02d", hours, minutes, seconds, centiseconds);
+    }
+
+    // 原 LapRecord.parseTime 实现（去掉日志，出错返回 0）
+    private static long legacyParse(String timeString) {
+        if (timeString == null || timeString.isEmpty()) return 0L;
+        try {
+            String[] parts = timeString.split("[:.]");
+            if (parts.length != 4) return 0L;
+            long hours = Long.parseLong(parts[0].trim());
+            long minutes = Long.parseLong(parts[1].trim());
+            long seconds = Long.parseLong(parts[2].trim());
+            long centiseconds = Long.parseLong(parts[3].trim());
+            return hours * 3600000L + minutes * 60000L + seconds * 1000L + centiseconds * 10L;
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static long parseOrZero(String text) {
+        if (text == null || text.isEmpty()) return 0L;
+        try {
+            return DurationFormatter.parse(text);
+        } catch (IllegalArgumentException e) {
+            return 0L;
+        }
+    }
+
+    private static long[] sampleValues() {
+        Random random = new Random(20261018L);
+        long[] values = new long[20000];
+        long[] fixed = {0, 1, 9, 10, 99, 999, 1000, 59999, 60000, 3599999, 3600000, 35999999, 360000000,
+                -1, -9, -10, -11, -999, -1000, -61000, -3600000, -3600010,
+                Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 5, Long.MIN_VALUE + 5};
+        System.arraycopy(fixed, 0, values, 0, fixed.length);
+        for (int i = fixed.length; i < values.length; i++) {
+            switch (i % 4) {
+                case 0: values[i] = random.nextInt(86_400_000); break;
+                case 1: values[i] = random.nextLong() % 1_000_000_000_000L; break;
+                case 2: values[i] = -random.nextInt(86_400_000); break;
+                default: values[i] = random.nextLong(); break;
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void format_matchesLegacyStringFormat() {
+        long[] values = sampleValues();
+        for (Locale locale : LOCALES) {
+            Locale.setDefault(locale);
+            DurationFormatter formatter = new DurationFormatter();
+            char[] buffer = new char[64];
+            for (long value : values) {
+                String expected = legacyFormat(value);
+                assertEquals(locale + " / " + value, expected, DurationFormatter.toString(value));
+                assertEquals(locale + " / " + value, expected, formatter.format(value));
+                int length = DurationFormatter.formatTo(value, buffer, 3);
+                assertEquals(locale + " / " + value, expected, new String(buffer, 3, length));
+                StringBuilder sb = new StringBuilder("x");
+                DurationFormatter.appendTo(sb, value);
+                assertEquals("x" + expected, sb.toString());
+            }
+        }
+    }
+
+    @Test
+    public void format_returnsCachedStringWithinSameCentisecond() {
+        DurationFormatter formatter = new DurationFormatter();
+        String first = formatter.format(12_340);
+        assertSame(first, formatter.format(12_349));
+        assertEquals("0:00:12.35", formatter.format(12_350));
+    }
+
+    @Test
+    public void parse_matchesLegacySplitParser() {
+        Locale.setDefault(Locale.US);
+        for (long value : sampleValues()) {
+            String text = legacyFormat(value);
+            assertEquals(text, legacyParse(text), parseOrZero(text));
+        }
+        String[] odd = {"", "1:02:03.45", " 1 : 02 : 03 . 45 ", "1:2:3.4", "1:2:3.4::", "1:2:3.4: ", "1:2:3",
+                "1:2:3.4.5", "::", ":1:2:3", "1::2.3", "+1:-2:3.4", "-:1:2.3", "a:b:c.d", "1:2:3.4x",
+                "99999999999999999999:0:0.0", "9223372036854775807:0:0.0", "-9223372036854775808:0:0.0",
+                "١:٠٢:٠٣.٤٥", "12:34:56.78"};
+        for (String text : odd) {
+            assertEquals("'" + text + "'", legacyParse(text), parseOrZero(text));
+        }
+    }
+
+    @Test
+    public void parse_rejectsWrongFieldCount() {
+        try {
+            DurationFormatter.parse("1:2:3");
+            fail("expected IllegalArgumentException");
+        } catch (NumberFormatException e) {
+            fail("field count should be checked before numbers");
+        } catch (IllegalArgumentException expected) {
+            // ok
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.timemanager.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * TimeFormatService 时区切换：同一秒内切换时区后不得返回按旧时区格式化的记忆结果
+ * 新增时间：2026-10-19 09:46
+ */
+public class TimeFormatServiceTest {
+
+    // 2025-10-18 12:34:56 UTC
+    private static final long MILLIS = 1_760_790_896_000L;
+
+    private TimeZone originalZone;
+
+    @Before
+    public void saveZone() {
+        originalZone = TimeZone.getDefault();
+    }
+
+    @After
+    public void restoreZone() {
+        TimeZone.setDefault(originalZone);
+        TimeFormatService.refreshTimeZone();
+    }
+
+    @Test
+    public void zoneChangeWithinSameSecondIsNotServedFromMemo() {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        TimeFormatService.refreshTimeZone();
+        assertEquals("2025-10-18 12:34:56", TimeFormatService.formatDateTime(MILLIS));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+        TimeFormatService.refreshTimeZone();
+        assertEquals("2025-10-18 20:34:56", TimeFormatService.formatDateTime(MILLIS + 1));
+        assertEquals(20251018, TimeFormatService.toDateKey(MILLIS));
+        assertEquals(MILLIS, TimeFormatService.parseDateTime("2025-10-18 20:34:56"));
+    }
+
+    @Test
+    public void dateKeyFollowsZoneAcrossMidnight() {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        TimeFormatService.refreshTimeZone();
+        long lateEvening = MILLIS + 11 * 3_600_000L; // 23:34:56 UTC
+        assertEquals(20251018, TimeFormatService.toDateKey(lateEvening));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        TimeFormatService.refreshTimeZone();
+        assertEquals(20251019, TimeFormatService.toDateKey(lateEvening));
+    }
+}